@@ -22,6 +22,8 @@ package pw.ollie.politics;
 import pw.ollie.politics.activity.ActivityManager;
 import pw.ollie.politics.command.PoliticsCommandManager;
 import pw.ollie.politics.data.PoliticsFileSystem;
+import pw.ollie.politics.data.PoliticsJournal;
+import pw.ollie.politics.data.SavePipeline;
 import pw.ollie.politics.economy.PoliticsEconomy;
 import pw.ollie.politics.group.Group;
 import pw.ollie.politics.group.GroupManager;
@@ -79,6 +81,24 @@ public final class Politics {
         return Politics.getPlugin().getFileSystem();
     }
 
+    /**
+     * Gets the {@link SavePipeline} of the plugin, which writes data files off the main thread.
+     *
+     * @return the current plugin SavePipeline instance
+     */
+    public static SavePipeline getSavePipeline() {
+        return Politics.getPlugin().getSavePipeline();
+    }
+
+    /**
+     * Gets the {@link PoliticsJournal} of the plugin, which records changes made between saves.
+     *
+     * @return the current plugin PoliticsJournal instance
+     */
+    public static PoliticsJournal getJournal() {
+        return Politics.getPlugin().getJournal();
+    }
+
     /**
      * Gets the {@link PoliticsConfig} instance which provides access to general plugin configuration values.
      *
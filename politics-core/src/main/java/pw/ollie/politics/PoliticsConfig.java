@@ -47,6 +47,11 @@ public final class PoliticsConfig {
     private boolean economyEnabled;
     private String economyType;
 
+    // data
+    private long dataSaveInterval;
+    private boolean journalEnabled;
+    private boolean journalStrict;
+
     PoliticsConfig(PoliticsPlugin plugin) {
         this.plugin = plugin;
         this.configFile = new File(plugin.getFileSystem().getBaseDir(), CONFIG_FILE_NAME);
@@ -79,6 +84,35 @@ public final class PoliticsConfig {
         return economyType;
     }
 
+    /**
+     * Gets the configured interval between saves of all data, in ticks.
+     *
+     * @return the data save interval in ticks
+     */
+    public long getDataSaveInterval() {
+        return dataSaveInterval;
+    }
+
+    /**
+     * Returns whether changes are configured to be recorded in the {@link pw.ollie.politics.data.PoliticsJournal}
+     * between saves.
+     *
+     * @return whether the journal is enabled
+     */
+    public boolean isJournalEnabled() {
+        return journalEnabled;
+    }
+
+    /**
+     * Returns whether the {@link pw.ollie.politics.data.PoliticsJournal} is configured to sync every change to disk as
+     * it is recorded, rather than periodically.
+     *
+     * @return whether the journal syncs every change
+     */
+    public boolean isJournalStrict() {
+        return journalStrict;
+    }
+
     void loadConfig() {
         // save the default config file without overwriting an existing one
         plugin.saveResource("config.yml", false);
@@ -96,5 +130,10 @@ public final class PoliticsConfig {
         ConfigurationSection economicSection = ConfigUtil.getOrCreateSection(config, "economic");
         economyEnabled = economicSection.getBoolean("enabled", true);
         economyType = economicSection.getString("economy-type", "vault").toLowerCase();
+
+        ConfigurationSection dataSection = ConfigUtil.getOrCreateSection(config, "data");
+        dataSaveInterval = Math.max(1, dataSection.getLong("save-interval", 5)) * 60 * 20;
+        journalEnabled = dataSection.getBoolean("journal", true);
+        journalStrict = dataSection.getBoolean("journal-strict", false);
     }
 }
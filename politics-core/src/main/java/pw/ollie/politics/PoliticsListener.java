@@ -26,6 +26,7 @@ import pw.ollie.politics.world.PoliticsWorld;
 import pw.ollie.politics.world.WorldManager;
 import pw.ollie.politics.world.plot.Plot;
 
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -52,9 +53,17 @@ final class PoliticsListener implements Listener {
 
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onPlayerMove(PlayerMoveEvent event) {
+        Location fromLoc = event.getFrom();
+        Location toLoc = event.getTo();
+        if (toLoc == null || (fromLoc.getWorld() == toLoc.getWorld()
+                && fromLoc.getBlockX() >> 4 == toLoc.getBlockX() >> 4 && fromLoc.getBlockZ() >> 4 == toLoc.getBlockZ() >> 4)) {
+            // still in the same chunk, so can't have changed plot
+            return;
+        }
+
         Player player = event.getPlayer();
-        Plot from = worldManager.getPlotAt(event.getFrom());
-        Plot to = worldManager.getPlotAt(event.getTo());
+        Plot from = worldManager.getPlotAt(fromLoc);
+        Plot to = worldManager.getPlotAt(toLoc);
 
         if (!from.equals(to)) {
             PlayerPlotChangeEvent pcpe = PoliticsEventFactory.callPlayerPlotChangeEvent(player, from, to);
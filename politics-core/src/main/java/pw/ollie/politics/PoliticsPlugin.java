@@ -21,8 +21,11 @@ package pw.ollie.politics;
 
 import pw.ollie.politics.activity.ActivityManager;
 import pw.ollie.politics.command.PoliticsCommandManager;
+import pw.ollie.politics.data.PoliticsBootstrap;
 import pw.ollie.politics.data.PoliticsDataSaveTask;
 import pw.ollie.politics.data.PoliticsFileSystem;
+import pw.ollie.politics.data.PoliticsJournal;
+import pw.ollie.politics.data.SavePipeline;
 import pw.ollie.politics.economy.PoliticsEconomy;
 import pw.ollie.politics.economy.vault.PoliticsEconomyVault;
 import pw.ollie.politics.group.GroupManager;
@@ -52,11 +55,11 @@ import java.util.logging.Level;
  * Contains access methods to each branch of the plugin.
  */
 public final class PoliticsPlugin extends JavaPlugin {
-    public static final long DATA_SAVE_INTERVAL = 5 * 60 * 20;
-
     private static PoliticsPlugin instance;
 
     private PoliticsFileSystem fileSystem;
+    private SavePipeline savePipeline;
+    private PoliticsJournal journal;
 
     private PoliticsConfig config;
 
@@ -83,10 +86,13 @@ public final class PoliticsPlugin extends JavaPlugin {
         instance = this;
 
         this.fileSystem = new PoliticsFileSystem(this.getDataFolder());
+        this.savePipeline = new SavePipeline(this);
 
         this.config = new PoliticsConfig(this);
         this.config.loadConfig();
 
+        this.journal = new PoliticsJournal(this, this.config.isJournalEnabled(), this.config.isJournalStrict());
+
         this.messenger = new Messenger(YamlConfiguration.loadConfiguration(new File(this.fileSystem.getBaseDir(), "messages.yml")));
 
         this.notifier = new Notifier(this);
@@ -94,14 +100,18 @@ public final class PoliticsPlugin extends JavaPlugin {
         this.privilegeManager = new PrivilegeManager(this);
 
         this.worldManager = new WorldManager(this);
-        this.worldManager.loadWorldConfigs();
-        this.worldManager.loadWorlds();
-
         this.groupManager = new GroupManager(this);
-
         this.universeManager = new UniverseManager(this);
-        this.universeManager.loadRules();
-        this.universeManager.loadUniverses();
+
+        // data files are read concurrently, then linked together on the main thread
+        PoliticsBootstrap bootstrap = new PoliticsBootstrap(this);
+        bootstrap.phase("world configs", () -> this.worldManager.loadWorldConfigs(bootstrap));
+        bootstrap.phase("worlds", () -> this.worldManager.loadWorlds(bootstrap));
+        bootstrap.phase("universe rules", () -> this.universeManager.loadRules(bootstrap));
+        bootstrap.phase("universes", () -> this.universeManager.loadUniverses(bootstrap));
+        // replay changes made after the last save on top of the loaded data
+        bootstrap.phase("journal", this.journal::open);
+        bootstrap.finish();
 
         this.activityManager = new ActivityManager(this);
 
@@ -124,7 +134,7 @@ public final class PoliticsPlugin extends JavaPlugin {
         this.commandManager.registerCommands();
 
         this.saveTask = new PoliticsDataSaveTask(this);
-        this.saveTask.runTaskTimer(this, DATA_SAVE_INTERVAL, DATA_SAVE_INTERVAL);
+        this.saveTask.runTaskTimer(this, this.config.getDataSaveInterval(), this.config.getDataSaveInterval());
 
         this.visualiser = new Visualiser(this);
 
@@ -138,9 +148,9 @@ public final class PoliticsPlugin extends JavaPlugin {
     public void onDisable() {
         this.saveTask.cancel();
 
-        this.worldManager.saveWorlds();
-        this.universeManager.saveRules();
-        this.universeManager.saveUniverses();
+        PoliticsDataSaveTask.saveAll(this);
+        this.savePipeline.shutdown();
+        this.journal.close();
 
         instance = null;
     }
@@ -155,6 +165,24 @@ public final class PoliticsPlugin extends JavaPlugin {
         return fileSystem;
     }
 
+    /**
+     * Gets the {@link SavePipeline} of the plugin, which writes data files off the main thread.
+     *
+     * @return the plugin SavePipeline instance
+     */
+    public SavePipeline getSavePipeline() {
+        return savePipeline;
+    }
+
+    /**
+     * Gets the {@link PoliticsJournal} of the plugin, which records changes made between saves.
+     *
+     * @return the plugin PoliticsJournal instance
+     */
+    public PoliticsJournal getJournal() {
+        return journal;
+    }
+
     /**
      * Gets the {@link PoliticsConfig} instance which provides access to general plugin configuration values.
      *
@@ -29,6 +29,7 @@ import pw.ollie.politics.group.Group;
 import pw.ollie.politics.group.level.GroupLevel;
 import pw.ollie.politics.group.privilege.Privileges;
 import pw.ollie.politics.util.message.MessageUtil;
+import pw.ollie.politics.world.AreaClaimResult;
 import pw.ollie.politics.world.plot.Plot;
 
 import org.bukkit.Location;
@@ -67,6 +68,25 @@ public class GroupClaimCommand extends GroupSubcommand {
             throw new CommandException("You can't create a plot for that " + level.getName() + " in this world.");
         }
 
+        if (args.hasValueFlag("r")) {
+            int radius = GroupUnclaimCommand.findRadius(args);
+            AreaClaimResult result = plugin.getWorldManager().claimRadius(group, location.getWorld(),
+                    location.getBlockX() >> 4, location.getBlockZ() >> 4, radius, sender);
+            switch (result) {
+                case SUCCESS:
+                    MessageUtil.message(sender, "The plots were claimed successfully");
+                    return;
+                case NO_CHANGE:
+                    throw new CommandException("All of those plots are already owned by " + group.getName() + ".");
+                case TOO_LARGE:
+                    throw new CommandException("That area is too large to claim at once.");
+                case ALREADY_OWNED:
+                    throw new CommandException("Sorry, some of those plots are already owned by another group.");
+                default:
+                    throw new CommandException("You cannot claim those plots!");
+            }
+        }
+
         Plot plot = plugin.getWorldManager().getPlotAtChunk(location.getChunk());
         Optional<Group> owner = plot.getOwner();
         if (owner.isPresent()) {
@@ -94,7 +114,7 @@ public class GroupClaimCommand extends GroupSubcommand {
      */
     @Override
     public String getUsage() {
-        return "/" + level.getId() + " claim [-g " + level.getName() + "] [-u universe]";
+        return "/" + level.getId() + " claim [-g " + level.getName() + "] [-u universe] [-r radius]";
     }
 
     /**
@@ -21,6 +21,7 @@ package pw.ollie.politics.command.group;
 
 import pw.ollie.politics.PoliticsPlugin;
 import pw.ollie.politics.command.CommandException;
+import pw.ollie.politics.command.args.Argument;
 import pw.ollie.politics.command.args.Arguments;
 import pw.ollie.politics.event.PoliticsEventFactory;
 import pw.ollie.politics.event.group.GroupPlotUnclaimEvent;
@@ -29,6 +30,7 @@ import pw.ollie.politics.group.Group;
 import pw.ollie.politics.group.level.GroupLevel;
 import pw.ollie.politics.group.privilege.Privileges;
 import pw.ollie.politics.util.message.MessageUtil;
+import pw.ollie.politics.world.AreaClaimResult;
 import pw.ollie.politics.world.plot.Plot;
 
 import org.bukkit.Location;
@@ -55,6 +57,23 @@ public class GroupUnclaimCommand extends GroupSubcommand {
             throw new CommandException("There are no plots in that world.");
         }
 
+        if (args.hasValueFlag("r")) {
+            int radius = findRadius(args);
+            AreaClaimResult result = plugin.getWorldManager().unclaimRadius(group, location.getWorld(),
+                    location.getBlockX() >> 4, location.getBlockZ() >> 4, radius, sender);
+            switch (result) {
+                case SUCCESS:
+                    MessageUtil.message(sender, "The plots were unclaimed successfully");
+                    return;
+                case NO_CHANGE:
+                    throw new CommandException("None of those plots are owned by " + group.getName() + ".");
+                case TOO_LARGE:
+                    throw new CommandException("That area is too large to unclaim at once.");
+                default:
+                    throw new CommandException("You cannot unclaim those plots!");
+            }
+        }
+
         Plot plot = plugin.getWorldManager().getPlotAt(location);
         if (!plot.isOwner(group)) {
             throw new CommandException("Sorry, this plot is not owned by " + group.getName() + ".");
@@ -90,7 +109,7 @@ public class GroupUnclaimCommand extends GroupSubcommand {
      */
     @Override
     public String getUsage() {
-        return "/" + level.getId() + " unclaim [-g " + level.getName() + "] [-u universe]";
+        return "/" + level.getId() + " unclaim [-g " + level.getName() + "] [-u universe] [-r radius]";
     }
 
     /**
@@ -100,4 +119,13 @@ public class GroupUnclaimCommand extends GroupSubcommand {
     public String getDescription() {
         return "Unclaims land for a " + level.getName() + ".";
     }
+
+    // gets the radius given by the -r flag for area claims and unclaims
+    static int findRadius(Arguments args) throws CommandException {
+        Argument radiusArg = args.getValueFlag("r").getValue();
+        if (!radiusArg.isInt() || radiusArg.asInt() < 0) {
+            throw new CommandException("The radius must be a non-negative whole number of chunks.");
+        }
+        return radiusArg.asInt();
+    }
 }
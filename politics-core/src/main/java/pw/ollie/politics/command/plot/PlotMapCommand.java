@@ -19,12 +19,19 @@
  */
 package pw.ollie.politics.command.plot;
 
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+
 import pw.ollie.politics.PoliticsPlugin;
 import pw.ollie.politics.command.CommandException;
 import pw.ollie.politics.command.PoliticsSubcommand;
 import pw.ollie.politics.command.args.Arguments;
+import pw.ollie.politics.world.ClaimMap;
+import pw.ollie.politics.world.PoliticsWorld;
 
+import org.bukkit.Location;
 import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
 
 public class PlotMapCommand extends PoliticsSubcommand {
     PlotMapCommand() {
@@ -36,8 +43,17 @@ public class PlotMapCommand extends PoliticsSubcommand {
      */
     @Override
     public void runCommand(PoliticsPlugin plugin, CommandSender sender, Arguments args) throws CommandException {
-        // todo
-        // factions style nearby plot map
+        Player player = (Player) sender;
+        PoliticsWorld world = plugin.getWorldManager().getWorld(player.getWorld());
+        if (!world.getConfig().hasPlots()) {
+            throw new CommandException("There are no plots in this world.");
+        }
+
+        TIntSet friendlyGroups = new TIntHashSet();
+        plugin.getGroupManager().streamCitizenGroups(player.getUniqueId()).forEach(group -> friendlyGroups.add(group.getUid()));
+
+        Location location = player.getLocation();
+        ClaimMap.render(world, location.getBlockX() >> 4, location.getBlockZ() >> 4, friendlyGroups).send(player);
     }
 
     /**
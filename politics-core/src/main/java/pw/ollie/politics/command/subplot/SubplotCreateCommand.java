@@ -29,10 +29,10 @@ import pw.ollie.politics.group.Group;
 import pw.ollie.politics.group.privilege.Privileges;
 import pw.ollie.politics.util.math.Cuboid;
 import pw.ollie.politics.util.message.MessageBuilder;
+import pw.ollie.politics.world.PoliticsWorld;
 import pw.ollie.politics.world.WorldConfig;
 import pw.ollie.politics.world.WorldManager;
 import pw.ollie.politics.world.plot.Plot;
-import pw.ollie.politics.world.plot.Subplot;
 
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
@@ -70,27 +70,26 @@ public class SubplotCreateCommand extends SubplotSubcommand {
         }
 
         PoliticsActivity activity = new CuboidSelectionActivity(player.getUniqueId(), selection -> {
-            Plot plot = worldManager.getPlotAt(selection.getFirstPoint());
-            if (!plot.equals(worldManager.getPlotAt(selection.getSecondPoint()))) {
-                MessageBuilder.beginError().append("Both corners of the subplot must be inside the same plot.").send(sender);
-                return;
-            }
-
+            Cuboid cuboid = selection.getCuboid();
+            // the subplot belongs to the plot containing its base point
+            Plot plot = worldManager.getPlotAt(cuboid.getMinPoint());
             Group group = plot.getOwner().orElse(null);
-            if (group == null || !group.can(player, Privileges.GroupPlot.MANAGE_SUBPLOTS)) {
+            if (group == null || !(group.can(player, Privileges.GroupPlot.MANAGE_SUBPLOTS) || hasPlotsAdmin(sender))) {
                 MessageBuilder.beginError().append("You aren't in the plot of an organisation you're permitted to do that for.").send(sender);
+                return;
             }
 
-            Cuboid cuboid = selection.getCuboid();
-            if (plot.streamSubplots().map(Subplot::getCuboid).anyMatch(cuboid::intersects)) {
+            PoliticsWorld world = plot.getWorld();
+            if (!world.canSpanSubplot(group.getUid(), cuboid)) {
+                MessageBuilder.beginError().append("The subplot may only cover plots owned by the organisation, within one region of 32 by 32 chunks.").send(sender);
+                return;
+            }
+            if (world.hasIntersectingSubplot(cuboid)) {
                 MessageBuilder.beginError().append("The selection overlaps an existing subplot!").send(sender);
                 return;
-
             }
 
-            Subplot subplot = new Subplot(plot.getWorld(), plot.generateSubplotId(), plot.getBaseX(), plot.getBaseZ(),
-                    cuboid, player.getUniqueId());
-            if (plot.addSubplot(subplot)) {
+            if (plot.createSubplot(cuboid, player.getUniqueId()) != null) {
                 MessageBuilder.begin("Successfully created subplot!").send(sender);
             } else {
                 MessageBuilder.beginError().append("Failed to create subplot.").send(sender);
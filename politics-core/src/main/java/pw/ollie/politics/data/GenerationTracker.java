@@ -0,0 +1,89 @@
+/*
+ * This file is part of Politics.
+ *
+ * Copyright (c) 2019 Oliver Stanley
+ * Politics is licensed under the Affero General Public License Version 3.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pw.ollie.politics.data;
+
+import gnu.trove.impl.Constants;
+import gnu.trove.map.TObjectLongMap;
+import gnu.trove.map.hash.TObjectLongHashMap;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the generation of each of a set of {@link Storable} objects at the time they were last successfully saved,
+ * so that objects which have not changed since can be skipped by subsequent saves.
+ * <p>
+ * Generations are drawn from a single clock shared by all Storables, so the greatest generation of any of the parts of
+ * a composite Storable is also a valid generation for the whole.
+ *
+ * @param <K> the type of key identifying tracked objects
+ */
+public final class GenerationTracker<K> {
+    private static final AtomicLong clock = new AtomicLong();
+
+    private final TObjectLongMap<K> savedGenerations;
+
+    public GenerationTracker() {
+        this.savedGenerations = new TObjectLongHashMap<>(Constants.DEFAULT_CAPACITY, Constants.DEFAULT_LOAD_FACTOR, Storable.UNTRACKED);
+    }
+
+    /**
+     * Gets a new generation, greater than every generation previously returned. Storables call this whenever they are
+     * changed in a way which affects their stored form.
+     *
+     * @return a new generation
+     */
+    public static long nextGeneration() {
+        return clock.incrementAndGet();
+    }
+
+    /**
+     * Checks whether the object with the given key has changed since it was last marked as saved.
+     * <p>
+     * Objects which have never been marked as saved, or which do not track their generation, are always considered
+     * changed.
+     *
+     * @param key        the key of the object
+     * @param generation the current generation of the object
+     * @return whether the object needs to be saved
+     */
+    public boolean hasChanged(K key, long generation) {
+        return generation == Storable.UNTRACKED || savedGenerations.get(key) != generation;
+    }
+
+    /**
+     * Marks the object with the given key as saved at the given generation. The generation should be the one read
+     * before the object was converted for storage, so that changes made while saving are not lost.
+     *
+     * @param key        the key of the object
+     * @param generation the generation of the object which was saved
+     */
+    public void markSaved(K key, long generation) {
+        savedGenerations.put(key, generation);
+    }
+
+    /**
+     * Stops tracking the object with the given key, so that it is considered changed on the next save.
+     *
+     * @param key the key of the object
+     */
+    public void forget(K key) {
+        savedGenerations.remove(key);
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * This file is part of Politics.
+ *
+ * Copyright (c) 2019 Oliver Stanley
+ * Politics is licensed under the Affero General Public License Version 3.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pw.ollie.politics.data;
+
+import org.bukkit.plugin.Plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+
+/**
+ * Loads Politics data files when the plugin is enabled.
+ * <p>
+ * Data files are independent of one another, so they are read and decoded concurrently on a bounded pool of threads.
+ * The decoded data is then linked together on the main thread, in file name order so that loading is deterministic.
+ * Only a few files are read ahead of the one being linked, so the decoded data of every file is never held at once.
+ * The time taken by each phase of loading is logged so that slow startups can be diagnosed.
+ */
+public final class PoliticsBootstrap {
+    private static final int MAX_THREADS = 4;
+    // the number of files read ahead of the one being linked, for each load thread
+    private static final int READ_AHEAD_PER_THREAD = 2;
+
+    private final Plugin plugin;
+    private final ExecutorService executor;
+    private final int maxPendingReads;
+    private final long startTime;
+
+    public PoliticsBootstrap(Plugin plugin) {
+        this.plugin = plugin;
+        AtomicInteger threadCount = new AtomicInteger();
+        int threads = Math.max(1, Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors()));
+        this.maxPendingReads = threads * READ_AHEAD_PER_THREAD;
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "Politics Load Thread #" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.startTime = System.nanoTime();
+    }
+
+    /**
+     * Runs the given phase of loading on the calling thread and logs how long it took.
+     *
+     * @param name  the name of the phase, for logging
+     * @param phase the phase to run
+     */
+    public void phase(String name, Runnable phase) {
+        long start = System.nanoTime();
+        phase.run();
+        plugin.getLogger().log(Level.INFO, "Loaded " + name + " in " + elapsedMillis(start) + "ms.");
+    }
+
+    /**
+     * Reads each of the given files concurrently with the given {@link FileReader}, waiting for all of them to be read.
+     * <p>
+     * The results are returned in file name order. Files which could not be read are logged and left out of the
+     * results. The reader must not modify state shared with the main thread.
+     * <p>
+     * All of the results are held until this returns. Where the data of each file can be linked on its own,
+     * {@link #readEach(Collection, FileReader, BiConsumer)} should be used instead.
+     *
+     * @param files  the files to read
+     * @param reader the reader to read each file with
+     * @param <T>    the type of data read from each file
+     * @return the data read from each file, keyed by file
+     */
+    public <T> Map<File, T> readAll(Collection<File> files, FileReader<T> reader) {
+        Map<File, T> results = new LinkedHashMap<>();
+        readEach(files, reader, results::put);
+        return results;
+    }
+
+    /**
+     * Reads each of the given files concurrently with the given {@link FileReader}, passing the data read from each to
+     * the given consumer on the calling thread as soon as it is read.
+     * <p>
+     * The consumer is called in file name order. Files which could not be read are logged and skipped. Only a bounded
+     * number of files are read ahead of the one passed to the consumer, so the data of at most that many files is held
+     * at once. The reader must not modify state shared with the main thread.
+     *
+     * @param files    the files to read
+     * @param reader   the reader to read each file with
+     * @param consumer the consumer of the data read from each file
+     * @param <T>      the type of data read from each file
+     */
+    public <T> void readEach(Collection<File> files, FileReader<T> reader, BiConsumer<File, ? super T> consumer) {
+        List<File> sorted = new ArrayList<>(files);
+        Collections.sort(sorted);
+
+        Deque<Future<T>> pending = new ArrayDeque<>(maxPendingReads);
+        int submitted = 0;
+        for (File file : sorted) {
+            while (submitted < sorted.size() && pending.size() < maxPendingReads) {
+                File next = sorted.get(submitted++);
+                pending.add(executor.submit(() -> reader.read(next)));
+            }
+
+            T result;
+            try {
+                result = pending.remove().get();
+            } catch (ExecutionException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not read data file `" + file.getPath() + "'!", e.getCause());
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                plugin.getLogger().log(Level.SEVERE, "Interrupted while reading data files!", e);
+                pending.forEach(future -> future.cancel(true));
+                break;
+            }
+            consumer.accept(file, result);
+        }
+    }
+
+    /**
+     * Shuts down the load threads and logs the total time taken to load.
+     */
+    public void finish() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        plugin.getLogger().log(Level.INFO, "Loaded all data in " + elapsedMillis(startTime) + "ms.");
+    }
+
+    private static long elapsedMillis(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    /**
+     * Reads data from a single file on a load thread.
+     *
+     * @param <T> the type of data read
+     */
+    @FunctionalInterface
+    public interface FileReader<T> {
+        T read(File file) throws IOException;
+    }
+}
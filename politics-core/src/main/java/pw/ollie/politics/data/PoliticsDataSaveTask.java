@@ -35,8 +35,26 @@ public final class PoliticsDataSaveTask extends BukkitRunnable {
 
     @Override
     public void run() {
+        saveAll(plugin);
+    }
+
+    /**
+     * Saves all data of the given plugin instance, deleting journal segments once the saved data has been written.
+     *
+     * @param plugin the plugin to save data for
+     */
+    public static void saveAll(PoliticsPlugin plugin) {
+        PoliticsJournal journal = plugin.getJournal();
+        int journalSegment = journal.rotate();
+
         plugin.getWorldManager().saveWorlds();
         plugin.getUniverseManager().saveRules();
         plugin.getUniverseManager().saveUniverses();
+
+        plugin.getSavePipeline().barrier(success -> {
+            if (success) {
+                journal.truncate(journalSegment);
+            }
+        });
     }
 }
@@ -31,6 +31,7 @@ public final class PoliticsFileSystem {
     private final File universesDir;
     private final File worldConfigDir;
     private final File worldsDir;
+    private final File journalDir;
 
     public PoliticsFileSystem(File baseDir) {
         this.baseDir = baseDir;
@@ -39,6 +40,7 @@ public final class PoliticsFileSystem {
         this.universesDir = new File(baseDir, "data/universes/");
         this.worldConfigDir = new File(baseDir, "worlds/");
         this.worldsDir = new File(baseDir, "data/worlds/");
+        this.journalDir = new File(baseDir, "data/journal/");
 
         this.createDirectories();
     }
@@ -67,6 +69,20 @@ public final class PoliticsFileSystem {
         return worldsDir;
     }
 
+    public File getJournalDir() {
+        return journalDir;
+    }
+
+    /**
+     * Gets the directory holding the region files for the world with the given name.
+     *
+     * @param worldName the name of the world
+     * @return the region directory of the world
+     */
+    public File getWorldDir(String worldName) {
+        return new File(worldsDir, worldName + "/");
+    }
+
     private void createDirectories() {
         if (!(this.rulesDir.exists())) {
             this.rulesDir.mkdirs();
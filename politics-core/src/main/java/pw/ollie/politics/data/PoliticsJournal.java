@@ -0,0 +1,444 @@
+/*
+ * This file is part of Politics.
+ *
+ * Copyright (c) 2019 Oliver Stanley
+ * Politics is licensed under the Affero General Public License Version 3.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pw.ollie.politics.data;
+
+import gnu.trove.list.TIntList;
+import gnu.trove.list.TLongList;
+import gnu.trove.list.array.TIntArrayList;
+
+import pw.ollie.politics.Politics;
+import pw.ollie.politics.PoliticsPlugin;
+import pw.ollie.politics.group.Group;
+import pw.ollie.politics.group.level.GroupLevel;
+import pw.ollie.politics.universe.Universe;
+import pw.ollie.politics.util.math.GeometryUtil;
+import pw.ollie.politics.world.PoliticsWorld;
+import pw.ollie.politics.world.plot.Plot;
+
+import org.bson.BSONDecoder;
+import org.bson.BSONEncoder;
+import org.bson.BSONObject;
+import org.bson.BasicBSONDecoder;
+import org.bson.BasicBSONEncoder;
+import org.bson.BasicBSONObject;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only journal of changes to plot ownership, group membership and group properties, which are the changes
+ * most costly to lose between saves.
+ * <p>
+ * Changes are appended to the current journal segment as they happen. Each save starts a new segment, and once all
+ * data from the save has been written successfully the older segments are deleted. When the plugin is enabled, any
+ * remaining segments are replayed on top of the loaded data, restoring changes made after the last successful save.
+ * <p>
+ * Each record consists of its length, a CRC32 checksum and a BSON document describing the change. Replay of a segment
+ * stops at the first incomplete or corrupt record, which can only be the result of a crash while writing it.
+ * <p>
+ * Each record is handed to the operating system as it is written, so recorded changes survive the server process
+ * crashing. Surviving a crash of the machine or a power loss requires the segment to be synced to disk. Segments are
+ * synced when they are closed, and the current segment is synced within about a second of a change, so up to a
+ * second of the latest changes may be lost. In strict mode, set by {@code data.journal-strict}, each record is synced
+ * before the change completes instead, at the cost of a disk sync for every change.
+ */
+public final class PoliticsJournal {
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_EXTENSION = ".ptj";
+    // no record comes anywhere near this size, anything larger is corrupt
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+    private static final long SYNC_INTERVAL_MILLIS = 1000;
+
+    private static final String OP_PLOT_OWNER = "plot-owner";
+    private static final String OP_AREA_OWNER = "area-owner";
+    private static final String OP_GROUP_CREATE = "group-create";
+    private static final String OP_GROUP_DESTROY = "group-destroy";
+    private static final String OP_GROUP_ROLE = "group-role";
+    private static final String OP_GROUP_PROPERTY = "group-property";
+
+    private final PoliticsPlugin plugin;
+    private final File journalDir;
+    private final boolean enabled;
+    private final boolean strict;
+    private final BSONEncoder encoder;
+    private final CRC32 checksum;
+
+    private int segment;
+    private FileOutputStream fileOut;
+    private DataOutputStream out;
+    // whether records have been written since the segment was last synced
+    private boolean unsynced;
+    private boolean replaying;
+    private ScheduledExecutorService syncExecutor;
+
+    public PoliticsJournal(PoliticsPlugin plugin, boolean enabled) {
+        this(plugin, enabled, false);
+    }
+
+    /**
+     * Constructs a journal for the given plugin.
+     *
+     * @param plugin  the plugin
+     * @param enabled whether changes are recorded
+     * @param strict  whether each record is synced to disk as it is written, rather than periodically
+     */
+    public PoliticsJournal(PoliticsPlugin plugin, boolean enabled, boolean strict) {
+        this.plugin = plugin;
+        this.journalDir = plugin.getFileSystem().getJournalDir();
+        this.enabled = enabled;
+        this.strict = strict;
+        this.encoder = new BasicBSONEncoder();
+        this.checksum = new CRC32();
+    }
+
+    /**
+     * Replays all existing journal segments and opens a new segment for recording. This must be called once all data
+     * has been loaded.
+     */
+    public void open() {
+        TIntList segments = getSegments();
+        segments.sort();
+
+        replaying = true;
+        try {
+            segments.forEach(existing -> {
+                replaySegment(getSegmentFile(existing));
+                return true;
+            });
+        } finally {
+            replaying = false;
+        }
+
+        segment = segments.isEmpty() ? 0 : segments.get(segments.size() - 1) + 1;
+        openSegment();
+
+        if (enabled && !strict) {
+            syncExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "Politics Journal Sync Thread");
+                thread.setDaemon(true);
+                return thread;
+            });
+            syncExecutor.scheduleWithFixedDelay(this::sync, SYNC_INTERVAL_MILLIS, SYNC_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Closes the current journal segment and opens a new one. Changes in the closed segment and older segments are
+     * included in any data snapshot taken after this call.
+     *
+     * @return the number of the closed segment, to be passed to {@link #truncate(int)} once the snapshot is stored
+     */
+    public synchronized int rotate() {
+        closeSegment();
+        int closed = segment++;
+        openSegment();
+        return closed;
+    }
+
+    /**
+     * Deletes all journal segments up to and including the given segment, as their changes are stored.
+     *
+     * @param lastSegment the number of the last segment to delete
+     */
+    public void truncate(int lastSegment) {
+        getSegments().forEach(existing -> {
+            if (existing <= lastSegment && !getSegmentFile(existing).delete()) {
+                plugin.getLogger().log(Level.WARNING, "Could not delete journal segment " + existing + ".");
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Closes the current journal segment, syncing it to disk.
+     */
+    public void close() {
+        if (syncExecutor != null) {
+            syncExecutor.shutdown();
+            syncExecutor = null;
+        }
+        synchronized (this) {
+            closeSegment();
+        }
+    }
+
+    public void recordPlotOwner(Plot plot) {
+        BasicBSONObject record = new BasicBSONObject("op", OP_PLOT_OWNER);
+        record.put("world", plot.getWorld().getName());
+        record.put("x", plot.getX());
+        record.put("z", plot.getZ());
+        record.put("owner", plot.getOwnerId().orElse(-1));
+        write(record);
+    }
+
+    /**
+     * Records a change of owner of all of the {@link Plot}s in an area as a single record, so that large area claims
+     * are not written one chunk at a time.
+     *
+     * @param world  the world containing the area
+     * @param chunks the packed chunk coordinates of the Plots, see {@link GeometryUtil#toChunkKey(int, int)}
+     * @param owner  the unique id of the new owner group, or -1 for no owner
+     */
+    public void recordAreaOwner(PoliticsWorld world, TLongList chunks, int owner) {
+        BasicBSONObject record = new BasicBSONObject("op", OP_AREA_OWNER);
+        record.put("world", world.getName());
+        // packed into one binary field, as an array would store an index string alongside each key
+        ByteBuffer packed = ByteBuffer.allocate(chunks.size() * Long.BYTES);
+        chunks.forEach(key -> {
+            packed.putLong(key);
+            return true;
+        });
+        record.put("chunks", packed.array());
+        record.put("owner", owner);
+        write(record);
+    }
+
+    public void recordGroupCreate(Group group) {
+        BasicBSONObject record = new BasicBSONObject("op", OP_GROUP_CREATE);
+        record.put("universe", group.getUniverse().getName());
+        record.put("uid", group.getUid());
+        record.put("level", group.getLevel().getId());
+        write(record);
+    }
+
+    public void recordGroupDestroy(Group group) {
+        BasicBSONObject record = new BasicBSONObject("op", OP_GROUP_DESTROY);
+        record.put("uid", group.getUid());
+        write(record);
+    }
+
+    public void recordGroupRole(Group group, UUID player) {
+        BasicBSONObject record = new BasicBSONObject("op", OP_GROUP_ROLE);
+        record.put("uid", group.getUid());
+        record.put("player", player.toString());
+        group.getRole(player).ifPresent(role -> record.put("role", role.getId()));
+        write(record);
+    }
+
+    public void recordGroupProperty(Group group, int property) {
+        BasicBSONObject record = new BasicBSONObject("op", OP_GROUP_PROPERTY);
+        record.put("uid", group.getUid());
+        record.put("property", property);
+        record.put("value", group.getProperty(property).orElse(null));
+        write(record);
+    }
+
+    // internal
+
+    private synchronized void write(BSONObject record) {
+        if (replaying || out == null) {
+            return;
+        }
+
+        byte[] data = encoder.encode(record);
+        checksum.reset();
+        checksum.update(data);
+        try {
+            out.writeInt(data.length);
+            out.writeInt((int) checksum.getValue());
+            out.write(data);
+            out.flush();
+            if (strict) {
+                fileOut.getFD().sync();
+            } else {
+                unsynced = true;
+            }
+        } catch (IOException ex) {
+            plugin.getLogger().log(Level.SEVERE, "Could not write to journal, changes will only be stored on the next save!", ex);
+        }
+    }
+
+    // syncs records written since the last sync to disk, run periodically unless every record is synced
+    private synchronized void sync() {
+        if (!unsynced || fileOut == null) {
+            return;
+        }
+
+        try {
+            fileOut.getFD().sync();
+            unsynced = false;
+        } catch (IOException ex) {
+            plugin.getLogger().log(Level.WARNING, "Could not sync journal segment to disk!", ex);
+        }
+    }
+
+    private void replaySegment(File file) {
+        BSONDecoder decoder = new BasicBSONDecoder();
+        CRC32 recordChecksum = new CRC32();
+        int replayed = 0;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException ex) {
+                    break;
+                }
+
+                int expectedChecksum = in.readInt();
+                if (length < 0 || length > MAX_RECORD_SIZE) {
+                    throw new IOException("Invalid record length " + length);
+                }
+                byte[] data = new byte[length];
+                in.readFully(data);
+                recordChecksum.reset();
+                recordChecksum.update(data);
+                if ((int) recordChecksum.getValue() != expectedChecksum) {
+                    throw new IOException("Record checksum mismatch");
+                }
+
+                try {
+                    apply(decoder.readObject(data));
+                    replayed++;
+                } catch (RuntimeException ex) {
+                    plugin.getLogger().log(Level.WARNING, "Could not replay journal record in `" + file.getName() + "'!", ex);
+                }
+            }
+        } catch (IOException ex) {
+            plugin.getLogger().log(Level.WARNING, "Journal segment `" + file.getName() + "' ends with an incomplete record, which was discarded.", ex);
+        }
+
+        if (replayed > 0) {
+            plugin.getLogger().log(Level.INFO, "Replayed " + replayed + " changes from journal segment `" + file.getName() + "'.");
+        }
+    }
+
+    private void apply(BSONObject record) {
+        BasicBSONObject bObj = (BasicBSONObject) record;
+        String op = bObj.getString("op");
+        switch (op) {
+            case OP_PLOT_OWNER:
+                PoliticsWorld world = Politics.getWorldManager().getWorld(bObj.getString("world"));
+                Plot plot = world.getPlotAtChunkPosition(bObj.getInt("x"), bObj.getInt("z"));
+                if (plot != null) {
+                    plot.restoreOwner(bObj.getInt("owner"));
+                }
+                break;
+            case OP_AREA_OWNER:
+                PoliticsWorld areaWorld = Politics.getWorldManager().getWorld(bObj.getString("world"));
+                int owner = bObj.getInt("owner");
+                ByteBuffer chunks = ByteBuffer.wrap((byte[]) bObj.get("chunks"));
+                while (chunks.hasRemaining()) {
+                    long key = chunks.getLong();
+                    Plot areaPlot = areaWorld.getPlotAtChunkPosition(GeometryUtil.getChunkKeyX(key), GeometryUtil.getChunkKeyZ(key));
+                    if (areaPlot != null) {
+                        areaPlot.restoreOwner(owner);
+                    }
+                }
+                break;
+            case OP_GROUP_CREATE:
+                int uid = bObj.getInt("uid");
+                Optional<Universe> universe = Politics.getUniverseManager().getUniverse(bObj.getString("universe"));
+                Optional<GroupLevel> level = universe.flatMap(u -> u.getRules().getGroupLevel(bObj.getString("level")));
+                if (level.isPresent() && !Politics.getGroupById(uid).isPresent()) {
+                    universe.get().restoreGroup(uid, level.get());
+                }
+                break;
+            case OP_GROUP_DESTROY:
+                Politics.getGroupById(bObj.getInt("uid")).ifPresent(group -> group.getUniverse().destroyGroup(group));
+                break;
+            case OP_GROUP_ROLE:
+                Politics.getGroupById(bObj.getInt("uid")).ifPresent(group ->
+                        group.restoreRole(UUID.fromString(bObj.getString("player")), bObj.getString("role")));
+                break;
+            case OP_GROUP_PROPERTY:
+                Politics.getGroupById(bObj.getInt("uid")).ifPresent(group ->
+                        group.restoreProperty(bObj.getInt("property"), bObj.get("value")));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown journal operation '" + op + "'");
+        }
+    }
+
+    private TIntList getSegments() {
+        TIntList result = new TIntArrayList();
+        File[] files = journalDir.listFiles();
+        if (files == null) {
+            return result;
+        }
+
+        for (File file : files) {
+            String name = file.getName();
+            if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_EXTENSION)) {
+                continue;
+            }
+            try {
+                result.add(Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_EXTENSION.length())));
+            } catch (NumberFormatException ignore) {
+            }
+        }
+        return result;
+    }
+
+    private File getSegmentFile(int number) {
+        return new File(journalDir, SEGMENT_PREFIX + number + SEGMENT_EXTENSION);
+    }
+
+    private void openSegment() {
+        if (!enabled) {
+            return;
+        }
+
+        journalDir.mkdirs();
+        try {
+            fileOut = new FileOutputStream(getSegmentFile(segment), true);
+            out = new DataOutputStream(new BufferedOutputStream(fileOut));
+        } catch (IOException ex) {
+            plugin.getLogger().log(Level.SEVERE, "Could not open journal segment, changes will only be stored on each save!", ex);
+        }
+    }
+
+    private void closeSegment() {
+        if (out == null) {
+            return;
+        }
+
+        try {
+            out.flush();
+            fileOut.getFD().sync();
+        } catch (IOException ex) {
+            plugin.getLogger().log(Level.WARNING, "Could not sync journal segment to disk!", ex);
+        }
+        try {
+            out.close();
+        } catch (IOException ex) {
+            plugin.getLogger().log(Level.SEVERE, "Could not close journal segment!", ex);
+        }
+        out = null;
+        fileOut = null;
+        unsynced = false;
+    }
+}
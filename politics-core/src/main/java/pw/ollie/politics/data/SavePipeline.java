@@ -0,0 +1,212 @@
+/*
+ * This file is part of Politics.
+ *
+ * Copyright (c) 2019 Oliver Stanley
+ * Politics is licensed under the Affero General Public License Version 3.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pw.ollie.politics.data;
+
+import pw.ollie.politics.util.FileUtil;
+
+import org.bson.BSONEncoder;
+import org.bson.BSONObject;
+import org.bson.BasicBSONEncoder;
+
+import org.bukkit.plugin.IllegalPluginAccessException;
+import org.bukkit.plugin.Plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * Writes data files on a background thread so that saving does not stall the server.
+ * <p>
+ * Callers take a snapshot of the data to store on the main thread, for example by calling
+ * {@link Storable#toBSONObject()}, and submit it to the pipeline. Encoding and atomically writing the snapshot happen
+ * on a single background thread, so writes are performed in the order they are submitted. Once a write completes its
+ * {@link Callback} is run on the main thread.
+ */
+public final class SavePipeline {
+    private final Plugin plugin;
+    private final ExecutorService executor;
+    private final Queue<Runnable> completed;
+    // only used on the save thread
+    private final BSONEncoder encoder;
+    // whether a write has failed since the last barrier, only used on the save thread
+    private boolean failedSinceBarrier;
+
+    public SavePipeline(Plugin plugin) {
+        this.plugin = plugin;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Politics Save Thread");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.completed = new ConcurrentLinkedQueue<>();
+        this.encoder = new BasicBSONEncoder();
+    }
+
+    /**
+     * Encodes the given snapshot and writes it to the given file on the save thread, keeping previous versions as
+     * described by {@link FileUtil#writeAtomically(File, byte[])}.
+     * <p>
+     * The snapshot must not be modified after it is submitted.
+     *
+     * @param file     the file to write to
+     * @param snapshot the data to write
+     * @param callback the callback to run on the main thread once the write completes, or {@code null}
+     */
+    public void write(File file, BSONObject snapshot, Callback callback) {
+        write(file, () -> encoder.encode(snapshot), callback);
+    }
+
+    /**
+     * Writes the data given by the given encoder to the given file on the save thread, keeping previous versions as
+     * described by {@link FileUtil#writeAtomically(File, byte[])}. The encoder is called on the save thread, and so
+     * must only use snapshotted data.
+     *
+     * @param file     the file to write to
+     * @param encoder  supplies the data to write
+     * @param callback the callback to run on the main thread once the write completes, or {@code null}
+     */
+    public void write(File file, Supplier<byte[]> encoder, Callback callback) {
+        submit(callback, "Could not save data file `" + file.getName() + "' due to error! The previous version was kept.", () -> {
+            file.getParentFile().mkdirs();
+            FileUtil.writeAtomically(file, encoder.get());
+        });
+    }
+
+    /**
+     * Deletes the given file and its previous versions on the save thread, if it exists.
+     *
+     * @param file     the file to delete
+     * @param callback the callback to run on the main thread once the file is deleted, or {@code null}
+     */
+    public void delete(File file, Callback callback) {
+        submit(callback, "Could not delete data file `" + file.getName() + "'!", () -> FileUtil.deleteWithHistory(file));
+    }
+
+    /**
+     * Runs the given callback on the main thread once all writes submitted before this call have completed. The
+     * callback is told whether all writes since the previous barrier were successful.
+     *
+     * @param callback the callback to run once all prior writes have completed
+     */
+    public void barrier(Callback callback) {
+        executor.execute(() -> {
+            boolean success = !failedSinceBarrier;
+            failedSinceBarrier = false;
+            complete(callback, success);
+        });
+    }
+
+    /**
+     * Waits for all submitted writes to complete and runs their callbacks. This must be called on the main thread.
+     */
+    public void flush() {
+        try {
+            executor.submit(() -> {
+            }).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            plugin.getLogger().log(Level.SEVERE, "Error while waiting for data to be saved!", ex);
+        }
+        runCallbacks();
+    }
+
+    /**
+     * Flushes all submitted writes and stops the save thread. No more writes may be submitted afterwards.
+     */
+    public void shutdown() {
+        flush();
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void submit(Callback callback, String errorMessage, IOTask task) {
+        executor.execute(() -> {
+            boolean success;
+            try {
+                task.run();
+                success = true;
+            } catch (IOException | RuntimeException ex) {
+                plugin.getLogger().log(Level.SEVERE, errorMessage, ex);
+                failedSinceBarrier = true;
+                success = false;
+            }
+
+            if (callback != null) {
+                complete(callback, success);
+            }
+        });
+    }
+
+    private void complete(Callback callback, boolean success) {
+        completed.add(() -> callback.onComplete(success));
+        scheduleCallbacks();
+    }
+
+    private void scheduleCallbacks() {
+        if (!plugin.isEnabled()) {
+            // callbacks are run by flush when disabling
+            return;
+        }
+
+        try {
+            plugin.getServer().getScheduler().runTask(plugin, this::runCallbacks);
+        } catch (IllegalPluginAccessException ex) {
+            // the plugin was disabled in the meantime, callbacks are run by flush
+        }
+    }
+
+    private void runCallbacks() {
+        Runnable callback;
+        while ((callback = completed.poll()) != null) {
+            callback.run();
+        }
+    }
+
+    /**
+     * A callback run on the main thread once a submitted write completes.
+     */
+    @FunctionalInterface
+    public interface Callback {
+        /**
+         * Called on the main thread once the write completes.
+         *
+         * @param success whether the data was written successfully
+         */
+        void onComplete(boolean success);
+    }
+
+    @FunctionalInterface
+    private interface IOTask {
+        void run() throws IOException;
+    }
+}
@@ -25,6 +25,11 @@ import org.bson.BSONObject;
  * Represents something that can be stored in Politics.
  */
 public interface Storable {
+    /**
+     * The generation of Storables which do not track when they change. Such Storables are stored on every save.
+     */
+    long UNTRACKED = -1L;
+
     /**
      * Converts this object into a {@link BSONObject}.
      *
@@ -38,4 +43,17 @@ public interface Storable {
      * @return whether this object should be stored
      */
     boolean shouldStore();
+
+    /**
+     * Gets the current generation of this Storable object. The generation changes whenever the object is changed in a
+     * way which affects its stored form, which allows saves to skip objects that have not changed since they were last
+     * stored. Generations are obtained from {@link GenerationTracker#nextGeneration()}.
+     * <p>
+     * By default this returns {@link #UNTRACKED}, meaning the object is always stored.
+     *
+     * @return the current generation of this object
+     */
+    default long getGeneration() {
+        return UNTRACKED;
+    }
 }
@@ -0,0 +1,118 @@
+/*
+ * This file is part of Politics.
+ *
+ * Copyright (c) 2019 Oliver Stanley
+ * Politics is licensed under the Affero General Public License Version 3.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pw.ollie.politics.data;
+
+import org.bson.BSONObject;
+import org.bson.BasicBSONCallback;
+import org.bson.BasicBSONDecoder;
+import org.bson.BasicBSONObject;
+import org.bson.types.BasicBSONList;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * A BSON callback which hands each element of a top-level list to an {@link ElementHandler} as soon as the element has
+ * been decoded, instead of building the whole list. Only one element of the list is held in memory at a time, so large
+ * documents can be decoded into domain objects in bounded memory.
+ */
+public final class StreamingBSONCallback extends BasicBSONCallback {
+    private final String listKey;
+    private final ElementHandler handler;
+
+    private StreamedList streamedList;
+
+    private StreamingBSONCallback(String listKey, ElementHandler handler) {
+        this.listKey = listKey;
+        this.handler = handler;
+    }
+
+    /**
+     * Decodes a single BSON document from the given stream, passing each element of the list with the given top-level
+     * key to the given handler as it is decoded.
+     *
+     * @param in      the stream to decode from
+     * @param listKey the key of the top-level list to stream the elements of
+     * @param handler the handler for elements of the list
+     * @return the decoded document, in which the streamed list is empty
+     * @throws IOException if the document could not be read
+     */
+    public static BSONObject decode(InputStream in, String listKey, ElementHandler handler) throws IOException {
+        StreamingBSONCallback callback = new StreamingBSONCallback(listKey, handler);
+        new BasicBSONDecoder().decode(in, callback);
+        return (BSONObject) callback.get();
+    }
+
+    @Override
+    public BSONObject create(boolean array, List<String> path) {
+        if (array && path != null && path.size() == 1 && listKey.equals(path.get(0))) {
+            streamedList = new StreamedList(listKey);
+            return streamedList;
+        }
+        return super.create(array, path);
+    }
+
+    @Override
+    public Object objectDone() {
+        Object result = super.objectDone();
+        if (streamedList != null && !isStackEmpty() && cur() == streamedList) {
+            if (!(result instanceof BasicBSONObject)) {
+                throw new IllegalStateException("Element of list '" + listKey + "' is not an object!");
+            }
+            handler.handle((BSONObject) get(), (BasicBSONObject) result);
+        }
+        return result;
+    }
+
+    // the streamed list, which never holds its elements. Elements are still decoded on top of the list, but are not
+    // added to it, as BasicBSONList#put would pad the list with nulls up to the index of each element
+    private static final class StreamedList extends BasicBSONList {
+        private static final long serialVersionUID = 4127760939184123718L;
+
+        private final String listKey;
+
+        private StreamedList(String listKey) {
+            this.listKey = listKey;
+        }
+
+        @Override
+        public Object put(String key, Object value) {
+            if (!(value instanceof BSONObject)) {
+                throw new IllegalStateException("Element of list '" + listKey + "' is not an object!");
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Handles elements of a streamed list as they are decoded.
+     */
+    @FunctionalInterface
+    public interface ElementHandler {
+        /**
+         * Handles a decoded element of the streamed list.
+         *
+         * @param root    the document being decoded, which contains all fields preceding the list
+         * @param element the decoded element
+         */
+        void handle(BSONObject root, BasicBSONObject element);
+    }
+}
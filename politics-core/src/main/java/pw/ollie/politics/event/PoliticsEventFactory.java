@@ -24,6 +24,8 @@ import pw.ollie.politics.activity.PoliticsActivity;
 import pw.ollie.politics.economy.PoliticsTransferReason;
 import pw.ollie.politics.event.activity.ActivityBeginEvent;
 import pw.ollie.politics.event.activity.ActivityEndEvent;
+import pw.ollie.politics.event.group.GroupAreaClaimEvent;
+import pw.ollie.politics.event.group.GroupAreaUnclaimEvent;
 import pw.ollie.politics.event.group.GroupBalanceChangeEvent;
 import pw.ollie.politics.event.group.GroupChildAddEvent;
 import pw.ollie.politics.event.group.GroupChildInviteEvent;
@@ -51,6 +53,7 @@ import pw.ollie.politics.group.Group;
 import pw.ollie.politics.group.level.Role;
 import pw.ollie.politics.group.privilege.Privilege;
 import pw.ollie.politics.universe.Universe;
+import pw.ollie.politics.world.PoliticsWorld;
 import pw.ollie.politics.world.plot.Plot;
 import pw.ollie.politics.world.plot.PlotDamageSource;
 import pw.ollie.politics.world.plot.PlotProtectionType;
@@ -62,6 +65,7 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.event.Event;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -76,6 +80,14 @@ public final class PoliticsEventFactory {
         return callEvent(new ActivityEndEvent(activity));
     }
 
+    public static GroupAreaClaimEvent callGroupAreaClaimEvent(Group group, PoliticsWorld world, List<Plot> plots, CommandSender claimer) {
+        return callEvent(new GroupAreaClaimEvent(group, world, plots, claimer));
+    }
+
+    public static GroupAreaUnclaimEvent callGroupAreaUnclaimEvent(Group group, PoliticsWorld world, List<Plot> plots, CommandSender unclaimer) {
+        return callEvent(new GroupAreaUnclaimEvent(group, world, plots, unclaimer));
+    }
+
     public static GroupBalanceChangeEvent callGroupBalanceChangeEvent(Group group, double balance, PoliticsTransferReason reason) {
         return callEvent(new GroupBalanceChangeEvent(group, balance, reason));
     }
@@ -0,0 +1,55 @@
+/*
+ * This file is part of Politics.
+ *
+ * Copyright (c) 2019 Oliver Stanley
+ * Politics is licensed under the Affero General Public License Version 3.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pw.ollie.politics.event.group;
+
+import pw.ollie.politics.group.Group;
+import pw.ollie.politics.world.PoliticsWorld;
+import pw.ollie.politics.world.plot.Plot;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An event involving a {@link Group} and an area of {@link Plot}s within a single world, which are claimed or
+ * unclaimed together.
+ */
+public abstract class GroupAreaEvent extends GroupEvent {
+    private final PoliticsWorld world;
+    private final List<Plot> plots;
+
+    protected GroupAreaEvent(Group group, PoliticsWorld world, List<Plot> plots) {
+        super(group);
+        this.world = world;
+        this.plots = Collections.unmodifiableList(plots);
+    }
+
+    public final PoliticsWorld getWorld() {
+        return world;
+    }
+
+    /**
+     * Gets the {@link Plot}s of the area. Only Plots whose owner is changed are included.
+     *
+     * @return the Plots of the area
+     */
+    public final List<Plot> getPlots() {
+        return plots;
+    }
+}
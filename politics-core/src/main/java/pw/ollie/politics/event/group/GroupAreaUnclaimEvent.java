@@ -0,0 +1,86 @@
+/*
+ * This file is part of Politics.
+ *
+ * Copyright (c) 2019 Oliver Stanley
+ * Politics is licensed under the Affero General Public License Version 3.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pw.ollie.politics.event.group;
+
+import pw.ollie.politics.event.Sourced;
+import pw.ollie.politics.group.Group;
+import pw.ollie.politics.world.PoliticsWorld;
+import pw.ollie.politics.world.plot.Plot;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.HandlerList;
+
+import java.util.List;
+
+/**
+ * Called when a group attempts to unclaim an area of plots at once, in place of a {@link GroupPlotUnclaimEvent} and a
+ * {@link pw.ollie.politics.event.plot.PlotOwnerChangeEvent} for each plot.
+ * <p>
+ * If this event is cancelled, none of the plots are unclaimed.
+ */
+public class GroupAreaUnclaimEvent extends GroupAreaEvent implements Cancellable, Sourced {
+    private static final HandlerList handlers = new HandlerList();
+
+    private final CommandSender unclaimer;
+
+    private boolean cancelled;
+
+    public GroupAreaUnclaimEvent(Group group, PoliticsWorld world, List<Plot> plots, CommandSender unclaimer) {
+        super(group, world, plots);
+        this.unclaimer = unclaimer;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CommandSender getSource() {
+        return unclaimer;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setCancelled(boolean cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public HandlerList getHandlers() {
+        return handlers;
+    }
+
+    public static HandlerList getHandlerList() {
+        return handlers;
+    }
+}
@@ -28,6 +28,7 @@ import gnu.trove.set.hash.THashSet;
 import gnu.trove.set.hash.TIntHashSet;
 
 import pw.ollie.politics.Politics;
+import pw.ollie.politics.data.GenerationTracker;
 import pw.ollie.politics.data.Storable;
 import pw.ollie.politics.event.PoliticsEventFactory;
 import pw.ollie.politics.event.group.GroupChildAddEvent;
@@ -36,6 +37,7 @@ import pw.ollie.politics.event.group.GroupPropertySetEvent;
 import pw.ollie.politics.group.level.GroupLevel;
 import pw.ollie.politics.group.level.Role;
 import pw.ollie.politics.group.privilege.Privilege;
+import pw.ollie.politics.group.privilege.PrivilegeSet;
 import pw.ollie.politics.universe.Universe;
 import pw.ollie.politics.universe.UniverseRules;
 import pw.ollie.politics.util.serial.PropertyDeserializationException;
@@ -79,6 +81,7 @@ public final class Group implements Comparable<Group>, Storable {
     private final TIntSet invitedChildren;
 
     private Universe universe;
+    private long generation;
 
     public Group(int uid, GroupLevel level) {
         this(uid, level, new TIntObjectHashMap<>(), new THashMap<>());
@@ -111,7 +114,38 @@ public final class Group implements Comparable<Group>, Storable {
     }
 
     public Stream<Privilege> streamPrivileges(UUID playerId) {
-        return getRole(playerId).map(Role::streamPrivileges).orElseGet(Stream::empty);
+        return getPrivileges(playerId).stream();
+    }
+
+    /**
+     * Gets the {@link PrivilegeSet} of {@link Privilege}s afforded to the player with the given unique id by their
+     * {@link Role} in this Group.
+     *
+     * @param playerId the unique id of the player
+     * @return the Privileges of the player, or an empty set if they have no Role in this Group
+     */
+    public PrivilegeSet getPrivileges(UUID playerId) {
+        Role role = players.get(playerId);
+        return role == null ? PrivilegeSet.empty() : role.getPrivileges();
+    }
+
+    /**
+     * Gets a {@link Stream} of all {@link Plot}s directly owned by this Group, across all worlds of its
+     * {@link Universe}.
+     *
+     * @return all Plots owned by this Group
+     */
+    public Stream<Plot> streamPlots() {
+        return universe.streamWorlds().flatMap(world -> world.streamOwnedPlots(uid));
+    }
+
+    /**
+     * Gets the number of {@link Plot}s directly owned by this Group, across all worlds of its {@link Universe}.
+     *
+     * @return the number of Plots owned by this Group
+     */
+    public int getNumPlots() {
+        return universe.streamWorlds().mapToInt(world -> world.getNumOwnedPlots(uid)).sum();
     }
 
     public Universe getUniverse() {
@@ -216,10 +250,17 @@ public final class Group implements Comparable<Group>, Storable {
 
     public void setRole(UUID player, Role role) {
         players.put(player, role);
+        markChanged();
+        Politics.getWorldManager().invalidateProtection(player);
+        Politics.getJournal().recordGroupRole(this, player);
     }
 
     public void removeRole(UUID player) {
-        players.remove(player);
+        if (players.remove(player) != null) {
+            markChanged();
+            Politics.getWorldManager().invalidateProtection(player);
+            Politics.getJournal().recordGroupRole(this, player);
+        }
 
         if (level.hasImmediateMembers() && players.isEmpty()) {
             universe.destroyGroup(this);
@@ -228,7 +269,7 @@ public final class Group implements Comparable<Group>, Storable {
 
     public boolean can(CommandSender source, Privilege privilege) {
         if (source instanceof Player) {
-            return getRole(((Player) source).getUniqueId()).map(role -> role.can(privilege)).orElse(false);
+            return getPrivileges(((Player) source).getUniqueId()).contains(privilege);
         }
         return true;
     }
@@ -342,6 +383,41 @@ public final class Group implements Comparable<Group>, Storable {
 
         GroupPropertySetEvent event = PoliticsEventFactory.callGroupPropertySetEvent(this, property, value);
         properties.put(property, event.getValue());
+        markChanged();
+        Politics.getJournal().recordGroupProperty(this, property);
+    }
+
+    /**
+     * Sets the {@link Role} of the given player to the Role with the given id, or removes the player from this Group if
+     * the id is {@code null}. The Group is not destroyed if it is left empty.
+     * <p>
+     * This is used to replay the {@link pw.ollie.politics.data.PoliticsJournal} and is not recorded in the journal.
+     *
+     * @param player the unique id of the player
+     * @param roleId the id of the player's Role, or {@code null} to remove the player
+     */
+    public void restoreRole(UUID player, String roleId) {
+        if (roleId == null) {
+            players.remove(player);
+        } else {
+            level.getRole(roleId).ifPresent(role -> players.put(player, role));
+        }
+        markChanged();
+        Politics.getWorldManager().invalidateProtection(player);
+    }
+
+    /**
+     * Sets the given property to the given value.
+     * <p>
+     * This is used to replay the {@link pw.ollie.politics.data.PoliticsJournal}. It does not call
+     * {@link GroupPropertySetEvent} and is not recorded in the journal.
+     *
+     * @param property the id of the property to set
+     * @param value    the value of the property
+     */
+    public void restoreProperty(int property, Object value) {
+        properties.put(property, value);
+        markChanged();
     }
 
     @Override
@@ -410,10 +486,19 @@ public final class Group implements Comparable<Group>, Storable {
         return true;
     }
 
+    @Override
+    public long getGeneration() {
+        return generation;
+    }
+
     public void initialize(Universe universe) {
         if (universe == null || this.universe != null) {
             throw new IllegalStateException("attempt to initialize a group twice!");
         }
         this.universe = universe;
     }
+
+    private void markChanged() {
+        generation = GenerationTracker.nextGeneration();
+    }
 }
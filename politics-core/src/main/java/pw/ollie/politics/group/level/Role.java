@@ -21,13 +21,13 @@ package pw.ollie.politics.group.level;
 
 import pw.ollie.politics.Politics;
 import pw.ollie.politics.group.privilege.Privilege;
+import pw.ollie.politics.group.privilege.PrivilegeSet;
 import pw.ollie.politics.util.StringUtil;
-import pw.ollie.politics.util.stream.CollectorUtil;
 
 import org.bukkit.configuration.ConfigurationSection;
 
 import java.util.Objects;
-import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -38,10 +38,10 @@ public final class Role implements Comparable<Role> {
     // todo docs
     private final String id;
     private final String name;
-    private final Set<Privilege> privileges;
+    private final PrivilegeSet privileges;
     private final int rank;
 
-    private Role(String id, String name, Set<Privilege> privileges, int rank) {
+    private Role(String id, String name, PrivilegeSet privileges, int rank) {
         this.id = id;
         this.name = name;
         this.privileges = privileges;
@@ -52,6 +52,15 @@ public final class Role implements Comparable<Role> {
         return privileges.stream();
     }
 
+    /**
+     * Gets the {@link PrivilegeSet} of {@link Privilege}s afforded by this Role.
+     *
+     * @return the Privileges of this Role
+     */
+    public PrivilegeSet getPrivileges() {
+        return privileges;
+    }
+
     public String getId() {
         return id;
     }
@@ -70,8 +79,8 @@ public final class Role implements Comparable<Role> {
 
     public static Role load(String id, ConfigurationSection node) {
         return new Role(id, node.getString("name", StringUtil.capitaliseFirst(id)),
-                node.getStringList("privileges").stream().map(Politics.getPrivilegeManager()::getPrivilege)
-                        .filter(Objects::nonNull).collect(CollectorUtil.toTHashSet()),
+                PrivilegeSet.of(node.getStringList("privileges").stream().map(Politics.getPrivilegeManager()::getPrivilege)
+                        .filter(Objects::nonNull).collect(Collectors.toList())),
                 node.getInt("rank", 1));
     }
 
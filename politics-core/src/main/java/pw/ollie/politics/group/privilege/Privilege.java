@@ -19,9 +19,14 @@
  */
 package pw.ollie.politics.group.privilege;
 
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+
 import pw.ollie.politics.util.collect.CollectionUtil;
 
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Stream;
@@ -30,19 +35,26 @@ import java.util.stream.Stream;
  * Represents a privilege which allows the holder to perform certain actions.
  */
 public final class Privilege {
+    // dense indexes of privilege names, so that sets of privileges can be stored as bits
+    private static final TObjectIntMap<String> INDEXES = new TObjectIntHashMap<>(32, 0.5f, -1);
+    // the first privilege created with each name, by index
+    private static final List<Privilege> BY_INDEX = new ArrayList<>();
+
     // todo docs
     private final String name;
     private final Set<PrivilegeType> types;
+    private final int index;
 
     public Privilege(String name, PrivilegeType... types) {
-        name = name.replaceAll(" ", "_");
+        name = name.replace(' ', '_');
 
-        if (name.matches(":")) {
+        if (name.indexOf(':') >= 0) {
             throw new IllegalStateException("Colons not allowed in privilege names!");
         }
 
         this.name = name.toUpperCase();
         this.types = EnumSet.of(types[0], types);
+        this.index = assignIndex(this);
     }
 
     public String getName() {
@@ -57,6 +69,36 @@ public final class Privilege {
         return types.contains(type);
     }
 
+    /**
+     * Gets the index of this Privilege, which is used to store sets of Privileges as bits. Indexes are dense, starting
+     * from 0, and Privileges with the same name always have the same index.
+     *
+     * @return the index of this Privilege
+     * @see PrivilegeSet
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    // gets the privilege with the given index, or null if there isn't one
+    static Privilege byIndex(int index) {
+        synchronized (BY_INDEX) {
+            return index < BY_INDEX.size() ? BY_INDEX.get(index) : null;
+        }
+    }
+
+    private static int assignIndex(Privilege privilege) {
+        synchronized (BY_INDEX) {
+            int index = INDEXES.get(privilege.name);
+            if (index == -1) {
+                index = BY_INDEX.size();
+                INDEXES.put(privilege.name, index);
+                BY_INDEX.add(privilege);
+            }
+            return index;
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
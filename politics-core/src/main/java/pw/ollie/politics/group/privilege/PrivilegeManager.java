@@ -71,8 +71,20 @@ public final class PrivilegeManager {
         return Arrays.stream(privileges).filter(FunctionalUtil.negate(this::registerPrivilege)).collect(CollectorUtil.toTHashSet());
     }
 
+    /**
+     * Gets the registered {@link Privilege} with the given name. Names are not case sensitive, and spaces may be used
+     * in place of underscores.
+     *
+     * @param name the name of the Privilege
+     * @return the Privilege with the given name, or null if there isn't one
+     */
     public Privilege getPrivilege(String name) {
-        return privileges.get(name.toUpperCase().replaceAll(" ", "_"));
+        // names are almost always given in their stored form, so try that before normalising the name
+        Privilege privilege = privileges.get(name);
+        if (privilege != null) {
+            return privilege;
+        }
+        return privileges.get(name.toUpperCase().replace(' ', '_'));
     }
 
     public PoliticsPlugin getPlugin() {
@@ -0,0 +1,207 @@
+/*
+ * This file is part of Politics.
+ *
+ * Copyright (c) 2019 Oliver Stanley
+ * Politics is licensed under the Affero General Public License Version 3.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pw.ollie.politics.group.privilege;
+
+import gnu.trove.map.hash.THashMap;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * An immutable set of {@link Privilege}s, stored as a bit for each Privilege by its index.
+ * <p>
+ * PrivilegeSets are interned, so that each distinct combination of Privileges is held once no matter how many players
+ * or roles it is granted to. As they are interned, PrivilegeSets may be compared by identity.
+ */
+public final class PrivilegeSet {
+    private static final PrivilegeSet EMPTY = new PrivilegeSet(new long[0]);
+    private static final Map<PrivilegeSet, PrivilegeSet> INTERNED = new THashMap<>();
+
+    // the bits of the privileges in the set, without trailing empty words
+    private final long[] words;
+    private final int hash;
+
+    private PrivilegeSet(long[] words) {
+        this.words = words;
+        this.hash = Arrays.hashCode(words);
+    }
+
+    /**
+     * Gets the empty PrivilegeSet.
+     *
+     * @return the empty PrivilegeSet
+     */
+    public static PrivilegeSet empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Gets the PrivilegeSet containing the given {@link Privilege}s.
+     *
+     * @param privileges the Privileges in the set
+     * @return the PrivilegeSet of the given Privileges
+     */
+    public static PrivilegeSet of(Privilege... privileges) {
+        return of(Arrays.asList(privileges));
+    }
+
+    /**
+     * Gets the PrivilegeSet containing the given {@link Privilege}s.
+     *
+     * @param privileges the Privileges in the set
+     * @return the PrivilegeSet of the given Privileges
+     */
+    public static PrivilegeSet of(Iterable<Privilege> privileges) {
+        long[] words = new long[0];
+        for (Privilege privilege : privileges) {
+            int word = privilege.getIndex() >>> 6;
+            if (word >= words.length) {
+                words = Arrays.copyOf(words, word + 1);
+            }
+            words[word] |= 1L << privilege.getIndex();
+        }
+        return intern(words);
+    }
+
+    /**
+     * Checks whether this set contains the given {@link Privilege}.
+     *
+     * @param privilege the Privilege to check for
+     * @return whether the Privilege is in this set
+     */
+    public boolean contains(Privilege privilege) {
+        int word = privilege.getIndex() >>> 6;
+        return word < words.length && (words[word] & (1L << privilege.getIndex())) != 0;
+    }
+
+    /**
+     * Gets the PrivilegeSet containing the Privileges of this set along with the given {@link Privilege}.
+     *
+     * @param privilege the Privilege to add
+     * @return the PrivilegeSet with the Privilege added
+     */
+    public PrivilegeSet with(Privilege privilege) {
+        if (contains(privilege)) {
+            return this;
+        }
+
+        int word = privilege.getIndex() >>> 6;
+        long[] result = Arrays.copyOf(words, Math.max(words.length, word + 1));
+        result[word] |= 1L << privilege.getIndex();
+        return intern(result);
+    }
+
+    /**
+     * Gets the PrivilegeSet containing the Privileges of this set except the given {@link Privilege}.
+     *
+     * @param privilege the Privilege to remove
+     * @return the PrivilegeSet with the Privilege removed
+     */
+    public PrivilegeSet without(Privilege privilege) {
+        if (!contains(privilege)) {
+            return this;
+        }
+
+        long[] result = words.clone();
+        result[privilege.getIndex() >>> 6] &= ~(1L << privilege.getIndex());
+        return intern(result);
+    }
+
+    /**
+     * Gets the PrivilegeSet containing the Privileges in either this set or the given set.
+     *
+     * @param other the other PrivilegeSet
+     * @return the union of the two sets
+     */
+    public PrivilegeSet union(PrivilegeSet other) {
+        if (other.words.length > words.length) {
+            return other.union(this);
+        }
+
+        long[] result = words.clone();
+        for (int i = 0; i < other.words.length; i++) {
+            result[i] |= other.words[i];
+        }
+        return intern(result);
+    }
+
+    /**
+     * Checks whether this set contains no Privileges.
+     *
+     * @return whether this set is empty
+     */
+    public boolean isEmpty() {
+        return words.length == 0;
+    }
+
+    /**
+     * Gets the number of Privileges in this set.
+     *
+     * @return the size of this set
+     */
+    public int size() {
+        int size = 0;
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    /**
+     * Gets a {@link Stream} of the {@link Privilege}s in this set, in order of their indexes.
+     *
+     * @return a Stream of the Privileges in this set
+     */
+    public Stream<Privilege> stream() {
+        return IntStream.range(0, words.length * 64)
+                .filter(index -> (words[index >>> 6] & (1L << index)) != 0)
+                .mapToObj(Privilege::byIndex);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Arrays.equals(words, ((PrivilegeSet) o).words);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    private static PrivilegeSet intern(long[] words) {
+        int length = words.length;
+        while (length > 0 && words[length - 1] == 0) {
+            length--;
+        }
+        if (length == 0) {
+            return EMPTY;
+        }
+
+        PrivilegeSet set = new PrivilegeSet(length == words.length ? words : Arrays.copyOf(words, length));
+        synchronized (INTERNED) {
+            PrivilegeSet existing = INTERNED.putIfAbsent(set, set);
+            return existing == null ? set : existing;
+        }
+    }
+}
@@ -25,7 +25,9 @@ import gnu.trove.map.hash.TLongObjectHashMap;
 import gnu.trove.set.hash.THashSet;
 
 import pw.ollie.politics.Politics;
+import pw.ollie.politics.data.GenerationTracker;
 import pw.ollie.politics.data.Storable;
+import pw.ollie.politics.data.StreamingBSONCallback;
 import pw.ollie.politics.group.Group;
 import pw.ollie.politics.group.level.GroupLevel;
 import pw.ollie.politics.util.stream.CollectorUtil;
@@ -42,6 +44,8 @@ import org.bson.types.BasicBSONList;
 
 import org.bukkit.entity.Player;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -68,6 +72,7 @@ public final class Universe implements Storable {
     private final Map<GroupLevel, List<Group>> levels;
 
     private LoadingCache<UUID, Set<Group>> citizenGroupCache;
+    private long generation;
 
     public Universe(String name, UniverseRules properties, List<PoliticsWorld> worlds) {
         this(name, properties, worlds, new ArrayList<>(), new THashMap<>());
@@ -165,7 +170,12 @@ public final class Universe implements Storable {
      */
     public boolean addWorld(PoliticsWorld world) {
         // Check if the rules are already there first
-        return world.streamWorldLevels().noneMatch(rules::hasGroupLevel) && worlds.add(world);
+        if (world.streamWorldLevels().anyMatch(rules::hasGroupLevel) || !worlds.add(world)) {
+            return false;
+        }
+
+        markChanged();
+        return true;
     }
 
     public int getNumGroups() {
@@ -208,16 +218,20 @@ public final class Universe implements Storable {
         }
 
         Set<Group> groupChildren = children.computeIfAbsent(group, k -> new THashSet<>());
-        groupChildren.add(child);
+        if (groupChildren.add(child)) {
+            markChanged();
+        }
         return true;
     }
 
     public boolean removeChildGroup(Group group, Group child) {
         Set<Group> groupChildren = children.get(group);
-        if (groupChildren == null) {
+        if (groupChildren == null || !groupChildren.remove(child)) {
             return false;
         }
-        return groupChildren.remove(child);
+
+        markChanged();
+        return true;
     }
 
     /**
@@ -235,12 +249,36 @@ public final class Universe implements Storable {
         getInternalGroups(level).add(group);
         group.initialize(this);
         Politics.getUniverseManager().addGroup(group);
+        markChanged();
+        Politics.getJournal().recordGroupCreate(group);
 
         return group;
     }
 
     /**
-     * Destroys the given group, but not any of its children.
+     * Creates a group of the given level with the given unique id.
+     * <p>
+     * This is used to replay the {@link pw.ollie.politics.data.PoliticsJournal} and is not recorded in the journal.
+     *
+     * @param uid   the unique id of the group
+     * @param level the level for the group to create
+     * @return the created group
+     */
+    public Group restoreGroup(int uid, GroupLevel level) {
+        Group group = new Group(uid, level);
+
+        groups.add(group);
+        getInternalGroups(level).add(group);
+        group.initialize(this);
+        Politics.getUniverseManager().addGroup(group);
+        markChanged();
+
+        return group;
+    }
+
+    /**
+     * Destroys the given group, but not any of its children. The plots it owns are released, along with their
+     * subplots.
      * <p>
      * This method does not call an event.
      *
@@ -251,7 +289,7 @@ public final class Universe implements Storable {
     }
 
     /**
-     * Destroys the given group.
+     * Destroys the given group. The plots it owns are released, along with their subplots.
      * <p>
      * This method does not call an event.
      *
@@ -267,10 +305,13 @@ public final class Universe implements Storable {
         }
 
         Politics.getUniverseManager().removeGroup(group.getUid());
+        worlds.forEach(world -> world.removeOwnedPlots(group.getUid()));
 
         children.remove(group);
         // This can be expensive
         children.values().forEach(set -> set.remove(group));
+        markChanged();
+        Politics.getJournal().recordGroupDestroy(group);
     }
 
     public Citizen getCitizen(UUID playerId, String name) {
@@ -311,15 +352,56 @@ public final class Universe implements Storable {
         }
 
         BasicBSONObject bObj = (BasicBSONObject) object;
+        UniverseRules rules = getStoredRules(bObj);
 
-        String aname = bObj.getString("name");
-        String rulesName = bObj.getString("rules");
-        UniverseRules rules = Politics.getUniverseManager().getRules(rulesName);
+        Object groupsObj = bObj.get("groups");
+        if (!(groupsObj instanceof BasicBSONList)) {
+            throw new IllegalStateException("groups isn't a list!");
+        }
 
-        if (rules == null) {
-            throw new IllegalStateException("Rules do not exist!");
+        TLongObjectMap<Group> groupMap = new TLongObjectHashMap<>();
+
+        for (Object groupBson : (BasicBSONList) groupsObj) {
+            if (!(groupBson instanceof BasicBSONObject)) {
+                throw new IllegalStateException("Invalid group!");
+            }
+            Group c = Group.fromBSONObject(rules, (BasicBSONObject) groupBson);
+            groupMap.put(c.getUid(), c);
         }
 
+        return fromBSONObject(bObj, rules, groupMap);
+    }
+
+    /**
+     * Decodes a Universe from the given stream of BSON data, as written from {@link #toBSONObject()}. Each
+     * {@link Group} is built as soon as it has been decoded, so the decoded form of the whole Universe is never held in
+     * memory.
+     * <p>
+     * The decoded Universe is not linked to its worlds until {@link Decoded#link()} is called on the main thread, so
+     * this may be called from any thread once universe rules have been loaded.
+     *
+     * @param in the stream to read from
+     * @return the decoded Universe data
+     * @throws IOException if the data could not be read
+     */
+    static Decoded decode(InputStream in) throws IOException {
+        TLongObjectMap<Group> groupMap = new TLongObjectHashMap<>();
+        BSONObject object = StreamingBSONCallback.decode(in, "groups", (root, groupBson) -> {
+            // the rules are stored before the groups
+            Group c = Group.fromBSONObject(getStoredRules(root), groupBson);
+            groupMap.put(c.getUid(), c);
+        });
+
+        if (!(object instanceof BasicBSONObject)) {
+            throw new IllegalStateException("object is not a BasicBSONObject! ERROR!");
+        }
+        BasicBSONObject bObj = (BasicBSONObject) object;
+        return new Decoded(bObj, getStoredRules(bObj), groupMap);
+    }
+
+    private static Universe fromBSONObject(BasicBSONObject bObj, UniverseRules rules, TLongObjectMap<Group> groupMap) {
+        String aname = bObj.getString("name");
+
         Object worldsObj = bObj.get("worlds");
         if (!(worldsObj instanceof BasicBSONList)) {
             throw new IllegalStateException("GroupWorlds object is not a list!");
@@ -336,21 +418,6 @@ public final class Universe implements Storable {
             }
         });
 
-        Object groupsObj = bObj.get("groups");
-        if (!(groupsObj instanceof BasicBSONList)) {
-            throw new IllegalStateException("groups isn't a list!");
-        }
-
-        TLongObjectMap<Group> groupMap = new TLongObjectHashMap<>();
-
-        for (Object groupBson : (BasicBSONList) groupsObj) {
-            if (!(groupBson instanceof BasicBSONObject)) {
-                throw new IllegalStateException("Invalid group!");
-            }
-            Group c = Group.fromBSONObject(rules, (BasicBSONObject) groupBson);
-            groupMap.put(c.getUid(), c);
-        }
-
         Object childrenObj = bObj.get("children");
         if (!(childrenObj instanceof BasicBSONObject)) {
             throw new IllegalStateException("Missing children report!");
@@ -367,19 +434,43 @@ public final class Universe implements Storable {
                 throw new IllegalStateException("No BSON list found for childsObj");
             }
 
-            children.put(childGroup, ((BasicBSONList) childsObj).stream().map(Long.class::cast).map(groupMap::get).collect(CollectorUtil.toTHashSet()));
+            // uids are stored as ints, so cannot be cast to Long
+            children.put(childGroup, ((BasicBSONList) childsObj).stream().map(Number.class::cast).map(Number::longValue)
+                    .map(groupMap::get).collect(CollectorUtil.toTHashSet()));
         });
 
         return new Universe(aname, rules, worlds, new ArrayList<>(groupMap.valueCollection()), children);
     }
 
+    private static UniverseRules getStoredRules(BSONObject object) {
+        UniverseRules rules = Politics.getUniverseManager().getRules((String) object.get("rules"));
+        if (rules == null) {
+            throw new IllegalStateException("Rules do not exist!");
+        }
+        return rules;
+    }
+
     @Override
     public boolean shouldStore() {
         return true;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * As the stored form of a Universe includes its {@link Group}s, this accounts for changes to Groups as well.
+     */
+    @Override
+    public long getGeneration() {
+        return Math.max(generation, groups.stream().mapToLong(Group::getGeneration).max().orElse(0));
+    }
+
     // internal
 
+    private void markChanged() {
+        generation = GenerationTracker.nextGeneration();
+    }
+
     private List<Group> getInternalGroups(GroupLevel level) {
         return levels.computeIfAbsent(level, k -> new ArrayList<>());
     }
@@ -420,4 +511,29 @@ public final class Universe implements Storable {
     private void initialize(Group group) {
         group.initialize(this);
     }
+
+    /**
+     * A decoded Universe which has not yet been linked to its worlds.
+     */
+    static final class Decoded {
+        private final BasicBSONObject object;
+        private final UniverseRules rules;
+        private final TLongObjectMap<Group> groups;
+
+        private Decoded(BasicBSONObject object, UniverseRules rules, TLongObjectMap<Group> groups) {
+            this.object = object;
+            this.rules = rules;
+            this.groups = groups;
+        }
+
+        /**
+         * Links the decoded Universe to its worlds and builds its group hierarchy. This must be called on the main
+         * thread.
+         *
+         * @return the linked Universe
+         */
+        Universe link() {
+            return fromBSONObject(object, rules, groups);
+        }
+    }
 }
@@ -22,34 +22,36 @@ package pw.ollie.politics.universe;
 import gnu.trove.map.TIntObjectMap;
 import gnu.trove.map.hash.THashMap;
 import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.set.hash.THashSet;
 
 import pw.ollie.politics.Politics;
 import pw.ollie.politics.PoliticsPlugin;
 import pw.ollie.politics.command.PoliticsCommandManager;
+import pw.ollie.politics.data.GenerationTracker;
 import pw.ollie.politics.data.InvalidConfigurationException;
+import pw.ollie.politics.data.PoliticsBootstrap;
+import pw.ollie.politics.data.SavePipeline;
 import pw.ollie.politics.event.PoliticsEventFactory;
 import pw.ollie.politics.group.Group;
 import pw.ollie.politics.group.level.GroupLevel;
 import pw.ollie.politics.util.FileUtil;
 import pw.ollie.politics.world.PoliticsWorld;
 
-import org.bson.BSONDecoder;
-import org.bson.BSONEncoder;
-import org.bson.BSONObject;
-import org.bson.BasicBSONDecoder;
-import org.bson.BasicBSONEncoder;
-
 import org.bukkit.World;
 import org.bukkit.configuration.file.YamlConfiguration;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.stream.Stream;
 
@@ -59,16 +61,20 @@ import java.util.stream.Stream;
 public final class UniverseManager {
     // todo docs
     private final PoliticsPlugin plugin;
+    private final GenerationTracker<String> savedUniverses;
 
     private Map<String, Universe> universes;
     private Map<String, UniverseRules> rules;
     private TIntObjectMap<Group> groups;
     private Map<PoliticsWorld, Map<GroupLevel, Universe>> worldLevels;
+    // names of rules which are already stored, as rules do not change once created
+    private Set<String> savedRules;
 
     private int nextId = 0;
 
     public UniverseManager(PoliticsPlugin plugin) {
         this.plugin = plugin;
+        this.savedUniverses = new GenerationTracker<>();
     }
 
     public Stream<GroupLevel> streamGroupLevels() {
@@ -163,77 +169,74 @@ public final class UniverseManager {
 
     // loading and storage
 
-    public void loadRules() {
+    public void loadRules(PoliticsBootstrap bootstrap) {
         File rulesDir = this.plugin.getFileSystem().getRulesDir();
         this.rules = new THashMap<>();
+        this.savedRules = new THashSet<>();
 
+        List<File> rulesFiles = new ArrayList<>();
         for (File file : Objects.requireNonNull(rulesDir.listFiles())) {
             String fileName = file.getName();
-            if (!fileName.endsWith(".yml") || fileName.length() <= 4) {
-                continue;
+            if (fileName.endsWith(".yml") && fileName.length() > 4) {
+                rulesFiles.add(file);
             }
+        }
 
-            String name = fileName.substring(0, fileName.length() - 4);
-            YamlConfiguration configFile = YamlConfiguration.loadConfiguration(file);
-            UniverseRules thisRules = UniverseRules.load(name, configFile);
+        bootstrap.readAll(rulesFiles, file -> {
+            String fileName = file.getName();
+            return UniverseRules.load(fileName.substring(0, fileName.length() - 4), YamlConfiguration.loadConfiguration(file));
+        }).values().forEach(thisRules -> {
             String ruleName = thisRules.getName();
             rules.put(ruleName.toLowerCase(), thisRules);
-        }
+            savedRules.add(ruleName.toLowerCase());
+        });
     }
 
     public void saveRules() {
         File rulesDir = plugin.getFileSystem().getRulesDir();
 
         for (UniverseRules rules : rules.values()) {
+            if (savedRules.contains(rules.getName().toLowerCase())) {
+                continue;
+            }
+
             File rulesFile = new File(rulesDir, rules.getName() + ".yml");
             YamlConfiguration config = YamlConfiguration.loadConfiguration(rulesFile);
             rules.save(config);
-            File backup = new File(rulesDir, rules.getName() + ".yml.bck");
 
             try {
-                Files.copy(rulesFile.toPath(), backup.toPath());
+                FileUtil.writeAtomically(rulesFile, config.saveToString().getBytes(StandardCharsets.UTF_8));
+                savedRules.add(rules.getName().toLowerCase());
             } catch (IOException e) {
-                plugin.getLogger().log(Level.SEVERE, "Could not backup universe rules, any changes will not be stored...", e);
-                continue;
-            }
-
-            try {
-                config.save(rulesFile);
-                backup.delete();
-            } catch (IOException e) {
-                plugin.getLogger().log(Level.SEVERE, "Could not save universe rules, restoring backup...", e);
-                try {
-                    Files.copy(backup.toPath(), rulesFile.toPath());
-                } catch (IOException e1) {
-                    plugin.getLogger().log(Level.SEVERE, "Could not restore backup, restore manually...", e);
-                }
+                plugin.getLogger().log(Level.SEVERE, "Could not save universe rules `" + rules.getName() + "', the previous version was kept.", e);
             }
         }
     }
 
-    public void loadUniverses() {
-        BSONDecoder decoder = new BasicBSONDecoder();
+    public void loadUniverses(PoliticsBootstrap bootstrap) {
         universes = new THashMap<>();
         groups = new TIntObjectHashMap<>();
         File universesDir = this.plugin.getFileSystem().getUniversesDir();
 
+        List<File> universeFiles = new ArrayList<>();
         for (File file : Objects.requireNonNull(universesDir.listFiles())) {
             String fileName = file.getName();
-            if (!fileName.endsWith(".ptu") || fileName.length() <= 4) {
-                continue;
+            if (fileName.endsWith(".ptu") && fileName.length() > 4) {
+                universeFiles.add(file);
             }
+        }
 
-            byte[] data;
-            try {
-                data = Files.readAllBytes(file.toPath());
-            } catch (IOException ex) {
-                new InvalidConfigurationException("Could not read universe file `" + fileName + "'!", ex).printStackTrace();
-                continue;
+        // groups are decoded concurrently, but universes are linked to worlds here on the main thread
+        Map<File, Universe.Decoded> decoded = bootstrap.readAll(universeFiles, file -> {
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(file.toPath()))) {
+                return Universe.decode(in);
             }
+        });
 
-            BSONObject object = decoder.readObject(data);
-            Universe universe = Universe.fromBSONObject(object);
+        for (Universe.Decoded data : decoded.values()) {
+            Universe universe = data.link();
             universes.put(universe.getName().toLowerCase(), universe);
+            savedUniverses.markSaved(universe.getName().toLowerCase(), universe.getGeneration());
 
             universe.streamGroups().forEach(group -> {
                 if (groups.putIfAbsent(group.getUid(), group) != null) {
@@ -260,31 +263,26 @@ public final class UniverseManager {
         }
     }
 
+    /**
+     * Saves universes which have changed since they were last saved. Universes are written off the main thread through
+     * the {@link SavePipeline}.
+     */
     public void saveUniverses() {
-        BSONEncoder encoder = new BasicBSONEncoder();
         File universesDir = this.plugin.getFileSystem().getUniversesDir();
 
         for (Universe universe : universes.values()) {
-            if (!universe.shouldStore()) {
-                continue;
-            }
-
-            String fileName = universe.getName() + ".ptu";
-            File universeFile = new File(universesDir, fileName);
-
-            try {
-                FileUtil.createBackup(universeFile);
-            } catch (IOException ex) {
-                plugin.getLogger().log(Level.SEVERE, "Could not back up world file for universe '" + universe.getName() + "'. Data will not be saved...", ex);
+            String key = universe.getName().toLowerCase();
+            long generation = universe.getGeneration();
+            if (!universe.shouldStore() || !savedUniverses.hasChanged(key, generation)) {
                 continue;
             }
 
-            byte[] data = encoder.encode(universe.toBSONObject());
-            try {
-                Files.write(universeFile.toPath(), data);
-            } catch (IOException ex) {
-                this.plugin.getLogger().log(Level.SEVERE, "Could not save universe file `" + fileName + "' due to error! Please restore backup...", ex);
-            }
+            File universeFile = new File(universesDir, universe.getName() + ".ptu");
+            plugin.getSavePipeline().write(universeFile, universe.toBSONObject(), success -> {
+                if (success) {
+                    savedUniverses.markSaved(key, generation);
+                }
+            });
         }
     }
 
@@ -20,19 +20,99 @@
 package pw.ollie.politics.util;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 public final class FileUtil {
-    public static File createBackup(File file) throws IOException {
-        String backupName = file.getName() + ".bck";
-        File backupFile = new File(file.getParentFile(), backupName);
-        if (backupFile.exists()) {
-            backupFile.delete();
-            backupFile.createNewFile();
-        }
-        Files.copy(file.toPath(), backupFile.toPath());
-        return backupFile;
+    /**
+     * The number of previous versions of a file kept by {@link #writeAtomically(File, byte[])}.
+     */
+    public static final int BACKUP_HISTORY = 2;
+
+    /**
+     * Replaces the contents of the given file with the given data, such that the file either has its old or its new
+     * contents even if the server crashes while writing.
+     * <p>
+     * The data is written to a temporary file and synced to disk, then moved over the existing file. Up to
+     * {@link #BACKUP_HISTORY} previous versions of the file are kept as {@code <name>.<n>.bck}, with 1 being the most
+     * recent. Previous versions are kept by hard linking rather than copying where possible, so keeping them costs no
+     * additional writes.
+     *
+     * @param file the file to write to
+     * @param data the new contents of the file
+     * @throws IOException if the file could not be written, in which case the existing file is unchanged
+     */
+    public static void writeAtomically(File file, byte[] data) throws IOException {
+        Path target = file.toPath();
+        Path temp = new File(file.getParentFile(), file.getName() + ".tmp").toPath();
+
+        try (FileOutputStream out = new FileOutputStream(temp.toFile())) {
+            out.write(data);
+            out.getFD().sync();
+        }
+
+        if (Files.exists(target)) {
+            rotateHistory(file);
+        }
+
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory(file.getParentFile());
+    }
+
+    /**
+     * Deletes the given file along with the previous versions of it kept by {@link #writeAtomically(File, byte[])}.
+     *
+     * @param file the file to delete
+     * @throws IOException if the file could not be deleted
+     */
+    public static void deleteWithHistory(File file) throws IOException {
+        Files.deleteIfExists(file.toPath());
+        for (int i = 1; i <= BACKUP_HISTORY; i++) {
+            Files.deleteIfExists(getHistoryFile(file, i).toPath());
+        }
+    }
+
+    private static void rotateHistory(File file) throws IOException {
+        if (BACKUP_HISTORY < 1) {
+            return;
+        }
+
+        Files.deleteIfExists(getHistoryFile(file, BACKUP_HISTORY).toPath());
+        for (int i = BACKUP_HISTORY - 1; i >= 1; i--) {
+            Path from = getHistoryFile(file, i).toPath();
+            if (Files.exists(from)) {
+                Files.move(from, getHistoryFile(file, i + 1).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        Path latest = getHistoryFile(file, 1).toPath();
+        try {
+            Files.createLink(latest, file.toPath());
+        } catch (UnsupportedOperationException | IOException ex) {
+            Files.copy(file.toPath(), latest, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static File getHistoryFile(File file, int generation) {
+        return new File(file.getParentFile(), file.getName() + "." + generation + ".bck");
+    }
+
+    // makes the rename durable, not supported on all platforms
+    private static void syncDirectory(File dir) {
+        try (FileChannel channel = FileChannel.open(dir.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignore) {
+        }
     }
 
     private FileUtil() {
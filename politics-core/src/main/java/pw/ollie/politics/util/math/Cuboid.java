@@ -27,13 +27,43 @@ import java.util.Objects;
 
 /**
  * Represents a cuboid space in a Minecraft world.
+ * <p>
+ * The Cuboid is stored as its minimum block coordinates and its size in each direction, so that checking containment
+ * and intersection does not create any objects.
  */
 public class Cuboid {
-    private final Location base;
-    private final Vector3i size;
+    private final World world;
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int xSize;
+    private final int ySize;
+    private final int zSize;
 
     private int hash = 0;
 
+    /**
+     * Constructs a new Cuboid with the given base (minimum) block coordinates, extending by the given size from the
+     * base point in each direction.
+     *
+     * @param world the World the Cuboid is in
+     * @param minX  the base x coordinate of the Cuboid
+     * @param minY  the base y coordinate of the Cuboid
+     * @param minZ  the base z coordinate of the Cuboid
+     * @param xSize the size of the Cuboid in the x direction
+     * @param ySize the size of the Cuboid in the y direction
+     * @param zSize the size of the Cuboid in the z direction
+     */
+    public Cuboid(World world, int minX, int minY, int minZ, int xSize, int ySize, int zSize) {
+        this.world = world;
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.xSize = xSize;
+        this.ySize = ySize;
+        this.zSize = zSize;
+    }
+
     /**
      * Constructs a new Cuboid, using the given {@link Location} as the base (minimum) point, and the {@link Vector3i}
      * as the size of the Cuboid extending from the base point.
@@ -42,8 +72,7 @@ public class Cuboid {
      * @param size the size of the Cuboid in each dimension
      */
     public Cuboid(Location base, Vector3i size) {
-        this.base = base;
-        this.size = size;
+        this(base.getWorld(), base.getBlockX(), base.getBlockY(), base.getBlockZ(), size.getX(), size.getY(), size.getZ());
     }
 
     /**
@@ -68,8 +97,13 @@ public class Cuboid {
             throw new IllegalArgumentException("cuboid cannot span multiple worlds");
         }
 
-        this.base = new Location(base.getWorld(), Math.min(base.getBlockX(), opposite.getBlockX()), Math.min(base.getBlockY(), opposite.getBlockY()), Math.min(base.getBlockZ(), opposite.getBlockZ()));
-        size = new Vector3i(Math.abs(opposite.getBlockX() - base.getBlockX()), Math.abs(opposite.getBlockY() - base.getBlockY()), Math.abs(opposite.getBlockZ() - base.getBlockZ()));
+        world = base.getWorld();
+        minX = Math.min(base.getBlockX(), opposite.getBlockX());
+        minY = Math.min(base.getBlockY(), opposite.getBlockY());
+        minZ = Math.min(base.getBlockZ(), opposite.getBlockZ());
+        xSize = Math.abs(opposite.getBlockX() - base.getBlockX());
+        ySize = Math.abs(opposite.getBlockY() - base.getBlockY());
+        zSize = Math.abs(opposite.getBlockZ() - base.getBlockZ());
     }
 
     /**
@@ -88,7 +122,7 @@ public class Cuboid {
      * @return the Cuboid's minimum point
      */
     public Location getMinPoint() {
-        return base;
+        return new Location(world, minX, minY, minZ);
     }
 
     /**
@@ -97,7 +131,7 @@ public class Cuboid {
      * @return the Cuboid's maximum point
      */
     public Location getMaxPoint() {
-        return GeometryUtil.toLocation(base.getWorld(), GeometryUtil.toVector3i(base).add(size));
+        return new Location(world, getMaxX(), getMaxY(), getMaxZ());
     }
 
     /**
@@ -106,7 +140,7 @@ public class Cuboid {
      * @return the Cuboid's World
      */
     public World getWorld() {
-        return base.getWorld();
+        return world;
     }
 
     /**
@@ -115,7 +149,7 @@ public class Cuboid {
      * @return the Cuboid's minimum x coordinate
      */
     public int getMinX() {
-        return getMinPoint().getBlockX();
+        return minX;
     }
 
     /**
@@ -124,7 +158,7 @@ public class Cuboid {
      * @return the Cuboid's minimum y coordinate
      */
     public int getMinY() {
-        return getMinPoint().getBlockY();
+        return minY;
     }
 
     /**
@@ -133,7 +167,7 @@ public class Cuboid {
      * @return the Cuboid's minimum z coordinate
      */
     public int getMinZ() {
-        return getMinPoint().getBlockZ();
+        return minZ;
     }
 
     /**
@@ -142,7 +176,7 @@ public class Cuboid {
      * @return the Cuboid's maximum x coordinate
      */
     public int getMaxX() {
-        return getMaxPoint().getBlockX();
+        return minX + xSize;
     }
 
     /**
@@ -151,7 +185,7 @@ public class Cuboid {
      * @return the Cuboid's maximum y coordinate
      */
     public int getMaxY() {
-        return getMaxPoint().getBlockY();
+        return minY + ySize;
     }
 
     /**
@@ -160,7 +194,7 @@ public class Cuboid {
      * @return the Cuboid's maximum z coordinate
      */
     public int getMaxZ() {
-        return getMaxPoint().getBlockZ();
+        return minZ + zSize;
     }
 
     /**
@@ -170,7 +204,7 @@ public class Cuboid {
      * @return the Vector size of this Cuboid
      */
     public Vector3i getSize() {
-        return size;
+        return new Vector3i(xSize, ySize, zSize);
     }
 
     /**
@@ -179,7 +213,7 @@ public class Cuboid {
      * @return the Cuboid's x direction size
      */
     public int getXSize() {
-        return size.getX();
+        return xSize;
     }
 
     /**
@@ -188,7 +222,7 @@ public class Cuboid {
      * @return the Cuboid's y direction size
      */
     public int getYSize() {
-        return size.getY();
+        return ySize;
     }
 
     /**
@@ -197,7 +231,7 @@ public class Cuboid {
      * @return the Cuboid's z direction size
      */
     public int getZSize() {
-        return size.getZ();
+        return zSize;
     }
 
     /**
@@ -207,10 +241,9 @@ public class Cuboid {
      * @return whether the given point is contained within this Cuboid
      */
     public boolean contains(Vector3i vec) {
-        Vector3i max = GeometryUtil.toVector3i(base).add(size);
-        return base.getX() <= vec.getX() && vec.getX() <= max.getX()
-                && base.getY() <= vec.getY() && vec.getY() <= max.getY()
-                && base.getZ() <= vec.getZ() && vec.getZ() <= max.getZ();
+        return minX <= vec.getX() && vec.getX() <= getMaxX()
+                && minY <= vec.getY() && vec.getY() <= getMaxY()
+                && minZ <= vec.getZ() && vec.getZ() <= getMaxZ();
     }
 
     /**
@@ -220,7 +253,8 @@ public class Cuboid {
      * @return whether the given point is contained within this Cuboid
      */
     public boolean contains(Position position) {
-        return contains(position.toLocation());
+        return world != null && world.getName().equals(position.getWorld())
+                && contains(position.getBlockX(), position.getBlockY(), position.getBlockZ());
     }
 
     /**
@@ -230,14 +264,42 @@ public class Cuboid {
      * @return whether the given point is contained within this Cuboid
      */
     public boolean contains(Location location) {
-        if (!Objects.equals(location.getWorld(), base.getWorld())) {
+        if (!Objects.equals(location.getWorld(), world)) {
             return false;
         }
 
-        Vector3i max = GeometryUtil.toVector3i(base).add(size);
-        return base.getX() <= location.getBlockX() && location.getBlockX() < max.getX()
-                && base.getY() <= location.getBlockY() && location.getBlockY() < max.getY()
-                && base.getZ() <= location.getBlockZ() && location.getBlockZ() < max.getZ();
+        return contains(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    /**
+     * Checks whether the Cuboid contains the block at the given coordinates, which are assumed to be in the same world
+     * as the Cuboid.
+     * <p>
+     * As with {@link #contains(Location)}, the Cuboid contains the blocks from its minimum point up to but excluding
+     * its maximum point.
+     *
+     * @param x the block x coordinate
+     * @param y the block y coordinate
+     * @param z the block z coordinate
+     * @return whether the block is contained within this Cuboid
+     */
+    public boolean contains(int x, int y, int z) {
+        return minX <= x && x < getMaxX()
+                && minY <= y && y < getMaxY()
+                && minZ <= z && z < getMaxZ();
+    }
+
+    /**
+     * Checks whether the Cuboid contains the block with the given packed key, which is assumed to be in the same world
+     * as the Cuboid.
+     *
+     * @param blockKey the block key, as created by {@link GeometryUtil#toBlockKey(int, int, int)}
+     * @return whether the block is contained within this Cuboid
+     * @see #contains(int, int, int)
+     */
+    public boolean contains(long blockKey) {
+        return contains(GeometryUtil.getBlockKeyX(blockKey), GeometryUtil.getBlockKeyY(blockKey),
+                GeometryUtil.getBlockKeyZ(blockKey));
     }
 
     /**
@@ -248,9 +310,9 @@ public class Cuboid {
      * @return whether the given Cuboid is wholly contained within this Cuboid
      */
     public boolean contains(Cuboid o) {
-        return o.getMaxX() <= getMaxX() && o.getMinX() >= getMinX()
-                && o.getMaxY() <= getMaxY() && o.getMinY() >= getMinY()
-                && o.getMaxZ() <= getMaxZ() && o.getMinZ() >= getMinZ();
+        return o.getMaxX() <= getMaxX() && o.minX >= minX
+                && o.getMaxY() <= getMaxY() && o.minY >= minY
+                && o.getMaxZ() <= getMaxZ() && o.minZ >= minZ;
     }
 
     /**
@@ -265,15 +327,15 @@ public class Cuboid {
 
     private boolean notIntersects(Cuboid o) {
         // compares z before y for a micro performance gain - in minecraft many cuboids will be similar on the y axis
-        return o.getMinX() > getMaxX() || o.getMaxX() < getMinX()
-                || o.getMinZ() > getMaxZ() || o.getMaxZ() < getMinZ()
-                || o.getMinY() > getMaxY() || o.getMaxY() < getMinY();
+        return o.minX > getMaxX() || o.getMaxX() < minX
+                || o.minZ > getMaxZ() || o.getMaxZ() < minZ
+                || o.minY > getMaxY() || o.getMaxY() < minY;
     }
 
     @Override
     public int hashCode() {
         if (hash == 0) {
-            hash = Objects.hash(base, size);
+            hash = Objects.hash(world, minX, minY, minZ, xSize, ySize, zSize);
         }
         return hash;
     }
@@ -288,7 +350,7 @@ public class Cuboid {
         }
 
         Cuboid c = (Cuboid) obj;
-        return c.size.getX() == size.getX() && c.size.getY() == size.getY() && c.size.getZ() == size.getZ() && c.getWorld().equals(getWorld()) && c.base.getX() == base.getX() && c.base.getY() == base.getY() && c.base.getZ() == base.getZ();
+        return c.xSize == xSize && c.ySize == ySize && c.zSize == zSize && Objects.equals(c.world, world) && c.minX == minX && c.minY == minY && c.minZ == minZ;
     }
 
     /**
@@ -298,7 +360,19 @@ public class Cuboid {
      * @return a Cuboid with the same boundaries as the given Chunk
      */
     public static Cuboid fromChunk(Chunk chunk) {
-        return new Cuboid(new Location(chunk.getWorld(), chunk.getX() * 16, 0, chunk.getZ() * 16),
-                new Location(chunk.getWorld(), (chunk.getX() * 16) + 15, 255, (chunk.getZ() * 16) + 15));
+        return fromChunk(chunk.getWorld(), chunk.getX(), chunk.getZ());
+    }
+
+    /**
+     * Creates a new Cuboid comprised of the physical region of the chunk at the given chunk coordinates. This does not
+     * load the chunk.
+     *
+     * @param world the World the chunk is in
+     * @param x     the chunk x coordinate
+     * @param z     the chunk z coordinate
+     * @return a Cuboid with the same boundaries as the chunk at the given position
+     */
+    public static Cuboid fromChunk(World world, int x, int z) {
+        return new Cuboid(world, x * 16, 0, z * 16, 15, 255, 15);
     }
 }
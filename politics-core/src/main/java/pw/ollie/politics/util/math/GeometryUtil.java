@@ -26,6 +26,9 @@ import org.bukkit.World;
  * Utilities for geometrical methods in Politics.
  */
 public final class GeometryUtil {
+    private static final long BLOCK_KEY_XZ_MASK = (1L << 26) - 1;
+    private static final long BLOCK_KEY_Y_MASK = (1L << 12) - 1;
+
     public static Vector3i toVector3i(Location location) {
         return new Vector3i(location.getBlockX(), location.getBlockY(), location.getBlockZ());
     }
@@ -34,6 +37,92 @@ public final class GeometryUtil {
         return new Location(world, vector.getX(), vector.getY(), vector.getZ());
     }
 
+    /**
+     * Packs the given chunk coordinates into a single {@code long} key, with the x coordinate in the upper 32 bits and
+     * the z coordinate in the lower 32 bits.
+     *
+     * @param x the chunk x coordinate
+     * @param z the chunk z coordinate
+     * @return the packed chunk key
+     */
+    public static long toChunkKey(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Gets the chunk x coordinate from a key created by {@link #toChunkKey(int, int)}.
+     *
+     * @param key the packed chunk key
+     * @return the chunk x coordinate
+     */
+    public static int getChunkKeyX(long key) {
+        return (int) (key >> 32);
+    }
+
+    /**
+     * Gets the chunk z coordinate from a key created by {@link #toChunkKey(int, int)}.
+     *
+     * @param key the packed chunk key
+     * @return the chunk z coordinate
+     */
+    public static int getChunkKeyZ(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Packs the given block coordinates into a single {@code long} key, with 26 bits for the x coordinate, 12 bits for
+     * the y coordinate and 26 bits for the z coordinate.
+     *
+     * @param x the block x coordinate
+     * @param y the block y coordinate
+     * @param z the block z coordinate
+     * @return the packed block key
+     */
+    public static long toBlockKey(int x, int y, int z) {
+        return ((x & BLOCK_KEY_XZ_MASK) << 38) | ((y & BLOCK_KEY_Y_MASK) << 26) | (z & BLOCK_KEY_XZ_MASK);
+    }
+
+    /**
+     * Packs the block coordinates of the given {@link Location} into a single {@code long} key.
+     *
+     * @param location the Location to get the block key of
+     * @return the packed block key
+     * @see #toBlockKey(int, int, int)
+     */
+    public static long toBlockKey(Location location) {
+        return toBlockKey(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    /**
+     * Gets the block x coordinate from a key created by {@link #toBlockKey(int, int, int)}.
+     *
+     * @param key the packed block key
+     * @return the block x coordinate
+     */
+    public static int getBlockKeyX(long key) {
+        return (int) (key >> 38);
+    }
+
+    /**
+     * Gets the block y coordinate from a key created by {@link #toBlockKey(int, int, int)}.
+     *
+     * @param key the packed block key
+     * @return the block y coordinate
+     */
+    public static int getBlockKeyY(long key) {
+        return (int) (key << 26 >> 52);
+    }
+
+    /**
+     * Gets the block z coordinate from a key created by {@link #toBlockKey(int, int, int)}.
+     *
+     * @param key the packed block key
+     * @return the block z coordinate
+     */
+    public static int getBlockKeyZ(long key) {
+        return (int) (key << 38 >> 38);
+    }
+
     private GeometryUtil() {
         throw new UnsupportedOperationException();
     }
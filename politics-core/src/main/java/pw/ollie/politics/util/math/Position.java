@@ -24,6 +24,7 @@ import com.google.common.base.MoreObjects;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
+import org.bukkit.util.NumberConversions;
 
 import java.util.Objects;
 
@@ -85,6 +86,43 @@ public class Position {
         return z;
     }
 
+    /**
+     * Gets the x coordinate of the block this Position is within.
+     *
+     * @return the Position block x coordinate
+     */
+    public int getBlockX() {
+        return NumberConversions.floor(x);
+    }
+
+    /**
+     * Gets the y coordinate of the block this Position is within.
+     *
+     * @return the Position block y coordinate
+     */
+    public int getBlockY() {
+        return NumberConversions.floor(y);
+    }
+
+    /**
+     * Gets the z coordinate of the block this Position is within.
+     *
+     * @return the Position block z coordinate
+     */
+    public int getBlockZ() {
+        return NumberConversions.floor(z);
+    }
+
+    /**
+     * Gets the packed key of the block this Position is within.
+     *
+     * @return the Position block key
+     * @see GeometryUtil#toBlockKey(int, int, int)
+     */
+    public long toBlockKey() {
+        return GeometryUtil.toBlockKey(getBlockX(), getBlockY(), getBlockZ());
+    }
+
     @Override
     public boolean equals(Object o) {
         if (!(o instanceof Position)) {
@@ -53,6 +53,17 @@ public final class MessageBuilder {
         return this;
     }
 
+    /**
+     * Appends the given character to this MessageBuilder.
+     *
+     * @param content the character to append
+     * @return this MessageBuilder object
+     */
+    public MessageBuilder append(char content) {
+        delegate.append(content);
+        return this;
+    }
+
     /**
      * Switches to normal text colour.
      *
@@ -0,0 +1,63 @@
+/*
+ * This file is part of Politics.
+ *
+ * Copyright (c) 2019 Oliver Stanley
+ * Politics is licensed under the Affero General Public License Version 3.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pw.ollie.politics.world;
+
+/**
+ * The result of claiming or unclaiming an area of plots through {@link WorldManager}.
+ */
+public enum AreaClaimResult {
+    /**
+     * The owner of every plot in the area which needed changing was changed.
+     */
+    SUCCESS,
+    /**
+     * No plot in the area needed changing, as the whole area already had the requested owner.
+     */
+    NO_CHANGE,
+    /**
+     * Plots are not enabled in the world.
+     */
+    NO_PLOTS,
+    /**
+     * The world is not part of the universe of the group.
+     */
+    WRONG_UNIVERSE,
+    /**
+     * The area is made up of more chunks than may be claimed at once.
+     */
+    TOO_LARGE,
+    /**
+     * A plot in the area is owned by another group, so none were claimed.
+     */
+    ALREADY_OWNED,
+    /**
+     * The claim or unclaim was cancelled by an event listener, so no plots were changed.
+     */
+    CANCELLED;
+
+    /**
+     * Checks whether this result means the owners of plots were changed.
+     *
+     * @return whether this is a successful result
+     */
+    public boolean isSuccess() {
+        return this == SUCCESS;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * This file is part of Politics.
+ *
+ * Copyright (c) 2019 Oliver Stanley
+ * Politics is licensed under the Affero General Public License Version 3.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pw.ollie.politics.world;
+
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.TIntIntMap;
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.set.TIntSet;
+
+import pw.ollie.politics.Politics;
+import pw.ollie.politics.group.Group;
+import pw.ollie.politics.util.message.MessageBuilder;
+import pw.ollie.politics.util.message.MessageUtil;
+
+/**
+ * Renders maps of the plot ownership around a chunk, as shown by the plot map command.
+ * <p>
+ * Maps are drawn from the owner tiles of {@link PoliticsWorld}, which hold the owner of every chunk in a region and are
+ * kept up to date as owners change. Drawing a map therefore takes one array read per chunk shown, and does not look up
+ * or create any {@link pw.ollie.politics.world.plot.Plot}s.
+ */
+public final class ClaimMap {
+    /**
+     * The number of chunks shown either side of the centre of the map, east to west.
+     */
+    public static final int HALF_WIDTH = 19;
+    /**
+     * The number of chunks shown either side of the centre of the map, north to south.
+     */
+    public static final int HALF_HEIGHT = 5;
+
+    private static final char CENTRE_SYMBOL = '+';
+    private static final char WILDERNESS_SYMBOL = '-';
+    private static final String GROUP_SYMBOLS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    // used for groups once all of GROUP_SYMBOLS are taken
+    private static final char OVERFLOW_SYMBOL = '#';
+
+    // colours of map symbols
+    private static final int NORMAL = 0;
+    private static final int HIGHLIGHT = 1;
+    private static final int ERROR = 2;
+    private static final int PREFIX = 3;
+
+    /**
+     * Renders a map of the plot ownership around the given chunk, followed by a legend of the groups shown.
+     * <p>
+     * North is at the top of the map. Chunks owned by any of the given friendly groups are highlighted, and chunks
+     * owned by other groups are shown in the error colour.
+     *
+     * @param world          the world to render a map of
+     * @param centreX        the chunk x coordinate at the centre of the map
+     * @param centreZ        the chunk z coordinate at the centre of the map
+     * @param friendlyGroups the ids of groups to highlight, usually those of the viewer
+     * @return the rendered map
+     */
+    public static MessageBuilder render(PoliticsWorld world, int centreX, int centreZ, TIntSet friendlyGroups) {
+        MessageBuilder message = MessageUtil.startBlockMessage("Plot Map");
+        TIntIntMap symbols = new TIntIntHashMap();
+        TIntList legend = new TIntArrayList();
+
+        for (int z = centreZ - HALF_HEIGHT; z <= centreZ + HALF_HEIGHT; z++) {
+            message.newLine();
+            int colour = NORMAL;
+            long tileKey = 0;
+            int[] tile = null;
+            for (int x = centreX - HALF_WIDTH; x <= centreX + HALF_WIDTH; x++) {
+                long regionKey = RegionFile.getRegionKey(x, z);
+                if (tile == null || regionKey != tileKey) {
+                    tile = world.getOwnerTile(regionKey);
+                    tileKey = regionKey;
+                }
+                int owner = tile[RegionFile.getLocalIndex(x, z)];
+
+                char symbol;
+                int symbolColour;
+                if (x == centreX && z == centreZ) {
+                    symbol = CENTRE_SYMBOL;
+                    symbolColour = PREFIX;
+                } else if (owner == -1) {
+                    symbol = WILDERNESS_SYMBOL;
+                    symbolColour = NORMAL;
+                } else {
+                    if (!symbols.containsKey(owner)) {
+                        symbols.put(owner, legend.size() < GROUP_SYMBOLS.length()
+                                ? GROUP_SYMBOLS.charAt(legend.size()) : OVERFLOW_SYMBOL);
+                        legend.add(owner);
+                    }
+                    symbol = (char) symbols.get(owner);
+                    symbolColour = friendlyGroups.contains(owner) ? HIGHLIGHT : ERROR;
+                }
+
+                // only switch colour where it changes, to keep lines short
+                if (symbolColour != colour || x == centreX - HALF_WIDTH) {
+                    switchColour(message, symbolColour);
+                    colour = symbolColour;
+                }
+                message.append(symbol);
+            }
+        }
+
+        message.newLine().prefix().append(CENTRE_SYMBOL).normal(": You, ").append(WILDERNESS_SYMBOL).append(": Wilderness");
+        for (int i = 0; i < legend.size(); i++) {
+            int owner = legend.get(i);
+            String name = Politics.getGroupById(owner).map(Group::getName).orElse("Unknown");
+            if (i % 4 == 0) {
+                message.newLine();
+            } else {
+                message.append(", ");
+            }
+            switchColour(message, friendlyGroups.contains(owner) ? HIGHLIGHT : ERROR);
+            message.append((char) symbols.get(owner)).normal(": " + name);
+        }
+        return message;
+    }
+
+    private static void switchColour(MessageBuilder message, int colour) {
+        switch (colour) {
+            case HIGHLIGHT:
+                message.highlight();
+                break;
+            case ERROR:
+                message.error();
+                break;
+            case PREFIX:
+                message.prefix();
+                break;
+            default:
+                message.normal();
+                break;
+        }
+    }
+
+    private ClaimMap() {
+        throw new UnsupportedOperationException();
+    }
+}
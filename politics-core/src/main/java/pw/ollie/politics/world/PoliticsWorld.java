@@ -19,40 +19,82 @@
  */
 package pw.ollie.politics.world;
 
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.procedure.TLongProcedure;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+
 import pw.ollie.politics.Politics;
+import pw.ollie.politics.data.GenerationTracker;
 import pw.ollie.politics.data.Storable;
 import pw.ollie.politics.group.Group;
 import pw.ollie.politics.group.level.GroupLevel;
 import pw.ollie.politics.universe.Universe;
+import pw.ollie.politics.util.math.Cuboid;
+import pw.ollie.politics.util.math.GeometryUtil;
 import pw.ollie.politics.util.stream.CollectorUtil;
 import pw.ollie.politics.world.plot.Plot;
-
-import com.google.common.collect.HashBasedTable;
-import com.google.common.collect.Table;
+import pw.ollie.politics.world.plot.Subplot;
 
 import org.bson.BSONObject;
 import org.bson.BasicBSONObject;
 import org.bson.types.BasicBSONList;
 
+import org.bukkit.Location;
 import org.bukkit.World;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Stream;
 
 /**
  * Holds Politics data specific to a single world.
+ * <p>
+ * If the world is configured for lazy loading, see {@link WorldConfig#isLazyLoading()}, the {@link Plot}s of a region
+ * are only held while chunks within the region are loaded, or while the region has changes which are not yet written.
+ * Regions loaded to look up Plots in chunks which are not loaded are held until the next save.
+ * The owner of every stored Plot is always held in a compact summary, so that ownership is known for regions which
+ * are not loaded without reading their region files.
  */
 public final class PoliticsWorld implements Storable {
+    // the maximum number of owner tiles held before they are discarded
+    private static final int MAX_OWNER_TILES = 256;
+
     private final String name;
     private final WorldConfig config;
-    private final Table<Integer, Integer, Plot> chunkPlots;
+    // plots keyed by packed chunk coordinates, see GeometryUtil#toChunkKey
+    private final TLongObjectMap<Plot> chunkPlots;
+    // owners of all stored plots, including those in regions which are not loaded, keyed by packed chunk coordinates
+    private final TLongIntMap chunkOwners = new TLongIntHashMap();
+    // the plots owned by each group and the connected territories they form, keyed by group id
+    private final TIntObjectMap<Territory> territories = new TIntObjectHashMap<>();
+    // owners of every chunk in recently mapped regions, by index within the region, see ClaimMap
+    private final TLongObjectMap<int[]> ownerTiles = new TLongObjectHashMap<>();
+    // the subplots of all held plots, by the space they occupy
+    private final SubplotTree subplots = new SubplotTree();
+    // keys of regions with changes not yet written to their region files, see RegionFile#getRegionKey
+    private final TLongSet dirtyRegions = new TLongHashSet();
+    // number of writes of each region which are queued in the save pipeline
+    private final TLongIntMap savingRegions = new TLongIntHashMap();
+    // lazy loading: keys of regions whose plots are held, and the number of loaded chunks within each region
+    private final TLongSet loadedRegions = new TLongHashSet();
+    private final TLongIntMap loadedChunkCounts = new TLongIntHashMap();
+
+    private long generation;
 
     PoliticsWorld(String name, WorldConfig config) {
-        this(name, config, HashBasedTable.create());
+        this(name, config, new TLongObjectHashMap<>());
     }
 
-    private PoliticsWorld(String name, WorldConfig config, Table<Integer, Integer, Plot> chunkPlots) {
+    private PoliticsWorld(String name, WorldConfig config, TLongObjectMap<Plot> chunkPlots) {
         this.name = name;
         this.config = config;
         this.chunkPlots = chunkPlots;
@@ -60,17 +102,25 @@ public final class PoliticsWorld implements Storable {
 
     public PoliticsWorld(String name, WorldConfig config, BasicBSONObject object) {
         this.name = object.getString("name", name);
-        chunkPlots = HashBasedTable.create();
+        this.config = config;
         BasicBSONList list = (BasicBSONList) object.get("plots");
+        chunkPlots = new TLongObjectHashMap<>(list.size());
         for (Object o : list) {
             if (!(o instanceof BasicBSONObject)) {
                 throw new IllegalArgumentException("List must only contain more objects!");
             }
-            BasicBSONObject plotObj = (BasicBSONObject) o;
-            Plot p = new Plot(plotObj);
-            chunkPlots.put(p.getChunk().getX(), p.getChunk().getZ(), p);
+            loadPlot((BasicBSONObject) o);
         }
-        this.config = config;
+    }
+
+    /**
+     * Gets a {@link Stream} of all {@link Plot}s currently held in memory for this world. This only includes Plots which
+     * are owned or contain Subplots.
+     *
+     * @return all Plots held for this world
+     */
+    public Stream<Plot> streamPlots() {
+        return chunkPlots.valueCollection().stream();
     }
 
     public Stream<Universe> streamUniverses() {
@@ -133,6 +183,10 @@ public final class PoliticsWorld implements Storable {
 
     /**
      * Gets the {@link Plot} at the given chunk position in this world.
+     * <p>
+     * Only Plots which are owned or contain {@link pw.ollie.politics.world.plot.Subplot}s are held by the world. For
+     * any other chunk a new, unheld Plot is returned, which is held automatically once it is claimed or a Subplot is
+     * added to it.
      *
      * @param x chunk x coordinate
      * @param z chunk z coordinate
@@ -143,10 +197,587 @@ public final class PoliticsWorld implements Storable {
             return null;
         }
 
-        Plot result = chunkPlots.get(x, z);
+        long key = GeometryUtil.toChunkKey(x, z);
+        Plot result = chunkPlots.get(key);
+        if (result == null && chunkOwners.containsKey(key)) {
+            // the plot is stored in a region which is not loaded
+            loadRegion(RegionFile.getRegionKey(x, z));
+            result = chunkPlots.get(key);
+        }
         if (result == null) {
-            result = new Plot(this, x, z);
-            chunkPlots.put(x, z, result);
+            return new Plot(this, x, z);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the id of the {@link Group} directly owning the chunk at the given position in this world.
+     * <p>
+     * Unlike {@link #getPlotAtChunkPosition(int, int)}, this never loads the region containing the chunk.
+     *
+     * @param x chunk x coordinate
+     * @param z chunk z coordinate
+     * @return the id of the owning Group, or -1 if the chunk is not owned
+     */
+    public int getOwnerIdAtChunkPosition(int x, int z) {
+        long key = GeometryUtil.toChunkKey(x, z);
+        return chunkOwners.containsKey(key) ? chunkOwners.get(key) : -1;
+    }
+
+    /**
+     * Checks whether this world holds a {@link Plot} at the given chunk position, meaning the chunk is owned or has
+     * Subplots.
+     *
+     * @param x chunk x coordinate
+     * @param z chunk z coordinate
+     * @return whether a Plot is held at the given chunk position
+     */
+    public boolean hasPlotAtChunkPosition(int x, int z) {
+        return chunkOwners.containsKey(GeometryUtil.toChunkKey(x, z));
+    }
+
+    /**
+     * Gets the number of {@link Plot}s in this world directly owned by the {@link Group} with the given id.
+     *
+     * @param groupId the id of the Group
+     * @return the number of Plots owned by the Group in this world
+     */
+    public int getNumOwnedPlots(int groupId) {
+        Territory territory = territories.get(groupId);
+        return territory == null ? 0 : territory.size();
+    }
+
+    /**
+     * Passes the packed chunk coordinates of each {@link Plot} in this world directly owned by the {@link Group} with
+     * the given id to the given procedure, see {@link GeometryUtil#toChunkKey(int, int)}. No regions are loaded.
+     * <p>
+     * The procedure must not change the owner of any Plot.
+     *
+     * @param groupId   the id of the Group
+     * @param procedure the procedure to pass chunk keys to, which returns false to stop iteration
+     * @return false if iteration was stopped by the procedure, otherwise true
+     */
+    public boolean forEachOwnedChunk(int groupId, TLongProcedure procedure) {
+        Territory territory = territories.get(groupId);
+        return territory == null || territory.getChunks().forEach(procedure);
+    }
+
+    /**
+     * Gets a {@link Stream} of all {@link Plot}s in this world directly owned by the {@link Group} with the given id.
+     * <p>
+     * For a lazily loaded world, the regions containing the Plots are loaded as the Stream is consumed.
+     *
+     * @param groupId the id of the Group
+     * @return all Plots owned by the Group in this world
+     */
+    public Stream<Plot> streamOwnedPlots(int groupId) {
+        Territory territory = territories.get(groupId);
+        if (territory == null || !config.hasPlots()) {
+            return Stream.empty();
+        }
+        return Arrays.stream(territory.getChunks().toArray()).mapToObj(key ->
+                getPlotAtChunkPosition(GeometryUtil.getChunkKeyX(key), GeometryUtil.getChunkKeyZ(key)));
+    }
+
+    /**
+     * Checks whether the chunk at the given position shares an edge with a chunk directly owned by the {@link Group}
+     * with the given id, such that claiming it would extend the Group's territory.
+     *
+     * @param groupId the id of the Group
+     * @param x       chunk x coordinate
+     * @param z       chunk z coordinate
+     * @return whether the chunk borders the Group's territory
+     */
+    public boolean isAdjacentToTerritory(int groupId, int x, int z) {
+        Territory territory = territories.get(groupId);
+        return territory != null && territory.isAdjacent(GeometryUtil.toChunkKey(x, z));
+    }
+
+    /**
+     * Gets the number of separate territories formed by the chunks in this world directly owned by the {@link Group}
+     * with the given id. Chunks belong to the same territory if they are connected through chunks sharing an edge.
+     *
+     * @param groupId the id of the Group
+     * @return the number of territories of the Group in this world
+     */
+    public int getNumTerritories(int groupId) {
+        Territory territory = territories.get(groupId);
+        return territory == null ? 0 : territory.getNumComponents();
+    }
+
+    /**
+     * Gets the number of chunks in the territory containing the chunk at the given position, of the {@link Group} with
+     * the given id. This can be used to find enclaves, which are small territories separate from the main territory.
+     *
+     * @param groupId the id of the Group
+     * @param x       chunk x coordinate
+     * @param z       chunk z coordinate
+     * @return the size of the territory containing the chunk, or 0 if the Group does not own the chunk
+     */
+    public int getTerritorySize(int groupId, int x, int z) {
+        Territory territory = territories.get(groupId);
+        return territory == null ? 0 : territory.getComponentSize(GeometryUtil.toChunkKey(x, z));
+    }
+
+    /**
+     * Checks whether the two given chunks are both directly owned by the {@link Group} with the given id and are part of
+     * the same territory.
+     *
+     * @param groupId the id of the Group
+     * @param firstX  first chunk x coordinate
+     * @param firstZ  first chunk z coordinate
+     * @param secondX second chunk x coordinate
+     * @param secondZ second chunk z coordinate
+     * @return whether the chunks are in the same territory of the Group
+     */
+    public boolean isSameTerritory(int groupId, int firstX, int firstZ, int secondX, int secondZ) {
+        Territory territory = territories.get(groupId);
+        return territory != null && territory.isConnected(GeometryUtil.toChunkKey(firstX, firstZ),
+                GeometryUtil.toChunkKey(secondX, secondZ));
+    }
+
+    /**
+     * Checks whether unclaiming the chunk at the given position would split the territory of the {@link Group} with
+     * the given id containing it in two or more.
+     *
+     * @param groupId the id of the Group
+     * @param x       chunk x coordinate
+     * @param z       chunk z coordinate
+     * @return whether unclaiming the chunk would disconnect the Group's territory
+     */
+    public boolean wouldDisconnectTerritory(int groupId, int x, int z) {
+        Territory territory = territories.get(groupId);
+        return territory != null && territory.wouldDisconnect(GeometryUtil.toChunkKey(x, z));
+    }
+
+    /**
+     * Removes the owner of every {@link Plot} in this world directly owned by the {@link Group} with the given id,
+     * along with their Subplots. This is used to release the land of destroyed Groups.
+     * <p>
+     * This does not call {@link pw.ollie.politics.event.plot.PlotOwnerChangeEvent}.
+     *
+     * @param groupId the id of the Group
+     */
+    public void removeOwnedPlots(int groupId) {
+        streamOwnedPlots(groupId).forEach(plot -> plot.restoreOwner(-1));
+        territories.remove(groupId);
+    }
+
+    /**
+     * Gets the {@link Subplot} at the given block coordinates in this world, if there is one.
+     * <p>
+     * Subplots may span several chunks, so the Subplot is not necessarily one of the Subplots of the {@link Plot} at
+     * the coordinates.
+     *
+     * @param x the block x coordinate
+     * @param y the block y coordinate
+     * @param z the block z coordinate
+     * @return the Subplot at the given coordinates, or empty if there isn't one
+     */
+    public Optional<Subplot> getSubplotAt(int x, int y, int z) {
+        if (!config.hasSubplots()) {
+            return Optional.empty();
+        }
+
+        int chunkX = x >> 4;
+        int chunkZ = z >> 4;
+        // subplots only cover chunks which are held
+        if (!chunkOwners.containsKey(GeometryUtil.toChunkKey(chunkX, chunkZ))) {
+            return Optional.empty();
+        }
+        loadRegion(RegionFile.getRegionKey(chunkX, chunkZ));
+        return Optional.ofNullable(subplots.get(x, y, z));
+    }
+
+    /**
+     * Gets the {@link Subplot} at the given {@link Location} in this world, if there is one.
+     *
+     * @param location the Location to get the Subplot at
+     * @return the Subplot at the given Location, or empty if there isn't one
+     * @see #getSubplotAt(int, int, int)
+     */
+    public Optional<Subplot> getSubplotAt(Location location) {
+        return getSubplotAt(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    /**
+     * Gets a {@link Stream} of all {@link Subplot}s in this world which overlap the given {@link Cuboid}.
+     *
+     * @param cuboid the Cuboid to find overlapping Subplots for
+     * @return the Subplots overlapping the Cuboid
+     */
+    public Stream<Subplot> streamIntersectingSubplots(Cuboid cuboid) {
+        loadRegions(cuboid);
+        List<Subplot> result = new ArrayList<>();
+        subplots.forEachIntersecting(cuboid.getMinX(), cuboid.getMinY(), cuboid.getMinZ(), cuboid.getMaxX(),
+                cuboid.getMaxY(), cuboid.getMaxZ(), result::add);
+        return result.stream();
+    }
+
+    /**
+     * Checks whether any {@link Subplot} in this world overlaps the given {@link Cuboid}. Subplots which only touch
+     * the Cuboid do not overlap it.
+     *
+     * @param cuboid the Cuboid to check for overlapping Subplots
+     * @return whether a Subplot overlaps the Cuboid
+     */
+    public boolean hasIntersectingSubplot(Cuboid cuboid) {
+        loadRegions(cuboid);
+        return !subplots.forEachIntersecting(cuboid.getMinX(), cuboid.getMinY(), cuboid.getMinZ(), cuboid.getMaxX(),
+                cuboid.getMaxY(), cuboid.getMaxZ(), subplot -> false);
+    }
+
+    /**
+     * Checks whether a {@link Subplot} may occupy the given {@link Cuboid}, for a Subplot in a {@link Plot} owned by
+     * the {@link Group} with the given id.
+     * <p>
+     * A Subplot may span several chunks, as long as all of them are directly owned by the same Group and are within
+     * the same region of 32 by 32 chunks, so that the Subplot is always loaded along with all of the chunks it covers.
+     * This does not check whether the Cuboid overlaps other Subplots.
+     *
+     * @param groupId the id of the Group owning the parent Plot, or -1 if it is not owned, in which case no Subplot may
+     *                occupy the Cuboid
+     * @param cuboid  the Cuboid to check
+     * @return whether a Subplot may occupy the Cuboid
+     */
+    public boolean canSpanSubplot(int groupId, Cuboid cuboid) {
+        if (groupId == -1) {
+            return false;
+        }
+
+        int minChunkX = cuboid.getMinX() >> 4;
+        int minChunkZ = cuboid.getMinZ() >> 4;
+        int maxChunkX = getMaxChunk(cuboid.getMinX(), cuboid.getXSize());
+        int maxChunkZ = getMaxChunk(cuboid.getMinZ(), cuboid.getZSize());
+        if (minChunkX == maxChunkX && minChunkZ == maxChunkZ) {
+            return getOwnerIdAtChunkPosition(minChunkX, minChunkZ) == groupId;
+        }
+        if (RegionFile.getRegionKey(minChunkX, minChunkZ) != RegionFile.getRegionKey(maxChunkX, maxChunkZ)) {
+            return false;
+        }
+
+        for (int x = minChunkX; x <= maxChunkX; x++) {
+            for (int z = minChunkZ; z <= maxChunkZ; z++) {
+                if (getOwnerIdAtChunkPosition(x, z) != groupId) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds the given {@link Subplot} to the index of Subplots in this world.
+     * <p>
+     * This is called by {@link Plot} whenever a Subplot is added to it and does not need to be called manually.
+     *
+     * @param subplot the Subplot to index
+     */
+    public void indexSubplot(Subplot subplot) {
+        subplots.insert(subplot);
+    }
+
+    /**
+     * Removes the given {@link Subplot} from the index of Subplots in this world.
+     * <p>
+     * This is called by {@link Plot} whenever a Subplot is removed from it and does not need to be called manually.
+     *
+     * @param subplot the Subplot to remove from the index
+     */
+    public void unindexSubplot(Subplot subplot) {
+        subplots.remove(subplot);
+    }
+
+    /**
+     * Updates whether the given {@link Plot} is held by this world, based on {@link Plot#shouldStore()}. Wilderness
+     * Plots are not held, so that only claimed or subplotted chunks occupy memory.
+     * <p>
+     * This is called by Plot whenever its owner or Subplots change and does not need to be called manually. The region
+     * containing the Plot is marked as changed, so that it is written on the next save, unless the Plot was wilderness
+     * and still is.
+     *
+     * @param plot the Plot to update
+     */
+    public void updatePlot(Plot plot) {
+        long key = GeometryUtil.toChunkKey(plot.getX(), plot.getZ());
+        if (!plot.shouldStore() && !chunkOwners.containsKey(key)) {
+            // wilderness which is still wilderness, such as unclaiming an unheld plot, leaves nothing to write
+            return;
+        }
+
+        long regionKey = RegionFile.getRegionKey(plot.getX(), plot.getZ());
+        // the rest of the region must be held before the region is written
+        loadRegion(regionKey);
+        if (plot.shouldStore()) {
+            chunkPlots.put(key, plot);
+            setChunkOwner(key, plot.getOwnerId().orElse(-1));
+        } else {
+            chunkPlots.remove(key);
+            removeChunkOwner(key);
+        }
+        markRegionDirty(regionKey);
+    }
+
+    // region storage
+
+    void loadPlot(BasicBSONObject plotObj) {
+        Plot plot = new Plot(this, plotObj);
+        long key = GeometryUtil.toChunkKey(plot.getX(), plot.getZ());
+        Plot previous = chunkPlots.put(key, plot);
+        if (previous != null) {
+            previous.streamSubplots().forEach(subplots::remove);
+        }
+        plot.streamSubplots().forEach(subplots::insert);
+        setChunkOwner(key, plot.getOwnerId().orElse(-1));
+        if (config.isLazyLoading()) {
+            loadedRegions.add(RegionFile.getRegionKey(plot.getX(), plot.getZ()));
+        }
+    }
+
+    void loadOwners(TLongIntMap owners) {
+        owners.forEachEntry((key, owner) -> {
+            setChunkOwner(key, owner);
+            return true;
+        });
+    }
+
+    private void setChunkOwner(long key, int owner) {
+        if (chunkOwners.containsKey(key)) {
+            removeChunkOwner(key);
+        }
+        chunkOwners.put(key, owner);
+        if (owner != -1) {
+            Territory territory = territories.get(owner);
+            if (territory == null) {
+                territory = new Territory();
+                territories.put(owner, territory);
+            }
+            territory.add(key);
+        }
+        updateOwnerTile(key, owner);
+    }
+
+    private void removeChunkOwner(long key) {
+        if (!chunkOwners.containsKey(key)) {
+            return;
+        }
+
+        int owner = chunkOwners.remove(key);
+        Territory territory = territories.get(owner);
+        if (territory != null) {
+            territory.remove(key);
+            if (territory.isEmpty()) {
+                territories.remove(owner);
+            }
+        }
+        updateOwnerTile(key, -1);
+    }
+
+    private void updateOwnerTile(long key, int owner) {
+        int x = GeometryUtil.getChunkKeyX(key);
+        int z = GeometryUtil.getChunkKeyZ(key);
+        int[] tile = ownerTiles.get(RegionFile.getRegionKey(x, z));
+        if (tile != null) {
+            tile[RegionFile.getLocalIndex(x, z)] = owner;
+        }
+    }
+
+    /**
+     * Gets the owner tile of the region with the given key, which holds the id of the owner of each chunk in the
+     * region by its index within the region, or -1 for unowned chunks. Tiles are kept up to date as owners change.
+     * <p>
+     * The returned tile must not be modified.
+     */
+    int[] getOwnerTile(long regionKey) {
+        int[] tile = ownerTiles.get(regionKey);
+        if (tile != null) {
+            return tile;
+        }
+
+        if (ownerTiles.size() >= MAX_OWNER_TILES) {
+            ownerTiles.clear();
+        }
+        tile = new int[RegionFile.REGION_SIZE * RegionFile.REGION_SIZE];
+        int minX = GeometryUtil.getChunkKeyX(regionKey) << RegionFile.REGION_SHIFT;
+        int minZ = GeometryUtil.getChunkKeyZ(regionKey) << RegionFile.REGION_SHIFT;
+        for (int x = minX; x < minX + RegionFile.REGION_SIZE; x++) {
+            for (int z = minZ; z < minZ + RegionFile.REGION_SIZE; z++) {
+                tile[RegionFile.getLocalIndex(x, z)] = getOwnerIdAtChunkPosition(x, z);
+            }
+        }
+        ownerTiles.put(regionKey, tile);
+        return tile;
+    }
+
+    boolean isRegionLoaded(long regionKey) {
+        return !config.isLazyLoading() || loadedRegions.contains(regionKey);
+    }
+
+    void loadRegion(long regionKey) {
+        if (isRegionLoaded(regionKey)) {
+            return;
+        }
+
+        loadedRegions.add(regionKey);
+        Politics.getWorldManager().readRegion(this, regionKey);
+    }
+
+    // loads every region containing a stored plot, as known from the owner summary
+    private void loadStoredRegions() {
+        if (!config.isLazyLoading()) {
+            return;
+        }
+
+        // collected first, as loading regions updates the summary
+        TLongSet regionKeys = new TLongHashSet();
+        chunkOwners.forEachKey(key -> {
+            regionKeys.add(RegionFile.getRegionKey(GeometryUtil.getChunkKeyX(key), GeometryUtil.getChunkKeyZ(key)));
+            return true;
+        });
+        regionKeys.forEach(regionKey -> {
+            loadRegion(regionKey);
+            return true;
+        });
+    }
+
+    // loads the regions covering the given cuboid, so that the subplots within it are held
+    private void loadRegions(Cuboid cuboid) {
+        if (!config.isLazyLoading()) {
+            return;
+        }
+
+        int minRegionX = (cuboid.getMinX() >> 4) >> RegionFile.REGION_SHIFT;
+        int minRegionZ = (cuboid.getMinZ() >> 4) >> RegionFile.REGION_SHIFT;
+        int maxRegionX = getMaxChunk(cuboid.getMinX(), cuboid.getXSize()) >> RegionFile.REGION_SHIFT;
+        int maxRegionZ = getMaxChunk(cuboid.getMinZ(), cuboid.getZSize()) >> RegionFile.REGION_SHIFT;
+        for (int regionX = minRegionX; regionX <= maxRegionX; regionX++) {
+            for (int regionZ = minRegionZ; regionZ <= maxRegionZ; regionZ++) {
+                loadRegion(GeometryUtil.toChunkKey(regionX, regionZ));
+            }
+        }
+    }
+
+    // gets the last chunk coordinate covered by blocks from min up to but excluding min + size
+    private static int getMaxChunk(int min, int size) {
+        return (min + Math.max(size - 1, 0)) >> 4;
+    }
+
+    /**
+     * Evicts the {@link Plot}s of the region with the given key from memory, if the world is lazily loaded and the
+     * region has no loaded chunks and no changes which are not yet written. Their owners remain in the summary.
+     */
+    void evictRegion(long regionKey) {
+        if (!config.isLazyLoading() || !loadedRegions.contains(regionKey) || loadedChunkCounts.containsKey(regionKey)
+                || dirtyRegions.contains(regionKey) || savingRegions.containsKey(regionKey)) {
+            return;
+        }
+
+        int minX = GeometryUtil.getChunkKeyX(regionKey) << RegionFile.REGION_SHIFT;
+        int minZ = GeometryUtil.getChunkKeyZ(regionKey) << RegionFile.REGION_SHIFT;
+        for (int x = minX; x < minX + RegionFile.REGION_SIZE; x++) {
+            for (int z = minZ; z < minZ + RegionFile.REGION_SIZE; z++) {
+                Plot plot = chunkPlots.remove(GeometryUtil.toChunkKey(x, z));
+                if (plot != null) {
+                    plot.streamSubplots().forEach(subplots::remove);
+                }
+            }
+        }
+        loadedRegions.remove(regionKey);
+    }
+
+    /**
+     * Evicts every held region which has no loaded chunks and no changes which are not yet written, such as regions
+     * loaded only to look up a {@link Plot}, see {@link #evictRegion(long)}.
+     */
+    void evictIdleRegions() {
+        if (!config.isLazyLoading()) {
+            return;
+        }
+
+        for (long regionKey : loadedRegions.toArray()) {
+            evictRegion(regionKey);
+        }
+    }
+
+    void onChunkLoad(int chunkX, int chunkZ) {
+        if (!config.isLazyLoading()) {
+            return;
+        }
+
+        long regionKey = RegionFile.getRegionKey(chunkX, chunkZ);
+        loadedChunkCounts.adjustOrPutValue(regionKey, 1, 1);
+        loadRegion(regionKey);
+    }
+
+    void onChunkUnload(int chunkX, int chunkZ) {
+        if (!config.isLazyLoading()) {
+            return;
+        }
+
+        long regionKey = RegionFile.getRegionKey(chunkX, chunkZ);
+        if (loadedChunkCounts.adjustOrPutValue(regionKey, -1, 0) <= 0) {
+            loadedChunkCounts.remove(regionKey);
+            evictRegion(regionKey);
+        }
+    }
+
+    void markRegionDirty(int chunkX, int chunkZ) {
+        markRegionDirty(RegionFile.getRegionKey(chunkX, chunkZ));
+    }
+
+    void markRegionDirty(long regionKey) {
+        dirtyRegions.add(regionKey);
+        generation = GenerationTracker.nextGeneration();
+    }
+
+    void markAllRegionsDirty() {
+        chunkPlots.forEachValue(plot -> {
+            markRegionDirty(plot.getX(), plot.getZ());
+            return true;
+        });
+    }
+
+    long[] getDirtyRegions() {
+        return dirtyRegions.toArray();
+    }
+
+    /**
+     * Marks the region with the given key as no longer changed, as it has been submitted to be written. Once the write
+     * completes, {@link #finishSavingRegion(long, boolean)} must be called.
+     */
+    void startSavingRegion(long regionKey) {
+        dirtyRegions.remove(regionKey);
+        savingRegions.adjustOrPutValue(regionKey, 1, 1);
+    }
+
+    void finishSavingRegion(long regionKey, boolean success) {
+        if (savingRegions.adjustOrPutValue(regionKey, -1, 0) <= 0) {
+            savingRegions.remove(regionKey);
+        }
+
+        if (!success) {
+            // regions which fail to save are written again on the next save
+            markRegionDirty(regionKey);
+        } else {
+            evictRegion(regionKey);
+        }
+    }
+
+    /**
+     * Collects the stored documents of all held {@link Plot}s within the region with the given key, keyed by their
+     * index within the region. Only the chunks of the region are looked up, rather than every held Plot.
+     */
+    TIntObjectMap<BSONObject> getRegionPlots(long regionKey) {
+        int minX = GeometryUtil.getChunkKeyX(regionKey) << RegionFile.REGION_SHIFT;
+        int minZ = GeometryUtil.getChunkKeyZ(regionKey) << RegionFile.REGION_SHIFT;
+        TIntObjectMap<BSONObject> result = new TIntObjectHashMap<>();
+        for (int x = minX; x < minX + RegionFile.REGION_SIZE; x++) {
+            for (int z = minZ; z < minZ + RegionFile.REGION_SIZE; z++) {
+                Plot plot = chunkPlots.get(GeometryUtil.toChunkKey(x, z));
+                if (plot != null && plot.shouldStore()) {
+                    result.put(RegionFile.getLocalIndex(x, z), plot.toBSONObject());
+                }
+            }
         }
         return result;
     }
@@ -164,12 +795,20 @@ public final class PoliticsWorld implements Storable {
         return Objects.hash(name);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the world is lazily loaded, every region containing stored {@link Plot}s is loaded first, so that all Plots
+     * are included. Regions which are not otherwise needed are evicted again afterwards.
+     */
     @Override
     public BSONObject toBSONObject() {
+        loadStoredRegions();
         BasicBSONObject bson = new BasicBSONObject();
         bson.put("name", name);
-        bson.put("plots", chunkPlots.values().stream().filter(Plot::shouldStore)
+        bson.put("plots", chunkPlots.valueCollection().stream().filter(Plot::shouldStore)
                 .map(Plot::toBSONObject).collect(CollectorUtil.toBSONList()));
+        evictIdleRegions();
         return bson;
     }
 
@@ -177,4 +816,9 @@ public final class PoliticsWorld implements Storable {
     public boolean shouldStore() {
         return true;
     }
+
+    @Override
+    public long getGeneration() {
+        return generation;
+    }
 }
@@ -0,0 +1,288 @@
+/*
+ * This file is part of Politics.
+ *
+ * Copyright (c) 2019 Oliver Stanley
+ * Politics is licensed under the Affero General Public License Version 3.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pw.ollie.politics.world;
+
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.procedure.TLongIntProcedure;
+
+import pw.ollie.politics.util.math.GeometryUtil;
+
+import org.bson.BSONDecoder;
+import org.bson.BSONEncoder;
+import org.bson.BSONObject;
+import org.bson.BasicBSONDecoder;
+import org.bson.BasicBSONEncoder;
+import org.bson.BasicBSONObject;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Encodes and decodes region files, which hold the stored plots of a 32x32 chunk area of a world.
+ * <p>
+ * A region file starts with a header made up of a magic number, the format version and the number of plots in the
+ * region, followed by an index entry for each plot holding its position within the region, its owner and the offset
+ * and length of its data. The BSON document of each plot follows the header.
+ * <p>
+ * As the owner of each plot is held in the index, the ownership of a region can be read without decoding any plot
+ * documents, see {@link #readOwners(InputStream, long, TLongIntProcedure)}.
+ */
+final class RegionFile {
+    /**
+     * The file extension used for region files.
+     */
+    static final String EXTENSION = ".ptr";
+    /**
+     * The number of bits a chunk coordinate is shifted by to give a region coordinate.
+     */
+    static final int REGION_SHIFT = 5;
+    /**
+     * The width of a region in chunks.
+     */
+    static final int REGION_SIZE = 1 << REGION_SHIFT;
+
+    private static final int MAGIC = 0x50545247;
+    private static final int VERSION = 1;
+    // magic, version, entry count
+    private static final int HEADER_SIZE = 12;
+    // local index, owner, offset, length
+    private static final int INDEX_ENTRY_SIZE = 14;
+
+    /**
+     * Gets the packed key of the region containing the chunk at the given coordinates.
+     *
+     * @param chunkX the chunk x coordinate
+     * @param chunkZ the chunk z coordinate
+     * @return the key of the region containing the chunk
+     */
+    static long getRegionKey(int chunkX, int chunkZ) {
+        return GeometryUtil.toChunkKey(chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT);
+    }
+
+    /**
+     * Gets the index of the chunk at the given coordinates within its region.
+     *
+     * @param chunkX the chunk x coordinate
+     * @param chunkZ the chunk z coordinate
+     * @return the index of the chunk within its region
+     */
+    static int getLocalIndex(int chunkX, int chunkZ) {
+        return ((chunkZ & (REGION_SIZE - 1)) << REGION_SHIFT) | (chunkX & (REGION_SIZE - 1));
+    }
+
+    /**
+     * Gets the packed key of the chunk at the given index within the region with the given key.
+     *
+     * @param regionKey  the packed region key
+     * @param localIndex the index of the chunk within the region
+     * @return the packed key of the chunk
+     */
+    static long getChunkKey(long regionKey, int localIndex) {
+        int chunkX = (GeometryUtil.getChunkKeyX(regionKey) << REGION_SHIFT) | (localIndex & (REGION_SIZE - 1));
+        int chunkZ = (GeometryUtil.getChunkKeyZ(regionKey) << REGION_SHIFT) | (localIndex >> REGION_SHIFT);
+        return GeometryUtil.toChunkKey(chunkX, chunkZ);
+    }
+
+    /**
+     * Gets the name of the file for the region with the given key.
+     *
+     * @param regionKey the packed region key
+     * @return the file name for the region
+     */
+    static String getFileName(long regionKey) {
+        return "r." + GeometryUtil.getChunkKeyX(regionKey) + "." + GeometryUtil.getChunkKeyZ(regionKey) + EXTENSION;
+    }
+
+    /**
+     * Gets the key of the region stored in the file with the given name.
+     *
+     * @param fileName the name of the region file
+     * @return the packed region key, or {@code null} if the name is not that of a region file
+     */
+    static Long parseFileName(String fileName) {
+        if (!fileName.startsWith("r.") || !fileName.endsWith(EXTENSION)) {
+            return null;
+        }
+
+        String[] parts = fileName.substring(2, fileName.length() - EXTENSION.length()).split("\\.");
+        if (parts.length != 2) {
+            return null;
+        }
+
+        try {
+            return GeometryUtil.toChunkKey(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Encodes the given plot documents, keyed by their index within the region, to region file data.
+     *
+     * @param plots the plot documents for the region
+     * @return the encoded region file
+     */
+    static byte[] encode(TIntObjectMap<BSONObject> plots) {
+        BSONEncoder encoder = new BasicBSONEncoder();
+        int[] indices = plots.keys();
+        byte[][] documents = new byte[indices.length][];
+        for (int i = 0; i < indices.length; i++) {
+            documents[i] = encoder.encode(plots.get(indices[i]));
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(indices.length);
+
+            int offset = HEADER_SIZE + indices.length * INDEX_ENTRY_SIZE;
+            for (int i = 0; i < indices.length; i++) {
+                out.writeShort(indices[i]);
+                out.writeInt(getOwner(plots.get(indices[i])));
+                out.writeInt(offset);
+                out.writeInt(documents[i].length);
+                offset += documents[i].length;
+            }
+
+            for (byte[] document : documents) {
+                out.write(document);
+            }
+        } catch (IOException ex) {
+            // ByteArrayOutputStream does not throw
+            throw new IllegalStateException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads the plot documents from the given region file stream, passing each to the given consumer as soon as it has
+     * been decoded. Only one plot document is held in memory at a time.
+     *
+     * @param input    the stream of region file data
+     * @param consumer the consumer of plot documents
+     * @throws IOException if the data is not a valid region file
+     */
+    static void read(InputStream input, Consumer<BasicBSONObject> consumer) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        Index index = readIndex(in);
+
+        // documents are written in index order, so they can be read in a single pass
+        BSONDecoder decoder = new BasicBSONDecoder();
+        long position = index.end;
+        for (int i = 0; i < index.count; i++) {
+            if (index.offsets[i] < position || index.lengths[i] < 0) {
+                throw new IOException("Region file index entry out of bounds");
+            }
+            for (long skip = index.offsets[i] - position; skip > 0; ) {
+                int skipped = in.skipBytes((int) skip);
+                if (skipped <= 0) {
+                    throw new EOFException("Truncated region file");
+                }
+                skip -= skipped;
+            }
+            byte[] document = new byte[index.lengths[i]];
+            in.readFully(document);
+            position = index.offsets[i] + (long) index.lengths[i];
+
+            BSONObject plotObj = decoder.readObject(document);
+            if (!(plotObj instanceof BasicBSONObject)) {
+                throw new IOException("Invalid plot document in region file");
+            }
+            consumer.accept((BasicBSONObject) plotObj);
+        }
+    }
+
+    /**
+     * Reads the owner of each stored plot from the given region file stream, passing the packed chunk key and owner id
+     * of each plot to the given procedure. Unowned plots, which are stored because they hold subplots, have an owner
+     * of -1.
+     * <p>
+     * Only the index of the region file is read.
+     *
+     * @param input     the stream of region file data
+     * @param regionKey the packed key of the region stored in the file
+     * @param procedure the procedure receiving chunk keys and owners
+     * @throws IOException if the data is not a valid region file
+     */
+    static void readOwners(InputStream input, long regionKey, TLongIntProcedure procedure) throws IOException {
+        Index index = readIndex(new DataInputStream(new BufferedInputStream(input)));
+        for (int i = 0; i < index.count; i++) {
+            procedure.execute(getChunkKey(regionKey, index.localIndices[i]), index.owners[i]);
+        }
+    }
+
+    private static Index readIndex(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a region file");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported region file version " + version);
+        }
+
+        int count = in.readInt();
+        if (count < 0 || count > REGION_SIZE * REGION_SIZE) {
+            throw new IOException("Invalid region file entry count " + count);
+        }
+        Index index = new Index(count, HEADER_SIZE + (long) count * INDEX_ENTRY_SIZE);
+        for (int i = 0; i < count; i++) {
+            index.localIndices[i] = in.readUnsignedShort();
+            index.owners[i] = in.readInt();
+            index.offsets[i] = in.readInt();
+            index.lengths[i] = in.readInt();
+        }
+        return index;
+    }
+
+    private static int getOwner(BSONObject plotObj) {
+        Object owner = plotObj.get("owner");
+        return owner instanceof Integer ? (Integer) owner : -1;
+    }
+
+    // the index entries of a region file
+    private static final class Index {
+        private final int count;
+        private final long end;
+        private final int[] localIndices;
+        private final int[] owners;
+        private final int[] offsets;
+        private final int[] lengths;
+
+        private Index(int count, long end) {
+            this.count = count;
+            this.end = end;
+            this.localIndices = new int[count];
+            this.owners = new int[count];
+            this.offsets = new int[count];
+            this.lengths = new int[count];
+        }
+    }
+
+    private RegionFile() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * This file is part of Politics.
+ *
+ * Copyright (c) 2019 Oliver Stanley
+ * Politics is licensed under the Affero General Public License Version 3.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pw.ollie.politics.world;
+
+import org.bukkit.Chunk;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+
+/**
+ * Loads and evicts the plots of regions in lazily loaded worlds as their chunks are loaded and unloaded.
+ */
+public final class RegionLoadListener implements Listener {
+    private final WorldManager worldManager;
+
+    RegionLoadListener(WorldManager worldManager) {
+        this.worldManager = worldManager;
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        // worlds which are not held yet count their loaded chunks when they are created
+        PoliticsWorld world = worldManager.getLoadedWorld(event.getWorld().getName());
+        if (world != null) {
+            Chunk chunk = event.getChunk();
+            world.onChunkLoad(chunk.getX(), chunk.getZ());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        PoliticsWorld world = worldManager.getLoadedWorld(event.getWorld().getName());
+        if (world != null) {
+            Chunk chunk = event.getChunk();
+            world.onChunkUnload(chunk.getX(), chunk.getZ());
+        }
+    }
+}
@@ -0,0 +1,417 @@
+/*
+ * This file is part of Politics.
+ *
+ * Copyright (c) 2019 Oliver Stanley
+ * Politics is licensed under the Affero General Public License Version 3.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pw.ollie.politics.world;
+
+import pw.ollie.politics.world.plot.Subplot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * An R-tree of the {@link Subplot}s held by a world, by the space they occupy.
+ * <p>
+ * Each node holds up to {@link #MAX_ENTRIES} entries along with the box enclosing all of them, so that finding the
+ * Subplot at a block or the Subplots overlapping an area only visits the nodes whose boxes include it. Nodes which
+ * overflow are split with Guttman's quadratic split, and the entries of nodes which underflow on removal are
+ * reinserted.
+ * <p>
+ * Boxes include their minimum coordinates and exclude their maximum coordinates, as Subplots do.
+ */
+final class SubplotTree {
+    private static final int MAX_ENTRIES = 8;
+    private static final int MIN_ENTRIES = 3;
+
+    private Node root = new Node(true);
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    Subplot get(int x, int y, int z) {
+        return get(root, x, y, z);
+    }
+
+    /**
+     * Calls the given procedure with each Subplot overlapping the given box, until the procedure returns false.
+     *
+     * @return false if the procedure returned false, otherwise true
+     */
+    boolean forEachIntersecting(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, Predicate<Subplot> procedure) {
+        return forEachIntersecting(root, minX, minY, minZ, maxX, maxY, maxZ, procedure);
+    }
+
+    void insert(Subplot subplot) {
+        insert(new Entry(subplot));
+        size++;
+    }
+
+    boolean remove(Subplot subplot) {
+        Entry target = new Entry(subplot);
+        Node leaf = findLeaf(root, target);
+        if (leaf == null) {
+            return false;
+        }
+
+        for (int i = 0; i < leaf.count; i++) {
+            if (((Entry) leaf.children[i]).subplot == subplot) {
+                leaf.removeAt(i);
+                break;
+            }
+        }
+        size--;
+        condense(leaf);
+        return true;
+    }
+
+    void clear() {
+        root = new Node(true);
+        size = 0;
+    }
+
+    private static Subplot get(Node node, int x, int y, int z) {
+        for (int i = 0; i < node.count; i++) {
+            Box child = node.children[i];
+            if (!child.contains(x, y, z)) {
+                continue;
+            }
+
+            if (node.leaf) {
+                return ((Entry) child).subplot;
+            }
+            Subplot result = get((Node) child, x, y, z);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    private static boolean forEachIntersecting(Node node, int minX, int minY, int minZ, int maxX, int maxY, int maxZ, Predicate<Subplot> procedure) {
+        for (int i = 0; i < node.count; i++) {
+            Box child = node.children[i];
+            if (!child.intersects(minX, minY, minZ, maxX, maxY, maxZ)) {
+                continue;
+            }
+
+            if (node.leaf) {
+                if (!procedure.test(((Entry) child).subplot)) {
+                    return false;
+                }
+            } else if (!forEachIntersecting((Node) child, minX, minY, minZ, maxX, maxY, maxZ, procedure)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Node findLeaf(Node node, Entry target) {
+        for (int i = 0; i < node.count; i++) {
+            Box child = node.children[i];
+            if (node.leaf) {
+                if (((Entry) child).subplot == target.subplot) {
+                    return node;
+                }
+            } else if (child.encloses(target)) {
+                Node result = findLeaf((Node) child, target);
+                if (result != null) {
+                    return result;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void insert(Entry entry) {
+        Node node = root;
+        while (!node.leaf) {
+            // descend into the child needing the least enlargement, then the smallest child
+            Node best = null;
+            long bestEnlargement = Long.MAX_VALUE;
+            long bestVolume = Long.MAX_VALUE;
+            for (int i = 0; i < node.count; i++) {
+                Node child = (Node) node.children[i];
+                long volume = child.volume();
+                long enlargement = child.enlargedVolume(entry) - volume;
+                if (enlargement < bestEnlargement || (enlargement == bestEnlargement && volume < bestVolume)) {
+                    best = child;
+                    bestEnlargement = enlargement;
+                    bestVolume = volume;
+                }
+            }
+            node = best;
+        }
+
+        node.add(entry);
+        adjust(node);
+    }
+
+    // updates the boxes of the node and its ancestors, splitting any nodes with too many entries
+    private void adjust(Node node) {
+        while (node != null) {
+            if (node.count > MAX_ENTRIES) {
+                Node sibling = split(node);
+                if (node == root) {
+                    root = new Node(false);
+                    root.add(node);
+                    root.add(sibling);
+                    root.recalculate();
+                    return;
+                }
+                node.parent.add(sibling);
+            } else {
+                node.recalculate();
+            }
+            node = node.parent;
+        }
+    }
+
+    private Node split(Node node) {
+        Box[] entries = Arrays.copyOf(node.children, node.count);
+        node.clear();
+        Node sibling = new Node(node.leaf);
+
+        // start with the pair of entries which would waste the most space if put together
+        int firstSeed = 0;
+        int secondSeed = 1;
+        long mostWaste = Long.MIN_VALUE;
+        for (int i = 0; i < entries.length; i++) {
+            for (int j = i + 1; j < entries.length; j++) {
+                long waste = entries[i].enlargedVolume(entries[j]) - entries[i].volume() - entries[j].volume();
+                if (waste > mostWaste) {
+                    firstSeed = i;
+                    secondSeed = j;
+                    mostWaste = waste;
+                }
+            }
+        }
+
+        boolean[] assigned = new boolean[entries.length];
+        assigned[firstSeed] = true;
+        assigned[secondSeed] = true;
+        node.add(entries[firstSeed]);
+        node.recalculate();
+        sibling.add(entries[secondSeed]);
+        sibling.recalculate();
+
+        int remaining = entries.length - 2;
+        while (remaining > 0) {
+            // each node must end up with at least the minimum number of entries
+            Node forced = node.count + remaining <= MIN_ENTRIES ? node
+                    : sibling.count + remaining <= MIN_ENTRIES ? sibling : null;
+            if (forced != null) {
+                for (int i = 0; i < entries.length; i++) {
+                    if (!assigned[i]) {
+                        forced.add(entries[i]);
+                        forced.include(entries[i]);
+                    }
+                }
+                break;
+            }
+
+            // assign the entry with the strongest preference for one node first
+            int next = -1;
+            long strongestPreference = -1;
+            for (int i = 0; i < entries.length; i++) {
+                if (assigned[i]) {
+                    continue;
+                }
+                long preference = Math.abs(node.enlargement(entries[i]) - sibling.enlargement(entries[i]));
+                if (preference > strongestPreference) {
+                    next = i;
+                    strongestPreference = preference;
+                }
+            }
+
+            Box entry = entries[next];
+            long nodeEnlargement = node.enlargement(entry);
+            long siblingEnlargement = sibling.enlargement(entry);
+            Node target;
+            if (nodeEnlargement != siblingEnlargement) {
+                target = nodeEnlargement < siblingEnlargement ? node : sibling;
+            } else if (node.volume() != sibling.volume()) {
+                target = node.volume() < sibling.volume() ? node : sibling;
+            } else {
+                target = node.count <= sibling.count ? node : sibling;
+            }
+            target.add(entry);
+            target.include(entry);
+            assigned[next] = true;
+            remaining--;
+        }
+        return sibling;
+    }
+
+    // removes nodes left with too few entries after a removal, then reinserts their entries
+    private void condense(Node node) {
+        List<Entry> orphans = new ArrayList<>();
+        while (node != root) {
+            Node parent = node.parent;
+            if (node.count < MIN_ENTRIES) {
+                parent.remove(node);
+                collectEntries(node, orphans);
+            } else {
+                node.recalculate();
+            }
+            node = parent;
+        }
+        root.recalculate();
+
+        while (!root.leaf && root.count == 1) {
+            root = (Node) root.children[0];
+            root.parent = null;
+        }
+        if (!root.leaf && root.count == 0) {
+            root = new Node(true);
+        }
+
+        for (Entry orphan : orphans) {
+            insert(orphan);
+        }
+    }
+
+    private static void collectEntries(Node node, List<Entry> result) {
+        for (int i = 0; i < node.count; i++) {
+            if (node.leaf) {
+                result.add((Entry) node.children[i]);
+            } else {
+                collectEntries((Node) node.children[i], result);
+            }
+        }
+    }
+
+    private static class Box {
+        int minX, minY, minZ;
+        int maxX, maxY, maxZ;
+
+        boolean contains(int x, int y, int z) {
+            return minX <= x && x < maxX && minY <= y && y < maxY && minZ <= z && z < maxZ;
+        }
+
+        boolean intersects(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+            return this.minX < maxX && minX < this.maxX
+                    && this.minZ < maxZ && minZ < this.maxZ
+                    && this.minY < maxY && minY < this.maxY;
+        }
+
+        boolean encloses(Box o) {
+            return minX <= o.minX && o.maxX <= maxX
+                    && minY <= o.minY && o.maxY <= maxY
+                    && minZ <= o.minZ && o.maxZ <= maxZ;
+        }
+
+        long volume() {
+            return (long) (maxX - minX) * (maxY - minY) * (maxZ - minZ);
+        }
+
+        // the volume of the box enclosing both this box and the other
+        long enlargedVolume(Box o) {
+            return (long) (Math.max(maxX, o.maxX) - Math.min(minX, o.minX))
+                    * (Math.max(maxY, o.maxY) - Math.min(minY, o.minY))
+                    * (Math.max(maxZ, o.maxZ) - Math.min(minZ, o.minZ));
+        }
+
+        long enlargement(Box o) {
+            return enlargedVolume(o) - volume();
+        }
+
+        void include(Box o) {
+            minX = Math.min(minX, o.minX);
+            minY = Math.min(minY, o.minY);
+            minZ = Math.min(minZ, o.minZ);
+            maxX = Math.max(maxX, o.maxX);
+            maxY = Math.max(maxY, o.maxY);
+            maxZ = Math.max(maxZ, o.maxZ);
+        }
+    }
+
+    private static final class Entry extends Box {
+        final Subplot subplot;
+
+        Entry(Subplot subplot) {
+            this.subplot = subplot;
+            minX = subplot.getBaseX();
+            minY = subplot.getBaseY();
+            minZ = subplot.getBaseZ();
+            maxX = minX + subplot.getXSize();
+            maxY = minY + subplot.getYSize();
+            maxZ = minZ + subplot.getZSize();
+        }
+    }
+
+    private static final class Node extends Box {
+        // whether the children are entries rather than nodes
+        final boolean leaf;
+        // one extra slot so that a node can overflow before it is split
+        final Box[] children = new Box[MAX_ENTRIES + 1];
+        int count;
+        Node parent;
+
+        Node(boolean leaf) {
+            this.leaf = leaf;
+        }
+
+        void add(Box child) {
+            children[count++] = child;
+            if (child instanceof Node) {
+                ((Node) child).parent = this;
+            }
+        }
+
+        void remove(Box child) {
+            for (int i = 0; i < count; i++) {
+                if (children[i] == child) {
+                    removeAt(i);
+                    return;
+                }
+            }
+        }
+
+        void removeAt(int index) {
+            children[index] = children[--count];
+            children[count] = null;
+        }
+
+        void clear() {
+            Arrays.fill(children, null);
+            count = 0;
+        }
+
+        void recalculate() {
+            if (count == 0) {
+                minX = minY = minZ = maxX = maxY = maxZ = 0;
+                return;
+            }
+
+            Box first = children[0];
+            minX = first.minX;
+            minY = first.minY;
+            minZ = first.minZ;
+            maxX = first.maxX;
+            maxY = first.maxY;
+            maxZ = first.maxZ;
+            for (int i = 1; i < count; i++) {
+                include(children[i]);
+            }
+        }
+    }
+}
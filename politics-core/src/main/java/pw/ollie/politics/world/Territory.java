@@ -0,0 +1,290 @@
+/*
+ * This file is part of Politics.
+ *
+ * Copyright (c) 2019 Oliver Stanley
+ * Politics is licensed under the Affero General Public License Version 3.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pw.ollie.politics.world;
+
+import gnu.trove.list.TLongList;
+import gnu.trove.list.array.TLongArrayList;
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.TLongLongMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import gnu.trove.map.hash.TLongLongHashMap;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+
+import pw.ollie.politics.util.math.GeometryUtil;
+
+/**
+ * The chunks owned by a single group within a world, along with the connected components they form. Chunks are
+ * connected if they share an edge.
+ * <p>
+ * Components are tracked with a union-find structure, which is updated incrementally as chunks are added. Removing a
+ * chunk is also incremental unless it may split its component, which is checked from the eight chunks around it. In
+ * that case the components are rebuilt the next time they are needed.
+ */
+final class Territory {
+    // offsets of the chunks around a chunk, in order around it, so that consecutive chunks share an edge
+    // chunks at even indices share an edge with the centre chunk
+    private static final int[] RING_X = {0, 1, 1, 1, 0, -1, -1, -1};
+    private static final int[] RING_Z = {-1, -1, 0, 1, 1, 1, 0, -1};
+
+    private final TLongSet chunks = new TLongHashSet();
+    // union-find parent of each chunk, including removed chunks which are still linked to by others
+    private final TLongLongMap parents = new TLongLongHashMap();
+    // number of owned chunks in each component, keyed by the root of the component
+    private final TLongIntMap sizes = new TLongIntHashMap();
+
+    private int components;
+    // number of removed chunks still in the union-find structure
+    private int removed;
+    // whether the components must be rebuilt before they are next used
+    private boolean stale;
+
+    TLongSet getChunks() {
+        return chunks;
+    }
+
+    int size() {
+        return chunks.size();
+    }
+
+    boolean isEmpty() {
+        return chunks.isEmpty();
+    }
+
+    void add(long key) {
+        if (!chunks.add(key) || stale) {
+            return;
+        }
+
+        if (parents.containsKey(key)) {
+            // the chunk was removed before and may still be linked to its old component
+            stale = true;
+            return;
+        }
+        link(key);
+    }
+
+    void remove(long key) {
+        if (!chunks.remove(key) || stale) {
+            return;
+        }
+
+        if (countLinkedRuns(key) > 1) {
+            // the remaining neighbours are not connected around the chunk, so the component may be split
+            stale = true;
+            return;
+        }
+
+        long root = find(key);
+        int size = sizes.get(root) - 1;
+        if (size == 0) {
+            sizes.remove(root);
+            components--;
+        } else {
+            sizes.put(root, size);
+        }
+
+        // removed chunks are kept in the structure until there are more of them than owned chunks
+        if (++removed > chunks.size()) {
+            stale = true;
+        }
+    }
+
+    /**
+     * Checks whether the chunk with the given key shares an edge with a chunk of this territory.
+     */
+    boolean isAdjacent(long key) {
+        int x = GeometryUtil.getChunkKeyX(key);
+        int z = GeometryUtil.getChunkKeyZ(key);
+        for (int i = 0; i < RING_X.length; i += 2) {
+            if (chunks.contains(GeometryUtil.toChunkKey(x + RING_X[i], z + RING_Z[i]))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int getNumComponents() {
+        refresh();
+        return components;
+    }
+
+    /**
+     * Gets the number of chunks in the component containing the chunk with the given key, or 0 if it is not owned.
+     */
+    int getComponentSize(long key) {
+        if (!chunks.contains(key)) {
+            return 0;
+        }
+        refresh();
+        return sizes.get(find(key));
+    }
+
+    boolean isConnected(long first, long second) {
+        if (!chunks.contains(first) || !chunks.contains(second)) {
+            return false;
+        }
+        refresh();
+        return find(first) == find(second);
+    }
+
+    /**
+     * Checks whether removing the chunk with the given key would split the component containing it.
+     * <p>
+     * This is answered from the eight chunks around it unless its neighbours are only connected elsewhere, in which
+     * case the component is searched.
+     */
+    boolean wouldDisconnect(long key) {
+        if (!chunks.contains(key) || countLinkedRuns(key) <= 1) {
+            return false;
+        }
+
+        int x = GeometryUtil.getChunkKeyX(key);
+        int z = GeometryUtil.getChunkKeyZ(key);
+        TLongSet targets = new TLongHashSet();
+        for (int i = 0; i < RING_X.length; i += 2) {
+            long neighbour = GeometryUtil.toChunkKey(x + RING_X[i], z + RING_Z[i]);
+            if (chunks.contains(neighbour)) {
+                targets.add(neighbour);
+            }
+        }
+
+        // search from one neighbour until all others are reached, without passing through the removed chunk
+        long start = targets.iterator().next();
+        targets.remove(start);
+        TLongSet visited = new TLongHashSet();
+        TLongList queue = new TLongArrayList();
+        visited.add(key);
+        visited.add(start);
+        queue.add(start);
+        for (int head = 0; head < queue.size(); head++) {
+            long current = queue.get(head);
+            int cx = GeometryUtil.getChunkKeyX(current);
+            int cz = GeometryUtil.getChunkKeyZ(current);
+            for (int i = 0; i < RING_X.length; i += 2) {
+                long next = GeometryUtil.toChunkKey(cx + RING_X[i], cz + RING_Z[i]);
+                if (chunks.contains(next) && visited.add(next)) {
+                    if (targets.remove(next) && targets.isEmpty()) {
+                        return false;
+                    }
+                    queue.add(next);
+                }
+            }
+        }
+        return true;
+    }
+
+    // counts the runs of owned chunks around the chunk with the given key which include a neighbour sharing its edge
+    private int countLinkedRuns(long key) {
+        int x = GeometryUtil.getChunkKeyX(key);
+        int z = GeometryUtil.getChunkKeyZ(key);
+        boolean[] owned = new boolean[RING_X.length];
+        int start = -1;
+        for (int i = 0; i < RING_X.length; i++) {
+            owned[i] = chunks.contains(GeometryUtil.toChunkKey(x + RING_X[i], z + RING_Z[i]));
+            if (!owned[i]) {
+                start = i;
+            }
+        }
+        if (start == -1) {
+            return 1;
+        }
+
+        int runs = 0;
+        boolean linked = false;
+        for (int step = 1; step <= RING_X.length; step++) {
+            int i = (start + step) % RING_X.length;
+            if (owned[i]) {
+                linked |= i % 2 == 0;
+            } else {
+                if (linked) {
+                    runs++;
+                }
+                linked = false;
+            }
+        }
+        return runs;
+    }
+
+    private void refresh() {
+        if (!stale) {
+            return;
+        }
+
+        parents.clear();
+        sizes.clear();
+        components = 0;
+        removed = 0;
+        chunks.forEach(key -> {
+            link(key);
+            return true;
+        });
+        stale = false;
+    }
+
+    // adds the given owned chunk as a new component, merging it with the components of its neighbours
+    private void link(long key) {
+        parents.put(key, key);
+        sizes.put(key, 1);
+        components++;
+
+        int x = GeometryUtil.getChunkKeyX(key);
+        int z = GeometryUtil.getChunkKeyZ(key);
+        for (int i = 0; i < RING_X.length; i += 2) {
+            long neighbour = GeometryUtil.toChunkKey(x + RING_X[i], z + RING_Z[i]);
+            if (chunks.contains(neighbour) && parents.containsKey(neighbour) && union(key, neighbour)) {
+                components--;
+            }
+        }
+    }
+
+    private boolean union(long first, long second) {
+        long firstRoot = find(first);
+        long secondRoot = find(second);
+        if (firstRoot == secondRoot) {
+            return false;
+        }
+
+        int firstSize = sizes.get(firstRoot);
+        int secondSize = sizes.get(secondRoot);
+        if (firstSize < secondSize) {
+            long swap = firstRoot;
+            firstRoot = secondRoot;
+            secondRoot = swap;
+        }
+        parents.put(secondRoot, firstRoot);
+        sizes.put(firstRoot, firstSize + secondSize);
+        sizes.remove(secondRoot);
+        return true;
+    }
+
+    private long find(long key) {
+        // path halving
+        while (true) {
+            long parent = parents.get(key);
+            if (parent == key) {
+                return key;
+            }
+            long grandparent = parents.get(parent);
+            parents.put(key, grandparent);
+            key = grandparent;
+        }
+    }
+}
@@ -38,6 +38,9 @@ public final class WorldConfig {
 
     // plot settings
     private final boolean plots;
+    private final boolean lazyLoading;
+    private final boolean explosionProtection;
+    private final boolean fireProtection;
 
     // subplot settings
     private final boolean subplots;
@@ -54,8 +57,25 @@ public final class WorldConfig {
      * @param subplots whether subplots are enabled in the world
      */
     WorldConfig(String name, boolean plots, boolean subplots, Map<String, String> stringSettings, Map<String, List<String>> listSettings) {
+        this(name, plots, false, true, true, subplots, stringSettings, listSettings);
+    }
+
+    /**
+     * Constructs a new configuration for a world with the given name.
+     *
+     * @param name                the world name for this configuration
+     * @param plots               whether plots are enabled in the world
+     * @param lazyLoading         whether plots are only loaded for regions with loaded chunks
+     * @param explosionProtection whether explosions are prevented from destroying blocks in owned plots
+     * @param fireProtection      whether fire is prevented from spreading into and burning blocks in owned plots
+     * @param subplots            whether subplots are enabled in the world
+     */
+    WorldConfig(String name, boolean plots, boolean lazyLoading, boolean explosionProtection, boolean fireProtection, boolean subplots, Map<String, String> stringSettings, Map<String, List<String>> listSettings) {
         this.name = name;
         this.plots = plots;
+        this.lazyLoading = lazyLoading;
+        this.explosionProtection = explosionProtection;
+        this.fireProtection = fireProtection;
         this.subplots = subplots;
         this.stringSettings = stringSettings;
         this.listSettings = listSettings;
@@ -79,6 +99,36 @@ public final class WorldConfig {
         return plots;
     }
 
+    /**
+     * Gets whether plots in this world are loaded lazily. If so, the plots of a region are only held in memory while
+     * chunks within the region are loaded, and the owner of each plot is kept in a compact summary otherwise.
+     *
+     * @return whether plots are loaded lazily
+     */
+    public boolean isLazyLoading() {
+        return lazyLoading;
+    }
+
+    /**
+     * Gets whether explosions are prevented from destroying blocks in owned plots, unless they originate from a plot
+     * with the same owner.
+     *
+     * @return whether plots are protected from explosions
+     */
+    public boolean hasExplosionProtection() {
+        return explosionProtection;
+    }
+
+    /**
+     * Gets whether fire is prevented from spreading into, and burning blocks in, owned plots, unless it comes from a
+     * plot with the same owner. Players setting fire to blocks are always subject to plot privileges.
+     *
+     * @return whether plots are protected from fire
+     */
+    public boolean hasFireProtection() {
+        return fireProtection;
+    }
+
     /**
      * Gets whether this world config allows subplots.
      *
@@ -117,6 +167,9 @@ public final class WorldConfig {
     public void save(ConfigurationSection config) {
         ConfigurationSection plotsSection = ConfigUtil.getOrCreateSection(config, "plots");
         plotsSection.set("enabled", plots);
+        plotsSection.set("lazy-loading", lazyLoading);
+        plotsSection.set("explosion-protection", explosionProtection);
+        plotsSection.set("fire-protection", fireProtection);
 
         {
             ConfigurationSection subplotsSection = ConfigUtil.getOrCreateSection(plotsSection, "subplots");
@@ -134,6 +187,9 @@ public final class WorldConfig {
     public static WorldConfig load(String name, ConfigurationSection config) {
         ConfigurationSection plotsSection = ConfigUtil.getOrCreateSection(config, "plots");
         boolean plots = plotsSection.getBoolean("enabled", true);
+        boolean lazyLoading = plotsSection.getBoolean("lazy-loading", false);
+        boolean explosionProtection = plotsSection.getBoolean("explosion-protection", true);
+        boolean fireProtection = plotsSection.getBoolean("fire-protection", true);
 
         ConfigurationSection subplotsSection = ConfigUtil.getOrCreateSection(plotsSection, "subplots");
         boolean subplots = plots && subplotsSection.getBoolean("enabled", true);
@@ -141,7 +197,7 @@ public final class WorldConfig {
         Map<String, String> stringSettings = searchSectionRecursiveStrings("", config);
         Map<String, List<String>> listSettings = searchSectionRecursiveLists("", config);
 
-        return new WorldConfig(name, plots, subplots, stringSettings, listSettings);
+        return new WorldConfig(name, plots, lazyLoading, explosionProtection, fireProtection, subplots, stringSettings, listSettings);
     }
 
     private static Map<String, String> searchSectionRecursiveStrings(String nodePrefix, ConfigurationSection section) {
@@ -19,44 +19,71 @@
  */
 package pw.ollie.politics.world;
 
+import gnu.trove.list.TLongList;
+import gnu.trove.list.array.TLongArrayList;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.TLongIntMap;
 import gnu.trove.map.hash.THashMap;
+import gnu.trove.map.hash.TLongIntHashMap;
 
 import pw.ollie.politics.Politics;
 import pw.ollie.politics.PoliticsPlugin;
-import pw.ollie.politics.util.FileUtil;
+import pw.ollie.politics.data.GenerationTracker;
+import pw.ollie.politics.data.PoliticsBootstrap;
+import pw.ollie.politics.data.SavePipeline;
+import pw.ollie.politics.data.StreamingBSONCallback;
+import pw.ollie.politics.event.PoliticsEventFactory;
+import pw.ollie.politics.event.group.GroupAreaClaimEvent;
+import pw.ollie.politics.event.group.GroupAreaUnclaimEvent;
+import pw.ollie.politics.group.Group;
+import pw.ollie.politics.util.math.GeometryUtil;
 import pw.ollie.politics.util.math.Position;
 import pw.ollie.politics.world.plot.Plot;
 import pw.ollie.politics.world.plot.PlotProtectionListener;
 
-import org.bson.BSONEncoder;
 import org.bson.BSONObject;
-import org.bson.BasicBSONDecoder;
-import org.bson.BasicBSONEncoder;
 import org.bson.BasicBSONObject;
 
 import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.World;
+import org.bukkit.command.CommandSender;
 import org.bukkit.configuration.file.YamlConfiguration;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.UUID;
 import java.util.logging.Level;
 
 /**
  * Stores, manages, and provides access to configuration and data for worlds in Politics.
  */
 public final class WorldManager {
+    /**
+     * The maximum number of chunks which may be claimed or unclaimed as a single area.
+     */
+    public static final int MAX_AREA_CHUNKS = 1 << 16;
+    // region files of a legacy world are written to <world>.migrating and moved into place once all are written
+    private static final String MIGRATION_DIR_SUFFIX = ".migrating";
+
     private final PoliticsPlugin plugin;
+    private final GenerationTracker<String> savedWorlds;
 
     private Map<String, WorldConfig> configs;
     private Map<String, PoliticsWorld> worlds;
+    private PlotProtectionListener protectionListener;
 
     public WorldManager(PoliticsPlugin plugin) {
         this.plugin = plugin;
+        this.savedWorlds = new GenerationTracker<>();
     }
 
     /**
@@ -142,7 +169,8 @@ public final class WorldManager {
      * @return the Plot at the given Location
      */
     public Plot getPlotAt(Location position) {
-        return getPlotAtChunkPosition(position.getWorld(), position.getChunk().getX(), position.getChunk().getZ());
+        // avoid Location#getChunk, which loads the chunk
+        return getPlotAtChunkPosition(position.getWorld(), position.getBlockX() >> 4, position.getBlockZ() >> 4);
     }
 
     /**
@@ -155,12 +183,89 @@ public final class WorldManager {
         return getPlotAt(position.toLocation());
     }
 
+    // area claims
+
+    /**
+     * Claims every chunk in the given rectangle of chunk coordinates, inclusive, for the given {@link Group}.
+     * <p>
+     * The claim is all-or-nothing: if any chunk in the area is owned by another Group, no chunks are claimed. Chunks
+     * already owned by the Group are left as they are. A single {@link GroupAreaClaimEvent} is called for the area,
+     * in place of an event for each {@link Plot}, and no chunks are claimed if it is cancelled.
+     *
+     * @param group   the Group to claim the area for
+     * @param world   the world of the area
+     * @param minX    the minimum chunk x coordinate
+     * @param minZ    the minimum chunk z coordinate
+     * @param maxX    the maximum chunk x coordinate
+     * @param maxZ    the maximum chunk z coordinate
+     * @param claimer the source of the claim
+     * @return the result of the claim
+     */
+    public AreaClaimResult claimArea(Group group, World world, int minX, int minZ, int maxX, int maxZ, CommandSender claimer) {
+        return changeAreaOwner(group, getWorld(world), getRectangle(minX, minZ, maxX, maxZ), claimer, true);
+    }
+
+    /**
+     * Claims every chunk within the given radius, in chunks, of the given chunk for the given {@link Group}, as
+     * described by {@link #claimArea(Group, World, int, int, int, int, CommandSender)}.
+     *
+     * @param group   the Group to claim the area for
+     * @param world   the world of the area
+     * @param centreX the chunk x coordinate of the centre of the area
+     * @param centreZ the chunk z coordinate of the centre of the area
+     * @param radius  the radius of the area in chunks
+     * @param claimer the source of the claim
+     * @return the result of the claim
+     */
+    public AreaClaimResult claimRadius(Group group, World world, int centreX, int centreZ, int radius, CommandSender claimer) {
+        return changeAreaOwner(group, getWorld(world), getCircle(centreX, centreZ, radius), claimer, true);
+    }
+
+    /**
+     * Unclaims every chunk owned by the given {@link Group} in the given rectangle of chunk coordinates, inclusive.
+     * Chunks not owned by the Group are left as they are.
+     * <p>
+     * A single {@link GroupAreaUnclaimEvent} is called for the area, in place of an event for each {@link Plot}, and
+     * no chunks are unclaimed if it is cancelled.
+     *
+     * @param group     the Group to unclaim the area for
+     * @param world     the world of the area
+     * @param minX      the minimum chunk x coordinate
+     * @param minZ      the minimum chunk z coordinate
+     * @param maxX      the maximum chunk x coordinate
+     * @param maxZ      the maximum chunk z coordinate
+     * @param unclaimer the source of the unclaim
+     * @return the result of the unclaim
+     */
+    public AreaClaimResult unclaimArea(Group group, World world, int minX, int minZ, int maxX, int maxZ, CommandSender unclaimer) {
+        return changeAreaOwner(group, getWorld(world), getRectangle(minX, minZ, maxX, maxZ), unclaimer, false);
+    }
+
+    /**
+     * Unclaims every chunk owned by the given {@link Group} within the given radius, in chunks, of the given chunk, as
+     * described by {@link #unclaimArea(Group, World, int, int, int, int, CommandSender)}.
+     *
+     * @param group     the Group to unclaim the area for
+     * @param world     the world of the area
+     * @param centreX   the chunk x coordinate of the centre of the area
+     * @param centreZ   the chunk z coordinate of the centre of the area
+     * @param radius    the radius of the area in chunks
+     * @param unclaimer the source of the unclaim
+     * @return the result of the unclaim
+     */
+    public AreaClaimResult unclaimRadius(Group group, World world, int centreX, int centreZ, int radius, CommandSender unclaimer) {
+        return changeAreaOwner(group, getWorld(world), getCircle(centreX, centreZ, radius), unclaimer, false);
+    }
+
     // loading and storage
 
     /**
-     * Loads world configurations from their configuration files.
+     * Loads world configurations from their configuration files, which are parsed concurrently by the given
+     * {@link PoliticsBootstrap}.
+     *
+     * @param bootstrap the bootstrap to read configuration files with
      */
-    public void loadWorldConfigs() {
+    public void loadWorldConfigs(PoliticsBootstrap bootstrap) {
         for (World world : plugin.getServer().getWorlds()) {
             File worldFile = new File(plugin.getFileSystem().getWorldConfigDir(), world.getName() + ".yml");
             if (worldFile.exists()) {
@@ -177,83 +282,358 @@ public final class WorldManager {
             }
         }
 
-        configs = new THashMap<>();
+        List<File> configFiles = new ArrayList<>();
         for (File file : Objects.requireNonNull(plugin.getFileSystem().getWorldConfigDir().listFiles())) {
             String fileName = file.getName();
-            if (!fileName.endsWith(".yml") || fileName.length() <= 4) {
-                continue;
+            if (fileName.endsWith(".yml") && fileName.length() > 4) {
+                configFiles.add(file);
             }
-
-            String name = fileName.substring(0, fileName.length() - 4);
-            YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
-            WorldConfig wc = WorldConfig.load(name, config);
-
-            configs.put(name, wc);
         }
+
+        configs = new THashMap<>();
+        bootstrap.readAll(configFiles, file -> {
+            String fileName = file.getName();
+            return WorldConfig.load(fileName.substring(0, fileName.length() - 4), YamlConfiguration.loadConfiguration(file));
+        }).values().forEach(wc -> configs.put(wc.getName(), wc));
     }
 
     /**
-     * Loads world data from their data files.
+     * Loads world data from their region files, which are read and decoded concurrently by the given
+     * {@link PoliticsBootstrap}. The decoded {@link Plot}s of each region are added to their worlds on the calling
+     * thread as soon as the region is read, so that the decoded data of every region is not held at once.
+     * <p>
+     * For worlds which are loaded lazily, only the owners of stored Plots are read, and the Plots of each region are
+     * loaded when chunks within the region are loaded.
+     * <p>
+     * Worlds stored in the legacy single-file format are migrated to region files as they are loaded.
+     *
+     * @param bootstrap the bootstrap to read region files with
      */
-    public void loadWorlds() {
-        BasicBSONDecoder decoder = new BasicBSONDecoder();
+    public void loadWorlds(PoliticsBootstrap bootstrap) {
         worlds = new THashMap<>();
 
-        for (File file : Objects.requireNonNull(plugin.getFileSystem().getWorldsDir().listFiles())) {
-            String fileName = file.getName();
-            if (!fileName.endsWith(".ptw") || fileName.length() <= 4) {
+        File[] files = Objects.requireNonNull(plugin.getFileSystem().getWorldsDir().listFiles());
+        Arrays.sort(files);
+
+        List<File> worldDirs = new ArrayList<>();
+        for (File file : files) {
+            if (!file.isDirectory()) {
                 continue;
             }
+            if (file.getName().endsWith(MIGRATION_DIR_SUFFIX)) {
+                // left by a migration which did not finish, the legacy file is still in place and is migrated again
+                deleteDirectory(file);
+            } else {
+                worldDirs.add(file);
+            }
+        }
+
+        List<File> regionFiles = new ArrayList<>();
+        List<File> lazyRegionFiles = new ArrayList<>();
+        for (File worldDir : worldDirs) {
+            boolean lazy = getWorldConfig(worldDir.getName()).isLazyLoading();
+            for (File regionFile : Objects.requireNonNull(worldDir.listFiles())) {
+                if (RegionFile.parseFileName(regionFile.getName()) != null) {
+                    (lazy ? lazyRegionFiles : regionFiles).add(regionFile);
+                }
+            }
+        }
 
-            String worldName = fileName.substring(0, fileName.length() - 4);
+        for (File worldDir : worldDirs) {
+            String worldName = worldDir.getName();
+            PoliticsWorld world = new PoliticsWorld(worldName, getWorldConfig(worldName));
+            worlds.put(worldName, world);
+        }
 
-            byte[] data;
-            try {
-                data = Files.readAllBytes(file.toPath());
-            } catch (IOException ex) {
-                plugin.getLogger().log(Level.SEVERE, "Could not read world file `" + fileName + "'!", ex);
-                continue;
+        // regions are linked as soon as they are read, in file name order, so plots are always added in the same order
+        // and only the regions being read ahead are held at once
+        bootstrap.readEach(regionFiles, file -> {
+            List<BasicBSONObject> plots = new ArrayList<>();
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(file.toPath()))) {
+                RegionFile.read(in, plots::add);
+            }
+            return plots;
+        }, (regionFile, plots) -> {
+            PoliticsWorld world = worlds.get(regionFile.getParentFile().getName());
+            plots.forEach(world::loadPlot);
+        });
+        bootstrap.readEach(lazyRegionFiles, file -> {
+            TLongIntMap owners = new TLongIntHashMap();
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(file.toPath()))) {
+                RegionFile.readOwners(in, RegionFile.parseFileName(file.getName()), (chunkKey, owner) -> {
+                    owners.put(chunkKey, owner);
+                    return true;
+                });
             }
+            return owners;
+        }, (regionFile, owners) -> worlds.get(regionFile.getParentFile().getName()).loadOwners(owners));
+        worlds.values().forEach(world -> savedWorlds.markSaved(world.getName(), world.getGeneration()));
 
-            WorldConfig config = getWorldConfig(worldName);
-            BSONObject object = decoder.readObject(data);
-            PoliticsWorld world = new PoliticsWorld(worldName, config, (BasicBSONObject) object);
-            worlds.put(world.getName(), world);
+        for (File file : files) {
+            String fileName = file.getName();
+            if (file.isFile() && fileName.endsWith(".ptw") && fileName.length() > 4) {
+                migrateLegacyWorld(file, fileName.substring(0, fileName.length() - 4));
+            }
         }
 
-        plugin.getServer().getPluginManager().registerEvents(new PlotProtectionListener(plugin), plugin);
+        // chunks loaded before the plugin was enabled do not fire load events
+        worlds.values().forEach(this::trackLoadedChunks);
+
+        protectionListener = new PlotProtectionListener(plugin);
+        plugin.getServer().getPluginManager().registerEvents(protectionListener, plugin);
+        plugin.getServer().getPluginManager().registerEvents(new RegionLoadListener(this), plugin);
+    }
+
+    /**
+     * Discards the cached plot protection decisions for the player with the given unique id, so that their privileges
+     * are looked up again when they next act in a {@link Plot}.
+     * <p>
+     * This is called by {@link pw.ollie.politics.group.Group} whenever a player's role changes and does not need to be
+     * called manually.
+     *
+     * @param playerId the unique id of the player
+     */
+    public void invalidateProtection(UUID playerId) {
+        if (protectionListener != null) {
+            protectionListener.invalidatePlayer(playerId);
+        }
     }
 
     /**
-     * Saves world data to data files.
+     * Saves world data to region files. Only worlds and regions which have changed since they were last saved are
+     * written, which happens off the main thread through the {@link SavePipeline}. Regions of lazily loaded worlds
+     * which were only loaded to look up plots are released.
      */
     public void saveWorlds() {
-        BSONEncoder encoder = new BasicBSONEncoder();
-        Politics.getFileSystem().getWorldsDir().mkdirs();
+        worlds.values().stream().filter(PoliticsWorld::shouldStore).forEach(this::saveWorld);
+    }
 
-        worlds.values().stream().filter(PoliticsWorld::shouldStore).forEach(world -> {
-            File worldFile = new File(Politics.getFileSystem().getWorldsDir(), world.getName() + ".ptw");
+    /**
+     * Gets the {@link PoliticsWorld} for the world with the given name, if one is held, without creating it.
+     *
+     * @param name the name of the world
+     * @return the PoliticsWorld for the world, or {@code null} if none is held
+     */
+    PoliticsWorld getLoadedWorld(String name) {
+        return worlds.get(name);
+    }
 
-            try {
-                FileUtil.createBackup(worldFile);
-            } catch (IOException ex) {
-                plugin.getLogger().log(Level.SEVERE, "Could not back up world file for world '" + world.getName() + "'. Data will not be saved...", ex);
-                return;
+    /**
+     * Reads the {@link Plot}s of the region with the given key from its region file into the given world. This is
+     * used to load regions of lazily loaded worlds when they are needed.
+     *
+     * @param world     the world to read the region of
+     * @param regionKey the key of the region to read
+     */
+    void readRegion(PoliticsWorld world, long regionKey) {
+        File regionFile = new File(plugin.getFileSystem().getWorldDir(world.getName()), RegionFile.getFileName(regionKey));
+        if (!regionFile.exists()) {
+            return;
+        }
+
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(regionFile.toPath()))) {
+            RegionFile.read(in, world::loadPlot);
+        } catch (IOException ex) {
+            plugin.getLogger().log(Level.SEVERE, "Could not read region file `" + regionFile.getPath() + "'!", ex);
+        }
+    }
+
+    // internal
+
+    private AreaClaimResult changeAreaOwner(Group group, PoliticsWorld world, TLongList chunks, CommandSender source, boolean claim) {
+        if (!world.getConfig().hasPlots()) {
+            return AreaClaimResult.NO_PLOTS;
+        }
+        if (claim && !group.getUniverse().containsWorld(world)) {
+            return AreaClaimResult.WRONG_UNIVERSE;
+        }
+        if (chunks == null) {
+            return AreaClaimResult.TOO_LARGE;
+        }
+
+        // the area is validated against the owner summary, so no regions are loaded unless the owners can be changed
+        int groupId = group.getUid();
+        TLongList changed = new TLongArrayList();
+        for (int i = 0; i < chunks.size(); i++) {
+            long key = chunks.get(i);
+            int owner = world.getOwnerIdAtChunkPosition(GeometryUtil.getChunkKeyX(key), GeometryUtil.getChunkKeyZ(key));
+            if (claim && owner != -1 && owner != groupId) {
+                return AreaClaimResult.ALREADY_OWNED;
+            }
+            if (claim ? owner == -1 : owner == groupId) {
+                changed.add(key);
+            }
+        }
+        if (changed.isEmpty()) {
+            return AreaClaimResult.NO_CHANGE;
+        }
+
+        List<Plot> plots = new ArrayList<>(changed.size());
+        for (int i = 0; i < changed.size(); i++) {
+            long key = changed.get(i);
+            plots.add(world.getPlotAtChunkPosition(GeometryUtil.getChunkKeyX(key), GeometryUtil.getChunkKeyZ(key)));
+        }
+
+        boolean cancelled = claim
+                ? PoliticsEventFactory.callGroupAreaClaimEvent(group, world, plots, source).isCancelled()
+                : PoliticsEventFactory.callGroupAreaUnclaimEvent(group, world, plots, source).isCancelled();
+        if (cancelled) {
+            return AreaClaimResult.CANCELLED;
+        }
+        // listeners may have changed owners within the area, in which case nothing is changed
+        for (Plot plot : plots) {
+            if (claim ? plot.hasOwner() : !plot.isOwner(groupId)) {
+                return AreaClaimResult.CANCELLED;
             }
+        }
 
-            try {
-                Files.write(worldFile.toPath(), encoder.encode(world.toBSONObject()));
-            } catch (IOException ex) {
-                plugin.getLogger().log(Level.SEVERE, "Could not save world file for `" + world.getName() + "' due to error! Please restore backup...", ex);
+        // the whole area is journalled as one record rather than one for each plot
+        int newOwner = claim ? groupId : -1;
+        for (Plot plot : plots) {
+            plot.restoreOwner(newOwner);
+        }
+        Politics.getJournal().recordAreaOwner(world, changed, newOwner);
+        return AreaClaimResult.SUCCESS;
+    }
+
+    // returns null if the area is too large
+    private static TLongList getRectangle(int minX, int minZ, int maxX, int maxZ) {
+        long width = Math.abs((long) maxX - minX) + 1;
+        long length = Math.abs((long) maxZ - minZ) + 1;
+        if (width * length > MAX_AREA_CHUNKS) {
+            return null;
+        }
+
+        // count rather than compare coordinates, so that areas ending at Integer.MAX_VALUE do not overflow
+        TLongList result = new TLongArrayList((int) (width * length));
+        int startX = Math.min(minX, maxX);
+        int startZ = Math.min(minZ, maxZ);
+        for (int dx = 0; dx < width; dx++) {
+            for (int dz = 0; dz < length; dz++) {
+                result.add(GeometryUtil.toChunkKey(startX + dx, startZ + dz));
             }
-        });
+        }
+        return result;
     }
 
-    // internal
+    // returns null if the area is too large
+    private static TLongList getCircle(int centreX, int centreZ, int radius) {
+        long diameter = 2L * Math.abs(radius) + 1;
+        if (diameter * diameter > MAX_AREA_CHUNKS) {
+            return null;
+        }
+
+        TLongList result = new TLongArrayList();
+        int radiusSquared = radius * radius;
+        for (int dx = -radius; dx <= radius; dx++) {
+            for (int dz = -radius; dz <= radius; dz++) {
+                if (dx * dx + dz * dz <= radiusSquared) {
+                    result.add(GeometryUtil.toChunkKey(centreX + dx, centreZ + dz));
+                }
+            }
+        }
+        return result;
+    }
+
+    private void trackLoadedChunks(PoliticsWorld world) {
+        World bukkitWorld = world.getWorld();
+        if (!world.getConfig().isLazyLoading() || bukkitWorld == null) {
+            return;
+        }
+
+        for (Chunk chunk : bukkitWorld.getLoadedChunks()) {
+            world.onChunkLoad(chunk.getX(), chunk.getZ());
+        }
+    }
+
+    private void migrateLegacyWorld(File file, String worldName) {
+        if (worlds.containsKey(worldName)) {
+            // region files are only moved into place once all of them are written, so the world was fully migrated
+            // before the legacy file could be renamed
+            retireLegacyWorld(file);
+            return;
+        }
+
+        // plots are built as they are decoded, rather than decoding the whole file first
+        PoliticsWorld world = new PoliticsWorld(worldName, getWorldConfig(worldName));
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file.toPath()))) {
+            StreamingBSONCallback.decode(in, "plots", (root, plotObj) -> world.loadPlot(plotObj));
+        } catch (IOException ex) {
+            plugin.getLogger().log(Level.SEVERE, "Could not read world file `" + file.getName() + "'!", ex);
+            return;
+        }
+        worlds.put(world.getName(), world);
+
+        // a crash before the region files are moved into place leaves the legacy file to be migrated again
+        File worldDir = plugin.getFileSystem().getWorldDir(worldName);
+        File migrationDir = new File(worldDir.getParentFile(), worldName + MIGRATION_DIR_SUFFIX);
+        migrationDir.mkdirs();
+        world.markAllRegionsDirty();
+        long generation = world.getGeneration();
+        writeRegions(world, migrationDir);
+        plugin.getSavePipeline().flush();
+        if (world.getDirtyRegions().length > 0 || !migrationDir.renameTo(worldDir)) {
+            plugin.getLogger().log(Level.SEVERE, "Could not migrate all of legacy world file `" + file.getName() + "' to region files, the world will be written on the next save.");
+            deleteDirectory(migrationDir);
+            world.markAllRegionsDirty();
+            return;
+        }
+        savedWorlds.markSaved(world.getName(), generation);
+        retireLegacyWorld(file);
+    }
+
+    private void retireLegacyWorld(File file) {
+        if (!file.renameTo(new File(file.getParentFile(), file.getName() + ".migrated"))) {
+            plugin.getLogger().log(Level.WARNING, "Could not rename legacy world file `" + file.getName() + "' after migrating it to region files.");
+        }
+    }
+
+    private void saveWorld(PoliticsWorld world) {
+        // regions loaded only by lookups are never marked as changed, so they are released here instead
+        world.evictIdleRegions();
+
+        long generation = world.getGeneration();
+        if (!savedWorlds.hasChanged(world.getName(), generation)) {
+            return;
+        }
+
+        writeRegions(world, plugin.getFileSystem().getWorldDir(world.getName()));
+        savedWorlds.markSaved(world.getName(), generation);
+    }
+
+    // submits the changed regions of the world to be written to region files in the given directory
+    private void writeRegions(PoliticsWorld world, File dir) {
+        SavePipeline pipeline = plugin.getSavePipeline();
+        for (long regionKey : world.getDirtyRegions()) {
+            File regionFile = new File(dir, RegionFile.getFileName(regionKey));
+            TIntObjectMap<BSONObject> plots = world.getRegionPlots(regionKey);
+            world.startSavingRegion(regionKey);
+
+            SavePipeline.Callback callback = success -> world.finishSavingRegion(regionKey, success);
+            if (plots.isEmpty()) {
+                pipeline.delete(regionFile, callback);
+            } else {
+                pipeline.write(regionFile, () -> RegionFile.encode(plots), callback);
+            }
+        }
+    }
+
+    private void deleteDirectory(File dir) {
+        File[] contents = dir.listFiles();
+        if (contents != null) {
+            for (File file : contents) {
+                if (!file.delete()) {
+                    plugin.getLogger().log(Level.WARNING, "Could not delete `" + file.getPath() + "'.");
+                }
+            }
+        }
+        dir.delete();
+    }
 
     private PoliticsWorld createWorld(String name) {
         PoliticsWorld world = new PoliticsWorld(name, getWorldConfig(name));
         worlds.put(name, world);
+        trackLoadedChunks(world);
         return world;
     }
 
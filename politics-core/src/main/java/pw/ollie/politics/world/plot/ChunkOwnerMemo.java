@@ -0,0 +1,117 @@
+/*
+ * This file is part of Politics.
+ *
+ * Copyright (c) 2019 Oliver Stanley
+ * Politics is licensed under the Affero General Public License Version 3.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pw.ollie.politics.world.plot;
+
+import gnu.trove.impl.Constants;
+import gnu.trove.map.TLongLongMap;
+import gnu.trove.map.hash.TLongLongHashMap;
+
+import pw.ollie.politics.util.math.Cuboid;
+import pw.ollie.politics.util.math.GeometryUtil;
+import pw.ollie.politics.world.PoliticsWorld;
+
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Remembers the owner of chunks, and whether any {@link Subplot}s intersect them, for the rest of the current server
+ * tick. This bounds the lookups made by frequent block events, such as fire spreading through a forest, to one for each
+ * chunk involved in a tick.
+ * <p>
+ * Answers are discarded at the start of the next tick, and answers for chunks whose owner or subplots change within the
+ * tick are discarded as the change is made.
+ */
+final class ChunkOwnerMemo {
+    private static final long UNKNOWN = Long.MIN_VALUE;
+
+    private final Plugin plugin;
+    // owner ids shifted left by one, with the lowest bit set if subplots intersect the chunk, keyed by chunk key
+    private final TLongLongMap states = new TLongLongHashMap(Constants.DEFAULT_CAPACITY, Constants.DEFAULT_LOAD_FACTOR, UNKNOWN, UNKNOWN);
+    // the world the answers are for, as events within a tick are usually all in the same world
+    private PoliticsWorld world;
+    private boolean clearScheduled;
+
+    ChunkOwnerMemo(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    int getOwnerId(PoliticsWorld world, int chunkX, int chunkZ) {
+        return (int) (getState(world, chunkX, chunkZ) >> 1);
+    }
+
+    boolean hasSubplots(PoliticsWorld world, int chunkX, int chunkZ) {
+        return (getState(world, chunkX, chunkZ) & 1) != 0;
+    }
+
+    void invalidateChunk(PoliticsWorld world, int chunkX, int chunkZ) {
+        if (this.world == world) {
+            states.remove(GeometryUtil.toChunkKey(chunkX, chunkZ));
+        }
+    }
+
+    // invalidates the chunks covered by blocks in the given ranges, with the maximums exclusive
+    void invalidateArea(PoliticsWorld world, int minX, int minZ, int maxX, int maxZ) {
+        if (this.world != world) {
+            return;
+        }
+        for (int chunkX = minX >> 4; chunkX <= (maxX - 1) >> 4; chunkX++) {
+            for (int chunkZ = minZ >> 4; chunkZ <= (maxZ - 1) >> 4; chunkZ++) {
+                states.remove(GeometryUtil.toChunkKey(chunkX, chunkZ));
+            }
+        }
+    }
+
+    void invalidatePlots(PoliticsWorld world, Iterable<Plot> plots) {
+        if (this.world != world) {
+            return;
+        }
+        for (Plot plot : plots) {
+            states.remove(GeometryUtil.toChunkKey(plot.getX(), plot.getZ()));
+        }
+    }
+
+    private long getState(PoliticsWorld world, int chunkX, int chunkZ) {
+        if (!clearScheduled) {
+            plugin.getServer().getScheduler().runTask(plugin, this::clear);
+            clearScheduled = true;
+        }
+        if (this.world != world) {
+            states.clear();
+            this.world = world;
+        }
+
+        long key = GeometryUtil.toChunkKey(chunkX, chunkZ);
+        long state = states.get(key);
+        if (state == UNKNOWN) {
+            int owner = world.getOwnerIdAtChunkPosition(chunkX, chunkZ);
+            // unowned chunks never contain subplots
+            boolean subplots = owner != -1 && world.getConfig().hasSubplots() && world.hasIntersectingSubplot(
+                    new Cuboid(world.getWorld(), chunkX << 4, 0, chunkZ << 4, 16, 256, 16));
+            state = ((long) owner << 1) | (subplots ? 1 : 0);
+            states.put(key, state);
+        }
+        return state;
+    }
+
+    private void clear() {
+        states.clear();
+        world = null;
+        clearScheduled = false;
+    }
+}
@@ -23,6 +23,7 @@ import gnu.trove.map.TIntObjectMap;
 import gnu.trove.map.hash.TIntObjectHashMap;
 
 import pw.ollie.politics.Politics;
+import pw.ollie.politics.data.GenerationTracker;
 import pw.ollie.politics.data.Storable;
 import pw.ollie.politics.event.PoliticsEventFactory;
 import pw.ollie.politics.event.plot.PlotOwnerChangeEvent;
@@ -33,6 +34,7 @@ import pw.ollie.politics.group.privilege.Privilege;
 import pw.ollie.politics.group.privilege.PrivilegeType;
 import pw.ollie.politics.group.privilege.Privileges;
 import pw.ollie.politics.util.math.Cuboid;
+import pw.ollie.politics.util.math.GeometryUtil;
 import pw.ollie.politics.util.math.Position;
 import pw.ollie.politics.util.stream.CollectorUtil;
 import pw.ollie.politics.world.PoliticsWorld;
@@ -43,7 +45,6 @@ import org.bson.types.BasicBSONList;
 
 import org.bukkit.Chunk;
 import org.bukkit.Location;
-import org.bukkit.World;
 import org.bukkit.entity.Player;
 
 import java.util.ArrayList;
@@ -59,38 +60,43 @@ import java.util.stream.Stream;
  */
 public final class Plot implements Storable, ProtectedRegionCuboid {
     private final PoliticsWorld world;
-    private final Chunk chunk;
+    private final int x;
+    private final int z;
     private final int baseX;
     private final int baseZ;
     private final TIntObjectMap<Subplot> subplots;
+    private final SubplotIdAllocator subplotIds;
 
     private int owner;
+    private long generation;
 
     public Plot(PoliticsWorld world, int x, int z) {
         this.world = world;
+        this.x = x;
+        this.z = z;
         this.owner = -1;
         this.subplots = new TIntObjectHashMap<>();
 
-        World bukkitWorld = world.getWorld();
-        chunk = bukkitWorld.getChunkAt(x, z);
-
         baseX = x * 16;
         baseZ = z * 16;
+        subplotIds = new SubplotIdAllocator();
     }
 
     public Plot(BasicBSONObject bObj) {
-        world = Politics.getWorld(bObj.getString("world", null));
-        owner = bObj.getInt("owner", -1);
+        this(Politics.getWorld(bObj.getString("world", null)), bObj);
+    }
 
-        subplots = new TIntObjectHashMap<>();
-        if (bObj.containsField("subplots")) {
-            BasicBSONList subplotsList = (BasicBSONList) bObj.get("subplots");
-            for (Object element : subplotsList) {
-                BasicBSONObject subplotBson = (BasicBSONObject) element;
-                Subplot subplot = new Subplot(subplotBson);
-                subplots.put(subplot.getId(), subplot);
-            }
-        }
+    /**
+     * Constructs a Plot from its stored representation, within the given {@link PoliticsWorld}.
+     * <p>
+     * This does not load the Bukkit {@link Chunk} of the Plot.
+     *
+     * @param world the world the Plot is within
+     * @param bObj  the stored representation of the Plot
+     */
+    public Plot(PoliticsWorld world, BasicBSONObject bObj) {
+        this.world = world;
+        owner = bObj.getInt("owner", -1);
 
         Object x = bObj.get("x");
         Object z = bObj.get("z");
@@ -100,14 +106,27 @@ public final class Plot implements Storable, ProtectedRegionCuboid {
         if (!(z instanceof Integer)) {
             throw new IllegalArgumentException("Z was not available.");
         }
-        World bukkitWorld = getWorld().getWorld();
-        chunk = bukkitWorld.getChunkAt((Integer) x, (Integer) z);
-        baseX = chunk.getX() * 16;
-        baseZ = chunk.getZ() * 16;
+        this.x = (Integer) x;
+        this.z = (Integer) z;
+        baseX = this.x * 16;
+        baseZ = this.z * 16;
+
+        subplots = new TIntObjectHashMap<>();
+        if (bObj.containsField("subplots")) {
+            BasicBSONList subplotsList = (BasicBSONList) bObj.get("subplots");
+            for (Object element : subplotsList) {
+                BasicBSONObject subplotBson = (BasicBSONObject) element;
+                Subplot subplot = new Subplot(world, subplotBson);
+                subplots.put(subplot.getId(), subplot);
+            }
+        }
+        subplotIds = new SubplotIdAllocator();
+        subplotIds.reset(subplots.keys());
     }
 
     /**
-     * Gets a {@link Stream} of all {@link Subplot}s contained within this Plot.
+     * Gets a {@link Stream} of all {@link Subplot}s of this Plot. This includes Subplots which extend into other Plots,
+     * but not the Subplots of other Plots which extend into this one.
      *
      * @return a Stream of all this Plot's Subplots
      */
@@ -125,8 +144,8 @@ public final class Plot implements Storable, ProtectedRegionCuboid {
      * @return the plot-type Privileges the given Player has in this Plot
      */
     public Stream<Privilege> streamPrivileges(UUID playerId) {
-        return getOwner().map(owner -> owner.streamPrivileges(playerId).filter(Privileges::isPlotType))
-                .orElseGet(Stream::empty);
+        Group group = getOwnerGroup();
+        return group == null ? Stream.empty() : group.getPrivileges(playerId).stream().filter(Privileges::isPlotType);
     }
 
     /**
@@ -134,7 +153,7 @@ public final class Plot implements Storable, ProtectedRegionCuboid {
      */
     @Override
     public Cuboid getCuboid() {
-        return Cuboid.fromChunk(chunk);
+        return Cuboid.fromChunk(world.getWorld(), x, z);
     }
 
     /**
@@ -146,6 +165,24 @@ public final class Plot implements Storable, ProtectedRegionCuboid {
         return world;
     }
 
+    /**
+     * Gets the chunk x coordinate of this Plot.
+     *
+     * @return this Plot's chunk x coordinate
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Gets the chunk z coordinate of this Plot.
+     *
+     * @return this Plot's chunk z coordinate
+     */
+    public int getZ() {
+        return z;
+    }
+
     /**
      * Gets the base block x coordinate for this Plot.
      *
@@ -166,11 +203,14 @@ public final class Plot implements Storable, ProtectedRegionCuboid {
 
     /**
      * Gets the {@link Chunk} this Plot occupies the space of.
+     * <p>
+     * The Chunk is resolved on each call, and will be loaded by the server if it is not already loaded. Where only the
+     * position of the Plot is needed, {@link #getX()} and {@link #getZ()} should be used instead.
      *
      * @return this Plot's relevant Chunk
      */
     public Chunk getChunk() {
-        return chunk;
+        return world.getWorld().getChunkAt(x, z);
     }
 
     /**
@@ -179,7 +219,7 @@ public final class Plot implements Storable, ProtectedRegionCuboid {
      * @return the base point for this Plot
      */
     public Location getBasePoint() {
-        return new Location(chunk.getWorld(), baseX, 0, baseZ);
+        return new Location(world.getWorld(), baseX, 0, baseZ);
     }
 
     /**
@@ -188,7 +228,7 @@ public final class Plot implements Storable, ProtectedRegionCuboid {
      * @return the maximum point for this Plot
      */
     public Location getMaxPoint() {
-        return new Location(chunk.getWorld(), baseX + 15, 255, baseZ + 15);
+        return new Location(world.getWorld(), baseX + 15, 255, baseZ + 15);
     }
 
     /**
@@ -198,8 +238,7 @@ public final class Plot implements Storable, ProtectedRegionCuboid {
      * @return whether the given Location is inside this Plot
      */
     public boolean contains(Location location) {
-        return baseX <= location.getBlockX() && baseX + 16 >= location.getBlockX()
-                && baseZ <= location.getBlockZ() && baseZ + 16 >= location.getBlockZ();
+        return contains(location.getBlockX(), location.getBlockZ());
     }
 
     /**
@@ -209,7 +248,19 @@ public final class Plot implements Storable, ProtectedRegionCuboid {
      * @return whether the given Position is inside this Plot
      */
     public boolean contains(Position position) {
-        return contains(position.toLocation());
+        return contains(position.getBlockX(), position.getBlockZ());
+    }
+
+    /**
+     * Checks whether the block with the given packed key, which is assumed to be in the world of this Plot, is
+     * contained within this Plot.
+     *
+     * @param blockKey the block key, as created by {@link GeometryUtil#toBlockKey(int, int, int)}
+     * @return whether the given block is inside this Plot
+     * @see Position#toBlockKey()
+     */
+    public boolean contains(long blockKey) {
+        return contains(GeometryUtil.getBlockKeyX(blockKey), GeometryUtil.getBlockKeyZ(blockKey));
     }
 
     /**
@@ -219,7 +270,13 @@ public final class Plot implements Storable, ProtectedRegionCuboid {
      * @return whether the given Cuboid is entirely inside this Plot
      */
     public boolean contains(Cuboid cuboid) {
-        return contains(cuboid.getMaxPoint()) && contains(cuboid.getMinPoint());
+        return contains(cuboid.getMaxX(), cuboid.getMaxZ()) && contains(cuboid.getMinX(), cuboid.getMinZ());
+    }
+
+    // the maximum is inclusive so that cuboids, which exclude their maximum point, may reach the edge of the plot
+    private boolean contains(int blockX, int blockZ) {
+        return baseX <= blockX && baseX + 16 >= blockX
+                && baseZ <= blockZ && baseZ + 16 >= blockZ;
     }
 
     /**
@@ -240,7 +297,8 @@ public final class Plot implements Storable, ProtectedRegionCuboid {
     }
 
     /**
-     * Gets the {@link Subplot} of this Plot at the given {@link Location}, if there is one.
+     * Gets the {@link Subplot} at the given {@link Location} within this Plot, if there is one. This may be a Subplot of
+     * another Plot which extends into this one.
      *
      * @param location the Location to get the Subplot at
      * @return the relevant Subplot, or {@code null} if there isn't one at the Location
@@ -250,17 +308,44 @@ public final class Plot implements Storable, ProtectedRegionCuboid {
             return Optional.empty();
         }
 
-        return streamSubplots().filter(subplot -> subplot.contains(location)).findAny();
+        if (!location.getWorld().getName().equals(world.getName())) {
+            return Optional.empty();
+        }
+        return getSubplotAt(location.getBlockX(), location.getBlockY(), location.getBlockZ());
     }
 
     /**
-     * Gets the {@link Subplot} of this Plot at the given {@link Position}, if there is one.
+     * Gets the {@link Subplot} at the given block coordinates within this Plot, if there is one. This may be a Subplot
+     * of another Plot which extends into this one.
+     * <p>
+     * The Subplot is found from the index of Subplots held by the {@link PoliticsWorld}, so this does not check each
+     * Subplot in turn.
+     *
+     * @param x the block x coordinate
+     * @param y the block y coordinate
+     * @param z the block z coordinate
+     * @return the relevant Subplot, or empty if there isn't one at the given coordinates
+     */
+    public Optional<Subplot> getSubplotAt(int x, int y, int z) {
+        if (x >> 4 != this.x || z >> 4 != this.z) {
+            return Optional.empty();
+        }
+
+        return world.getSubplotAt(x, y, z);
+    }
+
+    /**
+     * Gets the {@link Subplot} at the given {@link Position} within this Plot, if there is one. This may be a Subplot of
+     * another Plot which extends into this one.
      *
      * @param position the Position to get the Subplot at
      * @return the relevant Subplot, or {@code null} if there isn't one at the Position
      */
     public Optional<Subplot> getSubplotAt(Position position) {
-        return getSubplotAt(position.toLocation());
+        if (!position.getWorld().equals(world.getName())) {
+            return Optional.empty();
+        }
+        return getSubplotAt(position.getBlockX(), position.getBlockY(), position.getBlockZ());
     }
 
     /**
@@ -283,7 +368,7 @@ public final class Plot implements Storable, ProtectedRegionCuboid {
      * @return the created Subplot, or null if it was not successfully added to the Plot
      */
     public Subplot createSubplot(Cuboid region, UUID ownerId) {
-        Subplot subplot = new Subplot(world, generateSubplotId(), chunk.getX(), chunk.getZ(), region, ownerId);
+        Subplot subplot = new Subplot(world, generateSubplotId(), x, z, region, ownerId);
         if (!addSubplot(subplot)) {
             return null;
         }
@@ -293,6 +378,10 @@ public final class Plot implements Storable, ProtectedRegionCuboid {
     /**
      * Attempts to add the given {@link Subplot} to this Plot.
      * <p>
+     * The base point of the Subplot must be within this Plot. The Subplot may extend into other Plots, as long as they
+     * are owned by the same {@link Group} as this Plot, see {@link PoliticsWorld#canSpanSubplot(int, Cuboid)}. It
+     * must not overlap any other Subplot.
+     * <p>
      * This method calls {@link SubplotCreateEvent}, and will fail if this event is cancelled.
      *
      * @param subplot the Subplot to attempt to add to the Plot
@@ -303,7 +392,12 @@ public final class Plot implements Storable, ProtectedRegionCuboid {
             return false;
         }
 
-        if (!contains(subplot.getCuboid())) {
+        if (subplot.getBaseX() >> 4 != x || subplot.getBaseZ() >> 4 != z) {
+            return false;
+        }
+
+        Cuboid cuboid = subplot.getCuboid();
+        if (!world.canSpanSubplot(owner, cuboid) || world.hasIntersectingSubplot(cuboid)) {
             return false;
         }
 
@@ -313,6 +407,9 @@ public final class Plot implements Storable, ProtectedRegionCuboid {
         }
 
         subplots.put(subplot.getId(), subplot);
+        subplotIds.claim(subplot.getId());
+        world.indexSubplot(subplot);
+        markChanged();
         return true;
     }
 
@@ -338,10 +435,39 @@ public final class Plot implements Storable, ProtectedRegionCuboid {
             return false;
         }
 
-        subplots.remove(subplot.getId());
+        detachSubplot(subplot);
         return true;
     }
 
+    // removes the subplot without calling events
+    private void detachSubplot(Subplot subplot) {
+        subplots.remove(subplot.getId());
+        subplotIds.release(subplot.getId());
+        world.unindexSubplot(subplot);
+        markChanged();
+    }
+
+    // removes all subplots of this plot, and the subplots of other plots which extend into it, without calling events
+    private void clearSubplots() {
+        subplots.forEachValue(subplot -> {
+            world.unindexSubplot(subplot);
+            return true;
+        });
+        subplots.clear();
+        subplotIds.clear();
+        detachSpanningSubplots();
+    }
+
+    // removes the subplots, of this or any other plot, which cross the edge of this plot, as subplots may only span
+    // chunks with one owner
+    private void detachSpanningSubplots() {
+        Cuboid chunk = new Cuboid(world.getWorld(), baseX, 0, baseZ, 16, 256, 16);
+        world.streamIntersectingSubplots(chunk)
+                .filter(subplot -> subplot.getBaseX() < baseX || subplot.getBaseX() + subplot.getXSize() > baseX + 16
+                        || subplot.getBaseZ() < baseZ || subplot.getBaseZ() + subplot.getZSize() > baseZ + 16)
+                .forEach(subplot -> subplot.getParent().detachSubplot(subplot));
+    }
+
     /**
      * Gets the {@link Group} which directly owns this Plot, if there is one.
      *
@@ -392,7 +518,8 @@ public final class Plot implements Storable, ProtectedRegionCuboid {
      * Attempts to set the direct owner {@link Group} of this Plot to the Group with the given unique id.
      * <p>
      * This method calls {@link PlotOwnerChangeEvent} and will fail if this event is cancelled. It will also fail if no
-     * Group with the given unique id exists.
+     * Group with the given unique id exists. If the owner changes, Subplots which cross the edge of this Plot,
+     * including its own, are removed without calling events for their removal.
      *
      * @param id the unique id of the Group to designate as this Plot's new owner
      * @return whether the owner of the Plot was successfully changed
@@ -408,7 +535,12 @@ public final class Plot implements Storable, ProtectedRegionCuboid {
             return false;
         }
 
+        if (id != owner) {
+            detachSpanningSubplots();
+        }
         owner = id;
+        markChanged();
+        Politics.getJournal().recordPlotOwner(this);
         return true;
     }
 
@@ -425,8 +557,8 @@ public final class Plot implements Storable, ProtectedRegionCuboid {
     }
 
     /**
-     * Attempts to remove the direct owner {@link Group} of this Plot. This will also remove all Subplots from this Plot
-     * without calling events for their removal.
+     * Attempts to remove the direct owner {@link Group} of this Plot. This will also remove all Subplots from this Plot,
+     * and the Subplots of other Plots which extend into it, without calling events for their removal.
      * <p>
      * This method calls {@link PlotOwnerChangeEvent} and will fail if this event is cancelled.
      *
@@ -438,11 +570,34 @@ public final class Plot implements Storable, ProtectedRegionCuboid {
             return false;
         }
 
-        subplots.clear();
+        clearSubplots();
         owner = -1;
+        markChanged();
+        Politics.getJournal().recordPlotOwner(this);
         return true;
     }
 
+    /**
+     * Sets the direct owner {@link Group} of this Plot to the Group with the given unique id, or removes the owner if
+     * the id is -1, in which case all Subplots are removed as well. Subplots which cross the edge of this Plot,
+     * including its own, are removed whenever the owner changes.
+     * <p>
+     * This is used to replay the {@link pw.ollie.politics.data.PoliticsJournal}, to release the Plots of destroyed
+     * Groups and for area claims, which call one event and record one journal entry for all Plots in the area. It does
+     * not call {@link PlotOwnerChangeEvent} and is not recorded in the journal.
+     *
+     * @param id the unique id of the new owner Group, or -1 for no owner
+     */
+    public void restoreOwner(int id) {
+        if (id == -1) {
+            clearSubplots();
+        } else if (id != owner) {
+            detachSpanningSubplots();
+        }
+        owner = id;
+        markChanged();
+    }
+
     /**
      * Checks whether the Plot is directly owned by the {@link Group} with the given unique id.
      *
@@ -491,23 +646,25 @@ public final class Plot implements Storable, ProtectedRegionCuboid {
      * @return whether the given Player has the given Privilege in this Plot
      */
     public boolean can(Player player, Privilege privilege) {
-        return getOwner().map(group -> group.can(player, privilege)).orElseGet(() -> privilege.isOfType(PrivilegeType.PLOT));
+        Group group = getOwnerGroup();
+        return group == null ? privilege.isOfType(PrivilegeType.PLOT) : group.can(player, privilege);
+    }
+
+    // gets the owner group, or null if there is no owner
+    private Group getOwnerGroup() {
+        return owner == -1 ? null : Politics.getUniverseManager().getGroupById(owner).orElse(null);
     }
 
     /**
      * Generates the next unused {@link Subplot} id for this Plot.
+     * <p>
+     * The id is not reserved until a Subplot with it is added to the Plot. Ids of removed Subplots may be reused
+     * straight away.
      *
      * @return the next available Subplot id
      */
-    public synchronized int generateSubplotId() {
-        for (int i = 0; i < Integer.MAX_VALUE; i++) {
-            if (subplots.get(i) != null) {
-                continue;
-            }
-            return i;
-        }
-
-        throw new IllegalStateException("This plot has " + Integer.MAX_VALUE + " subplots. Oh dear.");
+    public int generateSubplotId() {
+        return subplotIds.peek();
     }
 
     @Override
@@ -515,8 +672,8 @@ public final class Plot implements Storable, ProtectedRegionCuboid {
         BasicBSONObject obj = new BasicBSONObject();
         obj.put("world", world.getName());
         obj.put("owner", owner);
-        obj.put("x", getChunk().getX());
-        obj.put("z", getChunk().getZ());
+        obj.put("x", x);
+        obj.put("z", z);
         obj.put("subplots", subplots.valueCollection().stream().filter(Subplot::shouldStore)
                 .map(Subplot::toBSONObject).collect(CollectorUtil.toBSONList()));
         return obj;
@@ -527,22 +684,33 @@ public final class Plot implements Storable, ProtectedRegionCuboid {
         return hasOwner() || getNumSubplots() > 0;
     }
 
+    @Override
+    public long getGeneration() {
+        return generation;
+    }
+
+    // called whenever this plot or one of its subplots changes
+    void markChanged() {
+        generation = GenerationTracker.nextGeneration();
+        world.updatePlot(this);
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (!(obj instanceof Plot)) {
             return false;
         }
         Plot other = (Plot) obj;
-        if (!Objects.equals(chunk, other.chunk)) {
-            return false;
-        }
-        return super.equals(obj);
+        // plots for wilderness chunks are not held by the world, so multiple instances may exist for the same chunk
+        return x == other.x && z == other.z && Objects.equals(world, other.world);
     }
 
     @Override
     public int hashCode() {
         int hash = 3;
-        hash = 79 * hash + (chunk != null ? chunk.hashCode() : 0);
+        hash = 79 * hash + Objects.hashCode(world);
+        hash = 79 * hash + x;
+        hash = 79 * hash + z;
         return hash;
     }
 }
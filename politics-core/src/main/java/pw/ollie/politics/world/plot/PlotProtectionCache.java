@@ -0,0 +1,136 @@
+/*
+ * This file is part of Politics.
+ *
+ * Copyright (c) 2019 Oliver Stanley
+ * Politics is licensed under the Affero General Public License Version 3.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pw.ollie.politics.world.plot;
+
+import gnu.trove.map.TLongByteMap;
+import gnu.trove.map.hash.TLongByteHashMap;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+
+import pw.ollie.politics.group.privilege.Privilege;
+import pw.ollie.politics.world.PoliticsWorld;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Caches the chunks in which players are allowed to use plot {@link Privilege}s, so that repeated protection checks in
+ * the same chunk do not have to look up the {@link Plot}, its owner and the player's role each time.
+ * <p>
+ * Only decisions which allow an action are held. Denied actions always go through the full check, as they call
+ * protection trigger events anyway, and a chunk becoming unowned can only allow more. Decisions are discarded when a
+ * chunk changes owner, when a player joins, leaves or changes role in a group, and when a {@link Subplot} is created or
+ * destroyed in a chunk. Subplots are always checked block by block, as their decisions vary within a chunk.
+ */
+final class PlotProtectionCache {
+    // the maximum number of decisions held for each player before they are discarded
+    private static final int MAX_DECISIONS = 1024;
+
+    // no decision is held, so the full check is needed
+    static final byte UNKNOWN = 0;
+    // the plot allows the action and there are no subplots in the chunk
+    static final byte ALLOWED = 1;
+    // the plot allows the action, but there are subplots in the chunk which must be checked
+    static final byte ALLOWED_BY_PLOT = 2;
+
+    private final Map<UUID, PlayerDecisions> players = new HashMap<>();
+
+    byte get(UUID playerId, PoliticsWorld world, int chunkX, int chunkZ, Privilege privilege) {
+        PlayerDecisions decisions = players.get(playerId);
+        if (decisions == null || decisions.world != world || !isCacheable(chunkX, chunkZ, privilege)) {
+            return UNKNOWN;
+        }
+        return decisions.decisions.get(toKey(chunkX, chunkZ, privilege.getIndex()));
+    }
+
+    void put(UUID playerId, PoliticsWorld world, int chunkX, int chunkZ, Privilege privilege, byte decision) {
+        if (!isCacheable(chunkX, chunkZ, privilege)) {
+            return;
+        }
+
+        PlayerDecisions decisions = players.get(playerId);
+        if (decisions == null) {
+            decisions = new PlayerDecisions();
+            players.put(playerId, decisions);
+        }
+        if (decisions.world != world || decisions.decisions.size() >= MAX_DECISIONS) {
+            decisions.world = world;
+            decisions.decisions.clear();
+        }
+        decisions.decisions.put(toKey(chunkX, chunkZ, privilege.getIndex()), decision);
+    }
+
+    void invalidateChunk(PoliticsWorld world, int chunkX, int chunkZ) {
+        TLongSet chunks = new TLongHashSet(1);
+        chunks.add(toChunkPart(chunkX, chunkZ));
+        invalidateChunks(world, chunks);
+    }
+
+    // invalidates the chunks covered by blocks in the given ranges, with the maximums exclusive
+    void invalidateArea(PoliticsWorld world, int minX, int minZ, int maxX, int maxZ) {
+        TLongSet chunks = new TLongHashSet();
+        for (int chunkX = minX >> 4; chunkX <= (maxX - 1) >> 4; chunkX++) {
+            for (int chunkZ = minZ >> 4; chunkZ <= (maxZ - 1) >> 4; chunkZ++) {
+                chunks.add(toChunkPart(chunkX, chunkZ));
+            }
+        }
+        invalidateChunks(world, chunks);
+    }
+
+    void invalidatePlots(PoliticsWorld world, Iterable<Plot> plots) {
+        TLongSet chunks = new TLongHashSet();
+        for (Plot plot : plots) {
+            chunks.add(toChunkPart(plot.getX(), plot.getZ()));
+        }
+        invalidateChunks(world, chunks);
+    }
+
+    void invalidatePlayer(UUID playerId) {
+        players.remove(playerId);
+    }
+
+    private void invalidateChunks(PoliticsWorld world, TLongSet chunks) {
+        for (PlayerDecisions decisions : players.values()) {
+            if (decisions.world == world) {
+                decisions.decisions.retainEntries((key, decision) -> !chunks.contains(key >> 16));
+            }
+        }
+    }
+
+    // keys hold 24 bits of each chunk coordinate, which covers every chunk within the vanilla world border
+    private static boolean isCacheable(int chunkX, int chunkZ, Privilege privilege) {
+        return (chunkX << 8 >> 8) == chunkX && (chunkZ << 8 >> 8) == chunkZ && privilege.getIndex() <= 0xFFFF;
+    }
+
+    private static long toKey(int chunkX, int chunkZ, int privilegeIndex) {
+        return (toChunkPart(chunkX, chunkZ) << 16) | privilegeIndex;
+    }
+
+    private static long toChunkPart(int chunkX, int chunkZ) {
+        return ((long) chunkX << 24) | (chunkZ & 0xFFFFFFL);
+    }
+
+    private static final class PlayerDecisions {
+        private final TLongByteMap decisions = new TLongByteHashMap();
+        // the world the decisions are for, as only those in the player's current world are held
+        private PoliticsWorld world;
+    }
+}
@@ -19,13 +19,24 @@
  */
 package pw.ollie.politics.world.plot;
 
+import gnu.trove.map.TLongByteMap;
+import gnu.trove.map.hash.TLongByteHashMap;
+
 import pw.ollie.politics.PoliticsPlugin;
 import pw.ollie.politics.event.PoliticsEventFactory;
+import pw.ollie.politics.event.group.GroupAreaClaimEvent;
+import pw.ollie.politics.event.group.GroupAreaUnclaimEvent;
+import pw.ollie.politics.event.plot.PlotOwnerChangeEvent;
 import pw.ollie.politics.event.plot.PlotProtectionTriggerEvent;
+import pw.ollie.politics.event.plot.subplot.SubplotCreateEvent;
+import pw.ollie.politics.event.plot.subplot.SubplotDestroyEvent;
 import pw.ollie.politics.event.plot.subplot.SubplotProtectionTriggerEvent;
 import pw.ollie.politics.group.privilege.Privilege;
 import pw.ollie.politics.group.privilege.PrivilegeType;
+import pw.ollie.politics.util.math.Cuboid;
+import pw.ollie.politics.util.math.GeometryUtil;
 import pw.ollie.politics.util.message.MessageUtil;
+import pw.ollie.politics.world.PoliticsWorld;
 import pw.ollie.politics.world.WorldConfig;
 import pw.ollie.politics.world.WorldManager;
 
@@ -66,32 +77,46 @@ import org.bukkit.event.hanging.HangingPlaceEvent;
 import org.bukkit.event.player.PlayerBucketEmptyEvent;
 import org.bukkit.event.player.PlayerBucketFillEvent;
 import org.bukkit.event.player.PlayerInteractEntityEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.vehicle.VehicleDamageEvent;
 import org.bukkit.event.weather.LightningStrikeEvent;
 import org.bukkit.event.world.StructureGrowEvent;
 import org.bukkit.material.Dispenser;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * Applies {@link Plot} and {@link Subplot} region protections where applicable.
  */
 public final class PlotProtectionListener implements Listener {
+    // decisions for the blocks of a chunk affected by an explosion
+    private static final byte EXPLOSION_UNKNOWN = 0;
+    private static final byte EXPLOSION_UNPROTECTED = 1;
+    private static final byte EXPLOSION_PROTECTED = 2;
+    // the chunk is not protected as a whole, but blocks within subplots may be
+    private static final byte EXPLOSION_SUBPLOTS = 3;
+
     private final WorldManager worldManager;
+    private final PlotProtectionCache cache = new PlotProtectionCache();
+    private final ChunkOwnerMemo fireOwners;
 
     public PlotProtectionListener(PoliticsPlugin plugin) {
         this.worldManager = plugin.getWorldManager();
+        this.fireOwners = new ChunkOwnerMemo(plugin);
     }
 
     // logic methods
 
     private <T extends Event & Cancellable> void checkPlayerProtection(Player player, Block block, T event, PlotProtectionType type) {
-        WorldConfig worldConfig = worldManager.getWorld(block.getWorld()).getConfig();
+        PoliticsWorld world = worldManager.getWorld(block.getWorld());
+        WorldConfig worldConfig = world.getConfig();
         if (!worldConfig.hasPlots()) {
             return;
         }
 
-        Location location = block.getLocation();
         Privilege privilege = type.getPermission();
 
         if (privilege == null) {
@@ -100,6 +125,15 @@ public final class PlotProtectionListener implements Listener {
             return;
         }
 
+        UUID playerId = player.getUniqueId();
+        int chunkX = block.getX() >> 4;
+        int chunkZ = block.getZ() >> 4;
+        byte cached = cache.get(playerId, world, chunkX, chunkZ, privilege);
+        if (cached == PlotProtectionCache.ALLOWED) {
+            return;
+        }
+
+        Location location = block.getLocation();
         PlotDamageSource source = new PlotDamageSource(player);
 
         if (worldConfig.hasSubplots()) {
@@ -115,6 +149,10 @@ public final class PlotProtectionListener implements Listener {
             }
         }
 
+        if (cached == PlotProtectionCache.ALLOWED_BY_PLOT) {
+            return;
+        }
+
         ProtectionCheck<Plot> plotCheck = checkPlotPrivileges(player, location, privilege);
         if (!plotCheck.getResult()) {
             PlotProtectionTriggerEvent triggerEvent = PoliticsEventFactory.callPlotProtectionTriggerEvent(
@@ -123,40 +161,45 @@ public final class PlotProtectionListener implements Listener {
                 event.setCancelled(true);
                 MessageUtil.error(player, "You can't do that in this plot.");
             }
-        }
-    }
-
-    private <T extends Event & Cancellable> void checkBlockProtection(Block sourceBlock, Plot sourcePlot, Subplot sourceSubplot, Block target, T event, PlotProtectionType type) {
-        WorldConfig worldConfig = worldManager.getWorld(target.getWorld()).getConfig();
-        if (!worldConfig.hasPlots()) {
             return;
         }
 
-        Location targetLoc = target.getLocation();
-
-        Plot blockPlot = worldManager.getPlotAt(targetLoc);
-        if (!blockPlot.hasOwner()) {
+        boolean subplotted = worldConfig.hasSubplots() && world.hasIntersectingSubplot(
+                new Cuboid(block.getWorld(), chunkX << 4, 0, chunkZ << 4, 16, 256, 16));
+        cache.put(playerId, world, chunkX, chunkZ, privilege,
+                subplotted ? PlotProtectionCache.ALLOWED_BY_PLOT : PlotProtectionCache.ALLOWED);
+    }
+
+    // resolves protection from the chunk owner summary where possible, so that plots and subplots are only looked up
+    // where a block crosses into a chunk with a different owner, or where subplots may be involved. The owner and
+    // subplot of the source block are resolved by the caller, once for each event
+    private <T extends Event & Cancellable> void checkBlockProtection(PoliticsWorld world, Block sourceBlock, int sourceOwner, Subplot sourceSubplot, Block target, T event, PlotProtectionType type) {
+        int targetX = target.getX() >> 4;
+        int targetZ = target.getZ() >> 4;
+        int targetOwner = world.getOwnerIdAtChunkPosition(targetX, targetZ);
+        if (targetOwner == -1) {
+            // unowned chunks never contain subplots
             return;
         }
 
-        if (blockPlot.getOwnerId() != sourcePlot.getOwnerId()) {
+        if (sourceOwner != targetOwner) {
             // a block in an owned plot is being moved by a piston in a plot which either does not have an owner or
             // is owned by a different group to the owner of the plot the moved block is within - get rid
             PlotProtectionTriggerEvent protectEvent = PoliticsEventFactory.callPlotProtectionTriggerEvent(
-                    blockPlot, target, new PlotDamageSource(sourceBlock), type, event);
+                    world.getPlotAtChunkPosition(targetX, targetZ), target, new PlotDamageSource(sourceBlock), type, event);
             if (!protectEvent.isCancelled()) {
                 event.setCancelled(true);
                 return;
             }
         }
 
-        if (!worldConfig.hasSubplots()) {
+        if (!world.getConfig().hasSubplots()) {
             return;
         }
 
-        // both piston and invaded blocks are in the same plot - time to check subplots
+        // both source and target blocks are in plots with the same owner - time to check subplots
 
-        Subplot blockSubplot = blockPlot.getSubplotAt(targetLoc).orElse(null);
+        Subplot blockSubplot = world.getSubplotAt(target.getX(), target.getY(), target.getZ()).orElse(null);
         if (blockSubplot == null) {
             return;
         }
@@ -165,13 +208,150 @@ public final class PlotProtectionListener implements Listener {
             // a block in an owned subplot is being moved by a piston in a subplot which either does not have an
             // owner or is owned by someone other than the other of the plot the moved block is within - cancel
             SubplotProtectionTriggerEvent protectEvent = PoliticsEventFactory.callSubplotProtectionTriggerEvent(
-                    blockPlot, blockSubplot, target, new PlotDamageSource(sourceBlock), type, (Event) event);
+                    world.getPlotAtChunkPosition(targetX, targetZ), blockSubplot, target,
+                    new PlotDamageSource(sourceBlock), type, (Event) event);
             if (!protectEvent.isCancelled()) {
                 event.setCancelled(true);
             }
         }
     }
 
+    private static int getOwnerIdAt(PoliticsWorld world, Block block) {
+        return world.getOwnerIdAtChunkPosition(block.getX() >> 4, block.getZ() >> 4);
+    }
+
+    // gets the subplot containing the given block, or null if there is none or subplots are disabled
+    private static Subplot getSubplotAt(PoliticsWorld world, Block block) {
+        if (!world.getConfig().hasSubplots()) {
+            return null;
+        }
+        return world.getSubplotAt(block.getX(), block.getY(), block.getZ()).orElse(null);
+    }
+
+    // removes blocks in owned plots, or in subplots, from the given list of blocks destroyed by an explosion, unless the
+    // explosion originates from a plot or subplot with the same owner. Ownership and plot trigger events are resolved
+    // once for each chunk, and subplot trigger events once for each subplot
+    private void checkExplosionProtection(PoliticsWorld world, Location origin, List<Block> blocks, PlotDamageSource source, Event event) {
+        WorldConfig worldConfig = world.getConfig();
+        if (!worldConfig.hasPlots() || !worldConfig.hasExplosionProtection() || blocks.isEmpty()) {
+            return;
+        }
+
+        int originOwner = world.getOwnerIdAtChunkPosition(origin.getBlockX() >> 4, origin.getBlockZ() >> 4);
+        TLongByteMap chunkDecisions = new TLongByteHashMap();
+        Map<Subplot, Boolean> subplotDecisions = new HashMap<>();
+        Subplot originSubplot = worldConfig.hasSubplots()
+                ? world.getSubplotAt(origin.getBlockX(), origin.getBlockY(), origin.getBlockZ()).orElse(null) : null;
+
+        blocks.removeIf(block -> {
+            int chunkX = block.getX() >> 4;
+            int chunkZ = block.getZ() >> 4;
+            long key = GeometryUtil.toChunkKey(chunkX, chunkZ);
+            byte decision = chunkDecisions.get(key);
+            if (decision == EXPLOSION_UNKNOWN) {
+                decision = checkExplosionChunk(world, originOwner, chunkX, chunkZ, block, source, event);
+                chunkDecisions.put(key, decision);
+            }
+            if (decision != EXPLOSION_SUBPLOTS) {
+                return decision == EXPLOSION_PROTECTED;
+            }
+
+            Subplot subplot = world.getSubplotAt(block.getX(), block.getY(), block.getZ()).orElse(null);
+            if (subplot == null) {
+                return false;
+            }
+            return subplotDecisions.computeIfAbsent(subplot, checked -> {
+                if (originSubplot != null && originSubplot.getOwnerId().equals(checked.getOwnerId())) {
+                    return false;
+                }
+                SubplotProtectionTriggerEvent protectEvent = PoliticsEventFactory.callSubplotProtectionTriggerEvent(
+                        checked.getParent(), checked, block, source, PlotProtectionType.EXPLOSION, event);
+                return !protectEvent.isCancelled();
+            });
+        });
+    }
+
+    // decides whether the blocks in the given chunk are protected from an explosion, calling a trigger event if so
+    private byte checkExplosionChunk(PoliticsWorld world, int originOwner, int chunkX, int chunkZ, Block first, PlotDamageSource source, Event event) {
+        int owner = world.getOwnerIdAtChunkPosition(chunkX, chunkZ);
+        if (owner == -1) {
+            // unowned chunks never contain subplots
+            return EXPLOSION_UNPROTECTED;
+        }
+
+        if (owner != originOwner) {
+            PlotProtectionTriggerEvent protectEvent = PoliticsEventFactory.callPlotProtectionTriggerEvent(
+                    world.getPlotAtChunkPosition(chunkX, chunkZ), first, source, PlotProtectionType.EXPLOSION, event);
+            if (!protectEvent.isCancelled()) {
+                return EXPLOSION_PROTECTED;
+            }
+        }
+
+        if (world.getConfig().hasSubplots() && world.hasIntersectingSubplot(
+                new Cuboid(first.getWorld(), chunkX << 4, 0, chunkZ << 4, 16, 256, 16))) {
+            return EXPLOSION_SUBPLOTS;
+        }
+        return EXPLOSION_UNPROTECTED;
+    }
+
+    // prevents fire from a source block, or from no block at all (e.g. lightning), spreading into or burning a block in
+    // an owned plot or subplot with a different owner. Chunk owners come from a memo held for the current tick, so that
+    // large fires only look up each chunk once per tick
+    private <T extends Event & Cancellable> void checkFireProtection(PoliticsWorld world, Block sourceBlock, Entity sourceEntity, Block target, T event) {
+        WorldConfig worldConfig = world.getConfig();
+        if (!worldConfig.hasPlots() || !worldConfig.hasFireProtection()) {
+            return;
+        }
+
+        int targetX = target.getX() >> 4;
+        int targetZ = target.getZ() >> 4;
+        int targetOwner = fireOwners.getOwnerId(world, targetX, targetZ);
+        if (targetOwner == -1) {
+            return;
+        }
+
+        boolean fromOtherOwner = sourceBlock == null;
+        if (!fromOtherOwner) {
+            int sourceX = sourceBlock.getX() >> 4;
+            int sourceZ = sourceBlock.getZ() >> 4;
+            fromOtherOwner = (sourceX != targetX || sourceZ != targetZ)
+                    && fireOwners.getOwnerId(world, sourceX, sourceZ) != targetOwner;
+        }
+        if (fromOtherOwner) {
+            PlotProtectionTriggerEvent protectEvent = PoliticsEventFactory.callPlotProtectionTriggerEvent(
+                    world.getPlotAtChunkPosition(targetX, targetZ), target, getFireSource(sourceBlock, sourceEntity),
+                    PlotProtectionType.FIRE, event);
+            if (!protectEvent.isCancelled()) {
+                event.setCancelled(true);
+                return;
+            }
+        }
+
+        if (!fireOwners.hasSubplots(world, targetX, targetZ)) {
+            return;
+        }
+
+        Subplot blockSubplot = world.getSubplotAt(target.getX(), target.getY(), target.getZ()).orElse(null);
+        if (blockSubplot == null) {
+            return;
+        }
+
+        Subplot sourceSubplot = sourceBlock == null ? null
+                : world.getSubplotAt(sourceBlock.getX(), sourceBlock.getY(), sourceBlock.getZ()).orElse(null);
+        if (sourceSubplot == null || !sourceSubplot.getOwnerId().equals(blockSubplot.getOwnerId())) {
+            SubplotProtectionTriggerEvent protectEvent = PoliticsEventFactory.callSubplotProtectionTriggerEvent(
+                    blockSubplot.getParent(), blockSubplot, target, getFireSource(sourceBlock, sourceEntity),
+                    PlotProtectionType.FIRE, event);
+            if (!protectEvent.isCancelled()) {
+                event.setCancelled(true);
+            }
+        }
+    }
+
+    private static PlotDamageSource getFireSource(Block sourceBlock, Entity sourceEntity) {
+        return sourceBlock != null ? new PlotDamageSource(sourceBlock) : new PlotDamageSource(sourceEntity);
+    }
+
     private ProtectionCheck<Plot> checkPlotPrivileges(Player player, Location location, Privilege privilege) {
         if (!(privilege.isOfType(PrivilegeType.PLOT))) {
             throw new IllegalArgumentException("Must be a plot-type privilege");
@@ -194,6 +374,61 @@ public final class PlotProtectionListener implements Listener {
         return new ProtectionCheck<>(subplot, subplot.can(player, privilege));
     }
 
+    /**
+     * Discards the cached protection decisions for the player with the given unique id.
+     * <p>
+     * This is called through {@link WorldManager#invalidateProtection(UUID)} whenever the player's role in a
+     * {@link pw.ollie.politics.group.Group} changes, including when they join or leave it.
+     *
+     * @param playerId the unique id of the player
+     */
+    public void invalidatePlayer(UUID playerId) {
+        cache.invalidatePlayer(playerId);
+    }
+
+    // listener methods which discard cached protection decisions when they may change
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlotOwnerChange(PlotOwnerChangeEvent event) {
+        Plot plot = event.getPlot();
+        cache.invalidateChunk(plot.getWorld(), plot.getX(), plot.getZ());
+        fireOwners.invalidateChunk(plot.getWorld(), plot.getX(), plot.getZ());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onGroupAreaClaim(GroupAreaClaimEvent event) {
+        cache.invalidatePlots(event.getWorld(), event.getPlots());
+        fireOwners.invalidatePlots(event.getWorld(), event.getPlots());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onGroupAreaUnclaim(GroupAreaUnclaimEvent event) {
+        cache.invalidatePlots(event.getWorld(), event.getPlots());
+        fireOwners.invalidatePlots(event.getWorld(), event.getPlots());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onSubplotCreate(SubplotCreateEvent event) {
+        invalidateSubplot(event.getSubplot());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onSubplotDestroy(SubplotDestroyEvent event) {
+        invalidateSubplot(event.getSubplot());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        cache.invalidatePlayer(event.getPlayer().getUniqueId());
+    }
+
+    private void invalidateSubplot(Subplot subplot) {
+        cache.invalidateArea(subplot.getWorld(), subplot.getBaseX(), subplot.getBaseZ(),
+                subplot.getBaseX() + subplot.getXSize(), subplot.getBaseZ() + subplot.getZSize());
+        fireOwners.invalidateArea(subplot.getWorld(), subplot.getBaseX(), subplot.getBaseZ(),
+                subplot.getBaseX() + subplot.getXSize(), subplot.getBaseZ() + subplot.getZSize());
+    }
+
     // listener methods which mostly simply make appropriate calls to above logic methods
 
     @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
@@ -220,14 +455,16 @@ public final class PlotProtectionListener implements Listener {
     @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
     public void onBlockPistonRetract(BlockPistonRetractEvent event) {
         Block pistonBlock = event.getBlock();
-        Location pistonLoc = pistonBlock.getLocation();
-
-        Plot pistonPlot = worldManager.getPlotAt(pistonLoc);
-        Subplot pistonSubplot = pistonPlot.getSubplotAt(pistonLoc).orElse(null);
+        PoliticsWorld world = worldManager.getWorld(pistonBlock.getWorld());
+        if (!world.getConfig().hasPlots()) {
+            return;
+        }
 
         // prevent pulling blocks out of plots
+        int pistonOwner = getOwnerIdAt(world, pistonBlock);
+        Subplot pistonSubplot = getSubplotAt(world, pistonBlock);
         for (Block moved : event.getBlocks()) {
-            checkBlockProtection(pistonBlock, pistonPlot, pistonSubplot, moved, event, PlotProtectionType.PISTON_PULL);
+            checkBlockProtection(world, pistonBlock, pistonOwner, pistonSubplot, moved, event, PlotProtectionType.PISTON_PULL);
 
             if (event.isCancelled()) {
                 break;
@@ -238,12 +475,14 @@ public final class PlotProtectionListener implements Listener {
     @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
     public void onBlockPistonExtend(BlockPistonExtendEvent event) {
         Block pistonBlock = event.getBlock();
-        Location pistonLoc = pistonBlock.getLocation();
+        PoliticsWorld world = worldManager.getWorld(pistonBlock.getWorld());
+        if (!world.getConfig().hasPlots()) {
+            return;
+        }
 
         List<Block> blocks = event.getBlocks();
-
-        Plot pistonPlot = worldManager.getPlotAt(pistonLoc);
-        Subplot pistonSubplot = pistonPlot.getSubplotAt(pistonLoc).orElse(null);
+        int pistonOwner = getOwnerIdAt(world, pistonBlock);
+        Subplot pistonSubplot = getSubplotAt(world, pistonBlock);
 
         // no blocks moving, check if push into (sub)plot from outside to prevent breaking flimsy blocks (e.g torches)
         if (blocks.isEmpty()) {
@@ -253,7 +492,7 @@ public final class PlotProtectionListener implements Listener {
                 return;
             }
 
-            checkBlockProtection(pistonBlock, pistonPlot, pistonSubplot, invaded, event, PlotProtectionType.PISTON_PUSH);
+            checkBlockProtection(world, pistonBlock, pistonOwner, pistonSubplot, invaded, event, PlotProtectionType.PISTON_PUSH);
             return;
         }
 
@@ -261,13 +500,14 @@ public final class PlotProtectionListener implements Listener {
         // also prevent blocks being pushed into a plot from outside
         for (Block moved : blocks) {
             // first check for a block in one plot being pushed into another plot
-            checkBlockProtection(pistonBlock, pistonPlot, pistonSubplot, moved.getRelative(event.getDirection()), event, PlotProtectionType.PISTON_PUSH);
+            checkBlockProtection(world, pistonBlock, pistonOwner, pistonSubplot, moved.getRelative(event.getDirection()), event,
+                    PlotProtectionType.PISTON_PUSH);
             if (event.isCancelled()) {
                 break;
             }
 
             // then check for a block in another plot being pushed
-            checkBlockProtection(pistonBlock, pistonPlot, pistonSubplot, moved, event, PlotProtectionType.PISTON_PUSH);
+            checkBlockProtection(world, pistonBlock, pistonOwner, pistonSubplot, moved, event, PlotProtectionType.PISTON_PUSH);
             if (event.isCancelled()) {
                 break;
             }
@@ -278,29 +518,34 @@ public final class PlotProtectionListener implements Listener {
     public void onBlockDispense(BlockDispenseEvent event) {
         // stop dispensers being used to dispense blocks (e.g. lava) or item between (sub)plots
         Block dispenserBlock = event.getBlock();
-        Location dispenserLoc = dispenserBlock.getLocation();
-        Dispenser dispenser = new Dispenser(Material.DISPENSER, dispenserBlock.getData());
-
-        Plot sourcePlot = worldManager.getPlotAt(dispenserLoc);
-        Subplot sourceSubplot = sourcePlot.getSubplotAt(dispenserLoc).orElse(null);
+        PoliticsWorld world = worldManager.getWorld(dispenserBlock.getWorld());
+        if (!world.getConfig().hasPlots()) {
+            return;
+        }
 
+        Dispenser dispenser = new Dispenser(Material.DISPENSER, dispenserBlock.getData());
         Block targetBlock = dispenserBlock.getRelative(dispenser.getFacing());
 
-        checkBlockProtection(dispenserBlock, sourcePlot, sourceSubplot, targetBlock, event, PlotProtectionType.DISPENSER);
+        checkBlockProtection(world, dispenserBlock, getOwnerIdAt(world, dispenserBlock), getSubplotAt(world, dispenserBlock),
+                targetBlock, event, PlotProtectionType.DISPENSER);
     }
 
     @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
     public void onBlockFromTo(BlockFromToEvent event) {
         // protect from things like lava spreading into a plot or subplot from outside
         Block sourceBlock = event.getBlock();
-        Location sourceLoc = sourceBlock.getLocation();
-
-        Plot sourcePlot = worldManager.getPlotAt(sourceLoc);
-        Subplot sourceSubplot = sourcePlot.getSubplotAt(sourceLoc).orElse(null);
-
-        Block targetBlock = event.getToBlock();
+        PoliticsWorld world = worldManager.getWorld(sourceBlock.getWorld());
+        if (!world.getConfig().hasPlots()) {
+            return;
+        }
 
-        checkBlockProtection(sourceBlock, sourcePlot, sourceSubplot, targetBlock, event, PlotProtectionType.BLOCK_FLOW);
+        // most flow is within unowned chunks, so the source is only resolved for flow into an owned chunk
+        Block target = event.getToBlock();
+        if (getOwnerIdAt(world, target) == -1) {
+            return;
+        }
+        checkBlockProtection(world, sourceBlock, getOwnerIdAt(world, sourceBlock), getSubplotAt(world, sourceBlock),
+                target, event, PlotProtectionType.BLOCK_FLOW);
     }
 
     @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
@@ -340,26 +585,34 @@ public final class PlotProtectionListener implements Listener {
 
     @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
     public void onBlockIgnite(BlockIgniteEvent event) {
-        if (event.getCause() == BlockIgniteEvent.IgniteCause.FLINT_AND_STEEL) {
-            // todo check if this is allowed
+        Block block = event.getBlock();
+        Player player = event.getPlayer();
+        if (player != null) {
+            // setting fire to a block, e.g. with flint and steel, is effectively placing a block
+            checkPlayerProtection(player, block, event, PlotProtectionType.BLOCK_IGNITE);
+            return;
         }
 
-        // todo also check if burning is allowed etc
+        // fire spreading, lava, lightning etc
+        checkFireProtection(worldManager.getWorld(block.getWorld()), event.getIgnitingBlock(),
+                event.getIgnitingEntity(), block, event);
     }
 
     @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
     public void onBlockBurn(BlockBurnEvent event) {
-        // todo check plot of burning block
+        Block block = event.getBlock();
+        checkFireProtection(worldManager.getWorld(block.getWorld()), event.getIgnitingBlock(), null, block, event);
     }
 
     @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
     public void onBlockSpread(BlockSpreadEvent event) {
-        // todo make configurable whether this is enabled
-        if (event.getSource().getType() != Material.FIRE) {
+        Block source = event.getSource();
+        if (source.getType() != Material.FIRE) {
             return;
         }
 
-        // todo check if in a plot
+        Block block = event.getBlock();
+        checkFireProtection(worldManager.getWorld(block.getWorld()), source, null, block, event);
     }
 
     @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
@@ -396,12 +649,18 @@ public final class PlotProtectionListener implements Listener {
 
     @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
     public void onEntityExplode(EntityExplodeEvent event) {
-        // todo prevent creeper etc explosions in plots and subplots if configured to do so
+        // prevent creeper, tnt etc explosions destroying blocks in plots and subplots if configured to do so
+        Location origin = event.getLocation();
+        checkExplosionProtection(worldManager.getWorld(origin.getWorld()), origin, event.blockList(),
+                new PlotDamageSource(event.getEntity()), event);
     }
 
     @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
     public void onBlockExplode(BlockExplodeEvent event) {
-        // todo prevent TNT etc explosions in plots and subplots if configured to do so
+        // prevent bed etc explosions destroying blocks in plots and subplots if configured to do so
+        Block block = event.getBlock();
+        checkExplosionProtection(worldManager.getWorld(block.getWorld()), block.getLocation(), event.blockList(),
+                new PlotDamageSource(block), event);
     }
 
     @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
@@ -49,7 +49,19 @@ public enum PlotProtectionType {
     /**
      * A protection from a block flowing naturally.
      */
-    BLOCK_FLOW();
+    BLOCK_FLOW(),
+    /**
+     * A protection from a block being destroyed by an explosion.
+     */
+    EXPLOSION(),
+    /**
+     * A protection from a block being set on fire by a player.
+     */
+    BLOCK_IGNITE(Privileges.GroupPlot.BUILD),
+    /**
+     * A protection from fire spreading to or burning a block.
+     */
+    FIRE();
     // todo fill in all types
 
     private final Privilege permission;
@@ -19,41 +19,35 @@
  */
 package pw.ollie.politics.world.plot;
 
-import gnu.trove.map.hash.THashMap;
-import gnu.trove.set.hash.THashSet;
-
-import pw.ollie.politics.Politics;
+import pw.ollie.politics.data.GenerationTracker;
 import pw.ollie.politics.data.Storable;
 import pw.ollie.politics.event.PoliticsEventFactory;
 import pw.ollie.politics.event.plot.subplot.SubplotOwnerChangeEvent;
 import pw.ollie.politics.event.plot.subplot.SubplotPrivilegeChangeEvent;
 import pw.ollie.politics.group.privilege.Privilege;
+import pw.ollie.politics.group.privilege.PrivilegeSet;
 import pw.ollie.politics.group.privilege.PrivilegeType;
 import pw.ollie.politics.util.math.Cuboid;
+import pw.ollie.politics.util.math.GeometryUtil;
 import pw.ollie.politics.util.math.Position;
 import pw.ollie.politics.util.math.Vector3i;
-import pw.ollie.politics.util.stream.CollectorUtil;
 import pw.ollie.politics.world.PoliticsWorld;
 
-import com.google.mu.util.stream.BiStream;
-
 import org.bson.BSONObject;
 import org.bson.BasicBSONObject;
-import org.bson.types.BasicBSONList;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 
-import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Stream;
 
 /**
- * A subplot must be wholly contained within a single plot. Subplots do not have owner groups as normal plots, as they
- * are always within a plot owned by a group already. Rather, subplots have a single player assigned as their owner.
+ * A subplot belongs to the plot containing its base point, and may extend into neighbouring plots owned by the same
+ * group, within the same region of 32 by 32 chunks. Subplots do not have owner groups as normal plots, as they are
+ * always within plots owned by a group already. Rather, subplots have a single player assigned as their owner.
  * This player is afforded all possible plot privileges within the subplot, and may also assign plot privileges to other
  * players. This player must be a member of a group owning the parent plot, as must the other players who are given
  * privileges within the subplot.
@@ -73,9 +67,10 @@ public final class Subplot implements Storable, ProtectedRegionCuboid {
     private final int ySize;
     private final int zSize;
 
-    private final Map<UUID, Set<Privilege>> individualPrivileges;
+    private final SubplotPrivileges individualPrivileges;
 
     private UUID owner;
+    private long generation;
 
     /**
      * Constructs a new Subplot object with the given properties.
@@ -106,7 +101,7 @@ public final class Subplot implements Storable, ProtectedRegionCuboid {
         this.ySize = ySize;
         this.zSize = zSize;
         this.owner = owner;
-        this.individualPrivileges = new THashMap<>();
+        this.individualPrivileges = new SubplotPrivileges();
     }
 
     /**
@@ -125,8 +120,8 @@ public final class Subplot implements Storable, ProtectedRegionCuboid {
         this(world, id, parentX, parentZ, cuboid.getMinX(), cuboid.getMinY(), cuboid.getMinZ(), cuboid.getXSize(), cuboid.getYSize(), cuboid.getZSize(), owner);
     }
 
-    Subplot(BasicBSONObject bObj) {
-        world = Politics.getWorld(bObj.getString("world"));
+    Subplot(PoliticsWorld world, BasicBSONObject bObj) {
+        this.world = world;
         id = bObj.getInt("id");
         parentX = bObj.getInt("parent-x");
         parentZ = bObj.getInt("parent-z");
@@ -138,23 +133,33 @@ public final class Subplot implements Storable, ProtectedRegionCuboid {
         zSize = bObj.getInt("z-size");
         owner = UUID.fromString(bObj.getString("owner"));
 
-        individualPrivileges = new THashMap<>();
         if (bObj.containsField("privileges")) {
-            BasicBSONObject privilegesObj = (BasicBSONObject) bObj.get("privileges");
-
-            for (String privilegesKey : privilegesObj.keySet()) {
-                Set<Privilege> privileges = new THashSet<>();
-                individualPrivileges.put(UUID.fromString(privilegesKey), privileges);
-
-                for (Object object : (BasicBSONList) privilegesObj.get(privilegesKey)) {
-                    privileges.add(Politics.getPrivilegeManager().getPrivilege(object.toString()));
-                }
-            }
+            individualPrivileges = SubplotPrivileges.fromBSONObject((BasicBSONObject) bObj.get("privileges"));
+        } else {
+            individualPrivileges = new SubplotPrivileges();
         }
     }
 
+    /**
+     * Gets a {@link Stream} of the {@link Privilege}s individually granted to the {@link Player} with the given
+     * {@link UUID} in this Subplot. This does not include the Privileges of the owner of the Subplot.
+     *
+     * @param playerId the unique id of the Player
+     * @return the Privileges granted to the Player
+     */
     public Stream<Privilege> streamPrivileges(UUID playerId) {
-        return individualPrivileges.getOrDefault(playerId, new THashSet<>()).stream();
+        return individualPrivileges.get(playerId).stream();
+    }
+
+    /**
+     * Gets the {@link PrivilegeSet} of {@link Privilege}s individually granted to the {@link Player} with the given
+     * {@link UUID} in this Subplot. This does not include the Privileges of the owner of the Subplot.
+     *
+     * @param playerId the unique id of the Player
+     * @return the Privileges granted to the Player
+     */
+    public PrivilegeSet getPrivileges(UUID playerId) {
+        return individualPrivileges.get(playerId);
     }
 
     /**
@@ -164,7 +169,7 @@ public final class Subplot implements Storable, ProtectedRegionCuboid {
      */
     @Override
     public Cuboid getCuboid() {
-        return new Cuboid(getBaseLocation(), getSize());
+        return new Cuboid(world.getWorld(), baseX, baseY, baseZ, xSize, ySize, zSize);
     }
 
     /**
@@ -341,6 +346,7 @@ public final class Subplot implements Storable, ProtectedRegionCuboid {
         }
 
         this.owner = ownerId;
+        markChanged();
         return true;
     }
 
@@ -351,7 +357,8 @@ public final class Subplot implements Storable, ProtectedRegionCuboid {
      * @return whether given Location is inside this Subplot
      */
     public boolean contains(Location location) {
-        return getCuboid().contains(location);
+        return location.getWorld().getName().equals(world.getName())
+                && contains(location.getBlockX(), location.getBlockY(), location.getBlockZ());
     }
 
     /**
@@ -361,7 +368,34 @@ public final class Subplot implements Storable, ProtectedRegionCuboid {
      * @return whether given Position is inside this Subplot
      */
     public boolean contains(Position position) {
-        return getCuboid().contains(position);
+        return position.getWorld().equals(world.getName())
+                && contains(position.getBlockX(), position.getBlockY(), position.getBlockZ());
+    }
+
+    /**
+     * Checks whether the Subplot contains the block at the given coordinates in its world.
+     *
+     * @param x the block x coordinate
+     * @param y the block y coordinate
+     * @param z the block z coordinate
+     * @return whether the given block is inside this Subplot
+     */
+    public boolean contains(int x, int y, int z) {
+        return baseX <= x && x < baseX + xSize
+                && baseY <= y && y < baseY + ySize
+                && baseZ <= z && z < baseZ + zSize;
+    }
+
+    /**
+     * Checks whether the Subplot contains the block with the given packed key, which is assumed to be in its world.
+     *
+     * @param blockKey the block key, as created by {@link GeometryUtil#toBlockKey(int, int, int)}
+     * @return whether the given block is inside this Subplot
+     * @see Position#toBlockKey()
+     */
+    public boolean contains(long blockKey) {
+        return contains(GeometryUtil.getBlockKeyX(blockKey), GeometryUtil.getBlockKeyY(blockKey),
+                GeometryUtil.getBlockKeyZ(blockKey));
     }
 
     /**
@@ -383,8 +417,7 @@ public final class Subplot implements Storable, ProtectedRegionCuboid {
             return true;
         }
 
-        Set<Privilege> privileges = individualPrivileges.get(playerId);
-        return privileges != null && privileges.contains(privilege);
+        return individualPrivileges.get(playerId).contains(privilege);
     }
 
     /**
@@ -419,8 +452,11 @@ public final class Subplot implements Storable, ProtectedRegionCuboid {
             return false;
         }
 
-        individualPrivileges.putIfAbsent(playerId, new THashSet<>());
-        individualPrivileges.get(playerId).add(privilege);
+        PrivilegeSet current = individualPrivileges.get(playerId);
+        if (!current.contains(privilege)) {
+            individualPrivileges.set(playerId, current.with(privilege));
+            markChanged();
+        }
         return true;
     }
 
@@ -456,12 +492,14 @@ public final class Subplot implements Storable, ProtectedRegionCuboid {
             return false;
         }
 
-        Set<Privilege> currentPrivileges = individualPrivileges.get(playerId);
-        if (currentPrivileges == null) {
+        PrivilegeSet current = individualPrivileges.get(playerId);
+        if (!current.contains(privilege)) {
             return false;
         }
 
-        return currentPrivileges.remove(privilege);
+        individualPrivileges.set(playerId, current.without(privilege));
+        markChanged();
+        return true;
     }
 
     /**
@@ -492,11 +530,7 @@ public final class Subplot implements Storable, ProtectedRegionCuboid {
         result.put("z-size", zSize);
         result.put("owner", owner.toString());
 
-        BasicBSONObject privilegesObj = new BasicBSONObject();
-        BiStream.from(individualPrivileges).mapKeys(UUID::toString)
-                .mapValues(privs -> privs.stream().map(Privilege::getName).collect(CollectorUtil.toBSONList()))
-                .forEach(privilegesObj::put);
-        result.put("privileges", privilegesObj);
+        result.put("privileges", individualPrivileges.toBSONObject());
 
         return result;
     }
@@ -505,4 +539,14 @@ public final class Subplot implements Storable, ProtectedRegionCuboid {
     public boolean shouldStore() {
         return true;
     }
+
+    @Override
+    public long getGeneration() {
+        return generation;
+    }
+
+    private void markChanged() {
+        generation = GenerationTracker.nextGeneration();
+        getParent().markChanged();
+    }
 }
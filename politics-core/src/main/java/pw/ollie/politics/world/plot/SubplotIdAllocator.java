@@ -0,0 +1,87 @@
+/*
+ * This file is part of Politics.
+ *
+ * Copyright (c) 2019 Oliver Stanley
+ * Politics is licensed under the Affero General Public License Version 3.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pw.ollie.politics.world.plot;
+
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TIntArrayList;
+
+import java.util.Arrays;
+
+/**
+ * Allocates {@link Subplot} ids within a single {@link Plot}.
+ * <p>
+ * Ids are handed out from a stack of ids freed by removed Subplots, or from the next id above all those ever used if
+ * there are none free, so that both allocating and freeing an id take constant time. The allocator is rebuilt from the
+ * ids of the stored Subplots when a Plot is loaded, so it does not need to be stored itself.
+ */
+final class SubplotIdAllocator {
+    // ids below next which are not in use, with the most recently freed last
+    private final TIntList free = new TIntArrayList();
+    // the lowest id which has never been used
+    private int next;
+
+    // gets the id the next subplot should use, without reserving it
+    int peek() {
+        return free.isEmpty() ? next : free.get(free.size() - 1);
+    }
+
+    void claim(int id) {
+        int last = free.size() - 1;
+        if (last >= 0 && free.get(last) == id) {
+            free.removeAt(last);
+        } else if (id >= next) {
+            for (int unused = id - 1; unused >= next; unused--) {
+                free.add(unused);
+            }
+            next = id + 1;
+        } else {
+            // only reached when a subplot is added with an id which wasn't generated by the plot
+            free.remove(id);
+        }
+    }
+
+    void release(int id) {
+        if (id == next - 1) {
+            next--;
+        } else {
+            free.add(id);
+        }
+    }
+
+    void clear() {
+        free.clear();
+        next = 0;
+    }
+
+    void reset(int[] used) {
+        clear();
+        Arrays.sort(used);
+        next = used.length == 0 ? 0 : used[used.length - 1] + 1;
+        // push in descending order so that the lowest free ids are used first
+        int index = used.length - 1;
+        for (int id = next - 1; id >= 0; id--) {
+            if (index >= 0 && used[index] == id) {
+                index--;
+            } else {
+                free.add(id);
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * This file is part of Politics.
+ *
+ * Copyright (c) 2019 Oliver Stanley
+ * Politics is licensed under the Affero General Public License Version 3.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pw.ollie.politics.world.plot;
+
+import pw.ollie.politics.Politics;
+import pw.ollie.politics.group.privilege.Privilege;
+import pw.ollie.politics.group.privilege.PrivilegeSet;
+import pw.ollie.politics.util.stream.CollectorUtil;
+
+import org.bson.BasicBSONObject;
+import org.bson.types.BasicBSONList;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * The {@link Privilege}s granted to individual players within a single {@link Subplot}.
+ * <p>
+ * Players are held in arrays of the two halves of their unique ids, sorted so that they can be found by binary search,
+ * alongside the interned {@link PrivilegeSet} granted to each. Players granted the same Privileges therefore share a
+ * single PrivilegeSet, both in memory and when stored.
+ */
+final class SubplotPrivileges {
+    private static final long[] NO_IDS = new long[0];
+    private static final PrivilegeSet[] NO_SETS = new PrivilegeSet[0];
+
+    private long[] mostSignificant = NO_IDS;
+    private long[] leastSignificant = NO_IDS;
+    private PrivilegeSet[] sets = NO_SETS;
+    private int size;
+
+    PrivilegeSet get(UUID playerId) {
+        int index = indexOf(playerId.getMostSignificantBits(), playerId.getLeastSignificantBits());
+        return index < 0 ? PrivilegeSet.empty() : sets[index];
+    }
+
+    void set(UUID playerId, PrivilegeSet privileges) {
+        long most = playerId.getMostSignificantBits();
+        long least = playerId.getLeastSignificantBits();
+        int index = indexOf(most, least);
+        if (index >= 0) {
+            if (privileges.isEmpty()) {
+                remove(index);
+            } else {
+                sets[index] = privileges;
+            }
+            return;
+        }
+
+        if (!privileges.isEmpty()) {
+            insert(-(index + 1), most, least, privileges);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Stores the granted Privileges, with each distinct PrivilegeSet listed once under {@code sets} and each player
+     * mapped to the index of their PrivilegeSet under {@code players}.
+     */
+    BasicBSONObject toBSONObject() {
+        Map<PrivilegeSet, Integer> setIndexes = new IdentityHashMap<>();
+        BasicBSONList setsList = new BasicBSONList();
+        BasicBSONObject playersObj = new BasicBSONObject();
+        for (int i = 0; i < size; i++) {
+            Integer setIndex = setIndexes.get(sets[i]);
+            if (setIndex == null) {
+                setIndex = setsList.size();
+                setIndexes.put(sets[i], setIndex);
+                setsList.add(sets[i].stream().map(Privilege::getName).collect(CollectorUtil.toBSONList()));
+            }
+            playersObj.put(new UUID(mostSignificant[i], leastSignificant[i]).toString(), setIndex);
+        }
+
+        BasicBSONObject result = new BasicBSONObject();
+        result.put("sets", setsList);
+        result.put("players", playersObj);
+        return result;
+    }
+
+    /**
+     * Loads granted Privileges from either the format of {@link #toBSONObject()}, or the older format mapping each
+     * player directly to a list of Privilege names.
+     */
+    static SubplotPrivileges fromBSONObject(BasicBSONObject privilegesObj) {
+        SubplotPrivileges result = new SubplotPrivileges();
+        if (!privilegesObj.containsField("players")) {
+            for (String playerKey : privilegesObj.keySet()) {
+                result.set(UUID.fromString(playerKey), loadSet((BasicBSONList) privilegesObj.get(playerKey)));
+            }
+            return result;
+        }
+
+        BasicBSONList setsList = (BasicBSONList) privilegesObj.get("sets");
+        PrivilegeSet[] loadedSets = new PrivilegeSet[setsList.size()];
+        for (int i = 0; i < loadedSets.length; i++) {
+            loadedSets[i] = loadSet((BasicBSONList) setsList.get(i));
+        }
+        BasicBSONObject playersObj = (BasicBSONObject) privilegesObj.get("players");
+        for (String playerKey : playersObj.keySet()) {
+            result.set(UUID.fromString(playerKey), loadedSets[playersObj.getInt(playerKey)]);
+        }
+        return result;
+    }
+
+    private static PrivilegeSet loadSet(BasicBSONList names) {
+        return PrivilegeSet.of(names.stream().map(name -> Politics.getPrivilegeManager().getPrivilege(name.toString()))
+                .filter(Objects::nonNull).collect(Collectors.toList()));
+    }
+
+    // binary search of the sorted ids, returning -(insertion point + 1) if the id is not present
+    private int indexOf(long most, long least) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int comparison = mostSignificant[mid] != most ? Long.compare(mostSignificant[mid], most)
+                    : Long.compare(leastSignificant[mid], least);
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private void insert(int index, long most, long least, PrivilegeSet privileges) {
+        if (size == sets.length) {
+            int capacity = Math.max(2, size * 2);
+            mostSignificant = Arrays.copyOf(mostSignificant, capacity);
+            leastSignificant = Arrays.copyOf(leastSignificant, capacity);
+            sets = Arrays.copyOf(sets, capacity);
+        }
+
+        System.arraycopy(mostSignificant, index, mostSignificant, index + 1, size - index);
+        System.arraycopy(leastSignificant, index, leastSignificant, index + 1, size - index);
+        System.arraycopy(sets, index, sets, index + 1, size - index);
+        mostSignificant[index] = most;
+        leastSignificant[index] = least;
+        sets[index] = privileges;
+        size++;
+    }
+
+    private void remove(int index) {
+        size--;
+        System.arraycopy(mostSignificant, index + 1, mostSignificant, index, size - index);
+        System.arraycopy(leastSignificant, index + 1, leastSignificant, index, size - index);
+        System.arraycopy(sets, index + 1, sets, index, size - index);
+        sets[size] = null;
+    }
+}
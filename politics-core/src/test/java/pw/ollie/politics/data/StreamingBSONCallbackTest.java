@@ -0,0 +1,62 @@
+/*
+ * This file is part of Politics.
+ *
+ * Copyright (c) 2019 Oliver Stanley
+ * Politics is licensed under the Affero General Public License Version 3.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pw.ollie.politics.data;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.bson.BSONObject;
+import org.bson.BasicBSONEncoder;
+import org.bson.BasicBSONObject;
+import org.bson.types.BasicBSONList;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+
+public final class StreamingBSONCallbackTest {
+    private static final int ELEMENTS = 5000;
+
+    @Test
+    public void runTest() throws IOException {
+        BasicBSONList list = new BasicBSONList();
+        for (int i = 0; i < ELEMENTS; i++) {
+            list.add(new BasicBSONObject("i", i).append("name", "element " + i));
+        }
+        BasicBSONObject document = new BasicBSONObject("name", "streamed");
+        document.put("groups", list);
+        document.put("after", true);
+        byte[] encoded = new BasicBSONEncoder().encode(document);
+
+        int[] seen = new int[1];
+        BSONObject decoded = StreamingBSONCallback.decode(new ByteArrayInputStream(encoded), "groups", (root, element) -> {
+            // each element is seen once and in order, and is never held by the list
+            Assert.assertEquals(seen[0], element.getInt("i"));
+            Assert.assertEquals("element " + seen[0], element.getString("name"));
+            Assert.assertEquals("streamed", root.get("name"));
+            Assert.assertEquals(0, ((List<?>) root.get("groups")).size());
+            seen[0]++;
+        });
+
+        Assert.assertEquals(ELEMENTS, seen[0]);
+        Assert.assertEquals(0, ((List<?>) decoded.get("groups")).size());
+        Assert.assertEquals(true, decoded.get("after"));
+    }
+}
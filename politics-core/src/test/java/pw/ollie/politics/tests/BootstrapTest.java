@@ -0,0 +1,87 @@
+/*
+ * This file is part of Politics.
+ *
+ * Copyright (c) 2019 Oliver Stanley
+ * Politics is licensed under the Affero General Public License Version 3.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pw.ollie.politics.tests;
+
+import pw.ollie.politics.AbstractPoliticsTest;
+import pw.ollie.politics.data.PoliticsBootstrap;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class BootstrapTest extends AbstractPoliticsTest {
+    private static final int FILES = 500;
+    // two reads ahead for each of at most four load threads
+    private static final int MAX_HELD = 8;
+
+    @Override
+    @Before
+    public void setUp() {
+        super.setUp();
+    }
+
+    @Override
+    @Test
+    public void runTest() {
+        List<File> files = new ArrayList<>();
+        for (int i = FILES - 1; i >= 0; i--) {
+            files.add(new File(String.format("r.%04d.0.ptr", i)));
+        }
+
+        // counts the files read but not yet passed to the consumer, as the decoded plots of regions would be
+        AtomicInteger held = new AtomicInteger();
+        AtomicInteger maxHeld = new AtomicInteger();
+        List<Integer> consumed = new ArrayList<>();
+        PoliticsBootstrap bootstrap = new PoliticsBootstrap(plugin);
+        bootstrap.readEach(files, file -> {
+            int index = Integer.parseInt(file.getName().substring(2, 6));
+            if (index == 100) {
+                throw new IOException("unreadable");
+            }
+            maxHeld.accumulateAndGet(held.incrementAndGet(), Math::max);
+            return index;
+        }, (file, index) -> {
+            held.decrementAndGet();
+            consumed.add(index);
+        });
+        bootstrap.finish();
+
+        // every readable file is passed on in file name order, and unreadable files are skipped
+        Assert.assertEquals(FILES - 1, consumed.size());
+        for (int i = 0; i < consumed.size(); i++) {
+            Assert.assertEquals(i < 100 ? i : i + 1, (int) consumed.get(i));
+        }
+        Assert.assertEquals(0, held.get());
+        Assert.assertTrue("held " + maxHeld.get() + " files at once", maxHeld.get() <= MAX_HELD);
+    }
+
+    @Override
+    @After
+    public void tearDown() {
+        super.tearDown();
+    }
+}
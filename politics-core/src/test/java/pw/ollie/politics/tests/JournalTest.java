@@ -0,0 +1,194 @@
+/*
+ * This file is part of Politics.
+ *
+ * Copyright (c) 2019 Oliver Stanley
+ * Politics is licensed under the Affero General Public License Version 3.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pw.ollie.politics.tests;
+
+import pw.ollie.politics.AbstractPoliticsTest;
+import pw.ollie.politics.Politics;
+import pw.ollie.politics.data.PoliticsJournal;
+import pw.ollie.politics.group.Group;
+import pw.ollie.politics.group.GroupProperty;
+import pw.ollie.politics.group.level.GroupLevel;
+import pw.ollie.politics.universe.Universe;
+import pw.ollie.politics.world.AreaClaimResult;
+import pw.ollie.politics.world.PoliticsWorld;
+import pw.ollie.politics.world.plot.Plot;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.bson.BasicBSONEncoder;
+import org.bson.BasicBSONObject;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+public final class JournalTest extends AbstractPoliticsTest {
+    @Override
+    @Before
+    public void setUp() {
+        super.setUp();
+    }
+
+    @Override
+    @Test
+    public void runTest() {
+        // start from a single empty segment, so that segments left by other tests are not replayed
+        PoliticsJournal journal = plugin.getJournal();
+        journal.truncate(journal.rotate());
+
+        // record changes
+        Universe universe = createDefaultUniverse();
+        PoliticsWorld world = worldManager.getWorld(server.getWorld(TEST_WORLD_NAME));
+        Group household = createTestHousehold();
+        GroupLevel level = household.getLevel();
+        UUID founderId = server.getPlayer(0).getUniqueId();
+        UUID leaverId = server.getPlayer(1).getUniqueId();
+        household.setRole(founderId, level.getFounder());
+        household.setRole(leaverId, level.getInitial());
+        household.removeRole(leaverId);
+        Plot plot = world.getPlotAtChunkPosition(3, 3);
+        Assert.assertTrue(plot.setOwner(household));
+        household.setProperty(GroupProperty.NAME, "Journalled");
+        Group destroyed = createTestHousehold("Doomed");
+        int destroyedId = destroyed.getUid();
+        universe.destroyGroup(destroyed);
+        // an area claim is a single record, however many plots it covers
+        File journalDir = plugin.getFileSystem().getJournalDir();
+        File segmentFile = new File(journalDir, "journal-" + getLastSegment(journalDir) + ".ptj");
+        int records = countRecords(segmentFile);
+        Assert.assertEquals(AreaClaimResult.SUCCESS, worldManager.claimArea(household, world.getWorld(), 8, 8, 11, 11, server.getPlayer(0)));
+        Assert.assertEquals(records + 1, countRecords(segmentFile));
+        journal.close();
+
+        // lose the changes in memory, without recording anything, as if the server crashed
+        plot.restoreOwner(-1);
+        household.restoreRole(founderId, null);
+        household.restoreRole(leaverId, level.getInitial().getId());
+        household.restoreProperty(GroupProperty.NAME, "Test Household");
+        universe.restoreGroup(destroyedId, level);
+        for (int x = 8; x <= 11; x++) {
+            for (int z = 8; z <= 11; z++) {
+                world.getPlotAtChunkPosition(x, z).restoreOwner(-1);
+            }
+        }
+
+        // later segments ending in a corrupt record and a record cut short by the crash
+        int lastSegment = getLastSegment(journalDir);
+        try (DataOutputStream corrupt = new DataOutputStream(new FileOutputStream(new File(journalDir, "journal-" + (lastSegment + 1) + ".ptj")));
+             DataOutputStream truncated = new DataOutputStream(new FileOutputStream(new File(journalDir, "journal-" + (lastSegment + 2) + ".ptj")))) {
+            writeRecord(corrupt, newPlotOwnerRecord(4, 4, household.getUid()), false);
+            writeRecord(corrupt, newPlotOwnerRecord(5, 5, household.getUid()), true);
+            writeRecord(truncated, newPlotOwnerRecord(6, 6, household.getUid()), false);
+            truncated.writeInt(64);
+            truncated.writeInt(0);
+            truncated.write(new byte[10]);
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+
+        // replay
+        PoliticsJournal replay = new PoliticsJournal(plugin, true);
+        replay.open();
+        Assert.assertTrue(plot.isOwner(household));
+        Assert.assertEquals(level.getFounder(), household.getRole(founderId).orElse(null));
+        Assert.assertFalse(household.getRole(leaverId).isPresent());
+        Assert.assertEquals("Journalled", household.getName());
+        Assert.assertFalse(Politics.getGroupById(destroyedId).isPresent());
+        for (int x = 8; x <= 11; x++) {
+            for (int z = 8; z <= 11; z++) {
+                Assert.assertTrue(world.getPlotAtChunkPosition(x, z).isOwner(household));
+            }
+        }
+        // records before a corrupt or incomplete record are replayed, the rest of the segment is discarded
+        Assert.assertTrue(world.getPlotAtChunkPosition(4, 4).isOwner(household));
+        Assert.assertFalse(world.getPlotAtChunkPosition(5, 5).hasOwner());
+        Assert.assertTrue(world.getPlotAtChunkPosition(6, 6).isOwner(household));
+
+        // replaying does not record the replayed changes again
+        int newSegment = getLastSegment(journalDir);
+        Assert.assertEquals(lastSegment + 3, newSegment);
+        replay.close();
+        Assert.assertEquals(0, new File(journalDir, "journal-" + newSegment + ".ptj").length());
+        replay.truncate(newSegment);
+    }
+
+    private static BasicBSONObject newPlotOwnerRecord(int x, int z, int owner) {
+        BasicBSONObject record = new BasicBSONObject("op", "plot-owner");
+        record.put("world", TEST_WORLD_NAME);
+        record.put("x", x);
+        record.put("z", z);
+        record.put("owner", owner);
+        return record;
+    }
+
+    private static void writeRecord(DataOutputStream out, BasicBSONObject record, boolean corrupt) throws IOException {
+        byte[] data = new BasicBSONEncoder().encode(record);
+        CRC32 checksum = new CRC32();
+        checksum.update(data);
+        out.writeInt(data.length);
+        out.writeInt((int) checksum.getValue() + (corrupt ? 1 : 0));
+        out.write(data);
+    }
+
+    private static int countRecords(File segmentFile) {
+        int count = 0;
+        try (DataInputStream in = new DataInputStream(new FileInputStream(segmentFile))) {
+            while (true) {
+                int length = in.readInt();
+                in.readInt();
+                in.readFully(new byte[length]);
+                count++;
+            }
+        } catch (EOFException ex) {
+            return count;
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private static int getLastSegment(File journalDir) {
+        int last = -1;
+        File[] files = journalDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                if (name.startsWith("journal-") && name.endsWith(".ptj")) {
+                    last = Math.max(last, Integer.parseInt(name.substring(8, name.length() - 4)));
+                }
+            }
+        }
+        return last;
+    }
+
+    @Override
+    @After
+    public void tearDown() {
+        super.tearDown();
+    }
+}
@@ -20,12 +20,47 @@
 package pw.ollie.politics.tests;
 
 import pw.ollie.politics.AbstractPoliticsTest;
+import pw.ollie.politics.group.Group;
+import pw.ollie.politics.util.PoliticsEventCounter;
+import pw.ollie.politics.util.PoliticsTestReflection;
+import pw.ollie.politics.util.math.Cuboid;
+import pw.ollie.politics.world.AreaClaimResult;
+import pw.ollie.politics.world.PoliticsWorld;
+import pw.ollie.politics.world.WorldConfig;
+import pw.ollie.politics.world.plot.Plot;
+import pw.ollie.politics.world.plot.Subplot;
 
 import org.junit.After;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockIgniteEvent;
+import org.bukkit.event.block.BlockIgniteEvent.IgniteCause;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockSpreadEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 public final class PlotProtectionsTest extends AbstractPoliticsTest {
+    private World world;
+    private PoliticsWorld politicsWorld;
+
     @Override
     @Before
     public void setUp() {
@@ -35,7 +70,282 @@ public final class PlotProtectionsTest extends AbstractPoliticsTest {
     @Override
     @Test
     public void runTest() {
-        // todo
+        createDefaultUniverse();
+        world = server.getWorld(TEST_WORLD_NAME);
+        politicsWorld = worldManager.getWorld(world);
+
+        testProtectionCache();
+        testBlockMovement();
+        testExplosions();
+        testFire();
+    }
+
+    // allowed decisions are cached for each chunk, so each change which may deny them must be seen by the next check
+    private void testProtectionCache() {
+        Player founder = server.getPlayer(0);
+        Player member = server.getPlayer(1);
+        Group household = createTestHousehold("Cached");
+        household.setRole(founder.getUniqueId(), household.getLevel().getFounder());
+        household.setRole(member.getUniqueId(), household.getLevel().getInitial());
+        Plot plot = politicsWorld.getPlotAtChunkPosition(1, 1);
+        Assert.assertTrue(plot.setOwner(household));
+        Block block = world.getBlockAt(20, 64, 20);
+
+        // wilderness and owned plots allow building to members, with the second check answered from the cache
+        Assert.assertFalse(isBreakCancelled(member, world.getBlockAt(-20, 64, -20)));
+        Assert.assertFalse(isBreakCancelled(member, block));
+        Assert.assertFalse(isBreakCancelled(member, block));
+        Assert.assertTrue(isBreakCancelled(server.getPlayer(2), block));
+
+        // owner change
+        Group other = createTestHousehold("Other");
+        Assert.assertTrue(plot.setOwner(other));
+        Assert.assertTrue(isBreakCancelled(member, block));
+        Assert.assertTrue(plot.setOwner(household));
+        Assert.assertFalse(isBreakCancelled(member, block));
+
+        // leaving and rejoining the group
+        household.removeRole(member.getUniqueId());
+        Assert.assertTrue(isBreakCancelled(member, block));
+        household.setRole(member.getUniqueId(), household.getLevel().getInitial());
+        Assert.assertFalse(isBreakCancelled(member, block));
+
+        // subplot creation, where the subplot does not give the member any privileges
+        Subplot subplot = plot.createSubplot(new Cuboid(world, 18, 60, 18, 4, 8, 4), founder.getUniqueId());
+        Assert.assertNotNull(subplot);
+        Assert.assertTrue(isBreakCancelled(member, block));
+        Assert.assertFalse(isBreakCancelled(member, world.getBlockAt(28, 64, 28)));
+        Assert.assertFalse(isBreakCancelled(founder, block));
+        Assert.assertTrue(plot.removeSubplot(subplot));
+        Assert.assertFalse(isBreakCancelled(member, block));
+
+        // role change to a role without the privilege
+        Player mayor = server.getPlayer(3);
+        Group town = createTestTown("Cached Town");
+        town.setRole(mayor.getUniqueId(), town.getLevel().getFounder());
+        Assert.assertTrue(politicsWorld.getPlotAtChunkPosition(3, 3).setOwner(town));
+        Block townBlock = world.getBlockAt(50, 64, 50);
+        Assert.assertFalse(isBreakCancelled(mayor, townBlock));
+        town.setRole(mayor.getUniqueId(), town.getLevel().getInitial());
+        Assert.assertTrue(isBreakCancelled(mayor, townBlock));
+    }
+
+    // liquid flow and pistons, which are resolved from chunk owners before plots or subplots are looked up
+    private void testBlockMovement() {
+        PoliticsEventCounter counter = registerEventCounter();
+        Player tenant = server.getPlayer(4);
+        Group movers = createTestHousehold("Movers");
+        Group neighbours = createTestHousehold("Movers Next Door");
+        PoliticsWorld plainWorld = createWorld("plain", "plots.subplots.enabled");
+        for (PoliticsWorld checked : new PoliticsWorld[]{politicsWorld, plainWorld}) {
+            Assert.assertTrue(checked.getPlotAtChunkPosition(5, 5).setOwner(movers));
+            Assert.assertTrue(checked.getPlotAtChunkPosition(6, 5).setOwner(movers));
+            Assert.assertTrue(checked.getPlotAtChunkPosition(5, 6).setOwner(neighbours));
+        }
+        World plain = plainWorld.getWorld();
+
+        // flow into an unowned chunk returns straight away
+        Assert.assertFalse(isFlowCancelled(world.getBlockAt(80, 64, 80), world.getBlockAt(79, 64, 80)));
+        Assert.assertFalse(isFlowCancelled(world.getBlockAt(-80, 64, -80), world.getBlockAt(-79, 64, -80)));
+        // flow within a chunk, and between chunks with the same owner, returns straight away without subplots
+        Assert.assertFalse(isFlowCancelled(plain.getBlockAt(81, 64, 81), plain.getBlockAt(82, 64, 81)));
+        Assert.assertFalse(isFlowCancelled(plain.getBlockAt(95, 64, 81), plain.getBlockAt(96, 64, 81)));
+        Assert.assertEquals(0, counter.getPlotProtectionTriggers());
+        Assert.assertEquals(0, counter.getSubplotProtectionTriggers());
+
+        // flow between chunks with different owners, or from wilderness
+        Assert.assertTrue(isFlowCancelled(plain.getBlockAt(81, 64, 95), plain.getBlockAt(81, 64, 96)));
+        Assert.assertTrue(isFlowCancelled(world.getBlockAt(79, 64, 81), world.getBlockAt(80, 64, 81)));
+        Assert.assertEquals(2, counter.getPlotProtectionTriggers());
+
+        // pistons pulling between two plots with the same owner, which are different plots with equal owner ids
+        Block piston = world.getBlockAt(94, 64, 82);
+        Assert.assertFalse(isPullCancelled(piston, world.getBlockAt(96, 64, 82), world.getBlockAt(97, 64, 82)));
+        Assert.assertTrue(isPullCancelled(piston, world.getBlockAt(96, 64, 82), world.getBlockAt(94, 64, 96)));
+        Assert.assertEquals(3, counter.getPlotProtectionTriggers());
+
+        // pistons pulling blocks out of a subplot, from outside it and from another subplot of the same owner
+        Plot target = politicsWorld.getPlotAtChunkPosition(6, 5);
+        Assert.assertNotNull(target.createSubplot(new Cuboid(world, 96, 60, 80, 4, 8, 4), tenant.getUniqueId()));
+        Assert.assertTrue(isPullCancelled(piston, world.getBlockAt(97, 64, 82)));
+        Assert.assertEquals(1, counter.getSubplotProtectionTriggers());
+        Plot source = politicsWorld.getPlotAtChunkPosition(5, 5);
+        Assert.assertNotNull(source.createSubplot(new Cuboid(world, 93, 60, 80, 2, 8, 4), tenant.getUniqueId()));
+        Assert.assertFalse(isPullCancelled(piston, world.getBlockAt(97, 64, 82), world.getBlockAt(98, 64, 83)));
+        Assert.assertEquals(1, counter.getSubplotProtectionTriggers());
+        Assert.assertEquals(3, counter.getPlotProtectionTriggers());
+    }
+
+    // explosions are resolved once for each chunk, and then once for each subplot in chunks of the same owner
+    private void testExplosions() {
+        PoliticsEventCounter counter = registerEventCounter();
+        Player tenant = server.getPlayer(5);
+        Player otherTenant = server.getPlayer(6);
+        Group blasted = createTestHousehold("Blasted");
+        Assert.assertTrue(politicsWorld.getPlotAtChunkPosition(9, 9).setOwner(blasted));
+        Assert.assertTrue(politicsWorld.getPlotAtChunkPosition(10, 9).setOwner(blasted));
+        Block wilderness = world.getBlockAt(140, 64, 150);
+        Block owned = world.getBlockAt(150, 64, 150);
+
+        // a blast from wilderness removes the blocks in owned chunks, with one trigger event for each chunk
+        List<Block> remaining = explode(wilderness, world.getBlockAt(141, 64, 150), world.getBlockAt(145, 64, 150),
+                world.getBlockAt(146, 64, 150), world.getBlockAt(147, 65, 151), world.getBlockAt(160, 64, 150),
+                world.getBlockAt(161, 64, 150));
+        Assert.assertEquals(Collections.singletonList(world.getBlockAt(141, 64, 150)), remaining);
+        Assert.assertEquals(2, counter.getPlotProtectionTriggers());
+
+        // a blast from a chunk with the same owner keeps them
+        Assert.assertEquals(3, explode(owned, world.getBlockAt(151, 64, 150), world.getBlockAt(160, 64, 150),
+                world.getBlockAt(161, 64, 150)).size());
+        Assert.assertEquals(2, counter.getPlotProtectionTriggers());
+
+        // blocks in a subplot of a chunk with the same owner are removed, with one trigger event for each subplot
+        Plot plot = politicsWorld.getPlotAtChunkPosition(10, 9);
+        Assert.assertNotNull(plot.createSubplot(new Cuboid(world, 162, 60, 146, 4, 8, 4), tenant.getUniqueId()));
+        Block inSubplot = world.getBlockAt(163, 64, 147);
+        Block outsideSubplot = world.getBlockAt(170, 64, 150);
+        remaining = explode(owned, inSubplot, world.getBlockAt(164, 65, 148), outsideSubplot);
+        Assert.assertEquals(Collections.singletonList(outsideSubplot), remaining);
+        Assert.assertEquals(1, counter.getSubplotProtectionTriggers());
+
+        // unless the blast comes from a subplot with the same owner
+        Plot origin = politicsWorld.getPlotAtChunkPosition(9, 9);
+        Assert.assertNotNull(origin.createSubplot(new Cuboid(world, 148, 60, 148, 4, 8, 4), tenant.getUniqueId()));
+        Assert.assertEquals(2, explode(owned, inSubplot, outsideSubplot).size());
+        Assert.assertNotNull(origin.createSubplot(new Cuboid(world, 144, 60, 144, 2, 8, 2), otherTenant.getUniqueId()));
+        Assert.assertEquals(1, explode(world.getBlockAt(145, 64, 145), inSubplot, outsideSubplot).size());
+        Assert.assertEquals(2, counter.getSubplotProtectionTriggers());
+        Assert.assertEquals(2, counter.getPlotProtectionTriggers());
+
+        // worlds with explosion protection disabled
+        PoliticsWorld unprotected = createWorld("unprotected", "plots.explosion-protection");
+        Assert.assertTrue(unprotected.getPlotAtChunkPosition(9, 9).setOwner(blasted));
+        World unprotectedWorld = unprotected.getWorld();
+        Assert.assertEquals(1, explode(unprotectedWorld.getBlockAt(140, 64, 150),
+                unprotectedWorld.getBlockAt(145, 64, 150)).size());
+        Assert.assertEquals(2, counter.getPlotProtectionTriggers());
+    }
+
+    // fire from blocks or entities, with chunk owners remembered for the rest of the tick
+    private void testFire() {
+        PoliticsEventCounter counter = registerEventCounter();
+        Player firefighter = server.getPlayer(7);
+        Player arsonist = server.getPlayer(8);
+        Player tenant = server.getPlayer(9);
+        Group burning = createTestHousehold("Burning");
+        burning.setRole(firefighter.getUniqueId(), burning.getLevel().getFounder());
+        Group firebreak = createTestHousehold("Firebreak");
+        Assert.assertTrue(politicsWorld.getPlotAtChunkPosition(12, 12).setOwner(burning));
+        Assert.assertTrue(politicsWorld.getPlotAtChunkPosition(13, 12).setOwner(burning));
+        Assert.assertTrue(politicsWorld.getPlotAtChunkPosition(12, 13).setOwner(firebreak));
+        server.getScheduler().performOneTick();
+        Block wilderness = world.getBlockAt(190, 64, 195);
+        Block owned = world.getBlockAt(193, 64, 195);
+
+        // ignition by spreading fire, by lightning and by players
+        Assert.assertTrue(isIgniteCancelled(wilderness, owned));
+        Assert.assertFalse(isIgniteCancelled(owned, world.getBlockAt(208, 64, 195)));
+        Assert.assertFalse(isIgniteCancelled(world.getBlockAt(193, 64, 208), world.getBlockAt(190, 64, 208)));
+        BlockIgniteEvent lightning = new BlockIgniteEvent(owned, IgniteCause.LIGHTNING, (Entity) null);
+        server.getPluginManager().callEvent(lightning);
+        Assert.assertTrue(lightning.isCancelled());
+        Assert.assertEquals(2, counter.getPlotProtectionTriggers());
+        BlockIgniteEvent byArsonist = new BlockIgniteEvent(owned, IgniteCause.FLINT_AND_STEEL, arsonist);
+        server.getPluginManager().callEvent(byArsonist);
+        Assert.assertTrue(byArsonist.isCancelled());
+        BlockIgniteEvent byFirefighter = new BlockIgniteEvent(owned, IgniteCause.FLINT_AND_STEEL, firefighter);
+        server.getPluginManager().callEvent(byFirefighter);
+        Assert.assertFalse(byFirefighter.isCancelled());
+
+        // burning, from a chunk with another owner and from one with the same owner
+        Block target = world.getBlockAt(200, 64, 207);
+        BlockBurnEvent burn = new BlockBurnEvent(target, world.getBlockAt(200, 64, 208));
+        server.getPluginManager().callEvent(burn);
+        Assert.assertTrue(burn.isCancelled());
+        burn = new BlockBurnEvent(target, world.getBlockAt(215, 64, 207));
+        server.getPluginManager().callEvent(burn);
+        Assert.assertFalse(burn.isCancelled());
+
+        // spreading, which is only checked for fire
+        wilderness.setType(Material.FIRE);
+        Assert.assertTrue(isSpreadCancelled(wilderness, owned));
+        wilderness.setType(Material.GRASS_BLOCK);
+        Assert.assertFalse(isSpreadCancelled(wilderness, owned));
+        Assert.assertEquals(5, counter.getPlotProtectionTriggers());
+
+        // subplots of the same owner, which are remembered along with the chunk owner
+        Plot plot = politicsWorld.getPlotAtChunkPosition(13, 12);
+        Assert.assertNotNull(plot.createSubplot(new Cuboid(world, 210, 60, 194, 4, 8, 4), tenant.getUniqueId()));
+        Assert.assertTrue(isIgniteCancelled(owned, world.getBlockAt(211, 64, 195)));
+        Assert.assertFalse(isIgniteCancelled(owned, world.getBlockAt(220, 64, 195)));
+        Assert.assertEquals(1, counter.getSubplotProtectionTriggers());
+
+        // chunk owners are remembered within a tick, but not past a change of owner
+        Assert.assertTrue(isIgniteCancelled(wilderness, owned));
+        Assert.assertTrue(politicsWorld.getPlotAtChunkPosition(12, 12).removeOwner());
+        Assert.assertFalse(isIgniteCancelled(wilderness, owned));
+
+        // area claims and unclaims within a tick
+        wilderness.setType(Material.FIRE);
+        Assert.assertFalse(isSpreadCancelled(wilderness, owned));
+        Assert.assertEquals(AreaClaimResult.SUCCESS, worldManager.claimArea(burning, world, 12, 12, 12, 12, firefighter));
+        Assert.assertTrue(isSpreadCancelled(wilderness, owned));
+        Assert.assertEquals(AreaClaimResult.SUCCESS, worldManager.unclaimArea(burning, world, 12, 12, 12, 12, firefighter));
+        Assert.assertFalse(isSpreadCancelled(wilderness, owned));
+        wilderness.setType(Material.GRASS_BLOCK);
+
+        // worlds with fire protection disabled
+        PoliticsWorld fireproofless = createWorld("fireproofless", "plots.fire-protection");
+        Assert.assertTrue(fireproofless.getPlotAtChunkPosition(12, 12).setOwner(burning));
+        World fireprooflessWorld = fireproofless.getWorld();
+        Assert.assertFalse(isIgniteCancelled(fireprooflessWorld.getBlockAt(190, 64, 195),
+                fireprooflessWorld.getBlockAt(193, 64, 195)));
+    }
+
+    private PoliticsWorld createWorld(String name, String... disabled) {
+        ConfigurationSection config = new MemoryConfiguration();
+        for (String key : disabled) {
+            config.set(key, false);
+        }
+        PoliticsTestReflection.putWorldConfig(worldManager, WorldConfig.load(name, config));
+        return worldManager.getWorld(server.addSimpleWorld(name));
+    }
+
+    private boolean isBreakCancelled(Player player, Block block) {
+        BlockBreakEvent event = new BlockBreakEvent(block, player);
+        server.getPluginManager().callEvent(event);
+        return event.isCancelled();
+    }
+
+    private boolean isFlowCancelled(Block source, Block target) {
+        BlockFromToEvent event = new BlockFromToEvent(source, target);
+        server.getPluginManager().callEvent(event);
+        return event.isCancelled();
+    }
+
+    private boolean isPullCancelled(Block piston, Block... moved) {
+        BlockPistonRetractEvent event = new BlockPistonRetractEvent(piston, Arrays.asList(moved), BlockFace.WEST);
+        server.getPluginManager().callEvent(event);
+        return event.isCancelled();
+    }
+
+    private boolean isIgniteCancelled(Block source, Block target) {
+        BlockIgniteEvent event = new BlockIgniteEvent(target, IgniteCause.SPREAD, source);
+        server.getPluginManager().callEvent(event);
+        return event.isCancelled();
+    }
+
+    private boolean isSpreadCancelled(Block source, Block target) {
+        BlockSpreadEvent event = new BlockSpreadEvent(target, source, null);
+        server.getPluginManager().callEvent(event);
+        return event.isCancelled();
+    }
+
+    // calls an explosion of the given blocks, returning those which are still destroyed
+    private List<Block> explode(Block origin, Block... blocks) {
+        List<Block> blockList = new ArrayList<>(Arrays.asList(blocks));
+        server.getPluginManager().callEvent(new BlockExplodeEvent(origin, blockList, 1.0F));
+        return blockList;
     }
 
     @Override
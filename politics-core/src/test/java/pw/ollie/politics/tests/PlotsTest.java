@@ -29,7 +29,9 @@ import pw.ollie.politics.group.privilege.Privileges.GroupPlot;
 import pw.ollie.politics.universe.Universe;
 import pw.ollie.politics.util.PoliticsEventCounter;
 import pw.ollie.politics.util.math.Cuboid;
+import pw.ollie.politics.util.math.GeometryUtil;
 import pw.ollie.politics.util.math.Vector3i;
+import pw.ollie.politics.world.PoliticsWorld;
 import pw.ollie.politics.world.plot.Plot;
 import pw.ollie.politics.world.plot.Subplot;
 
@@ -70,6 +72,21 @@ public final class PlotsTest extends AbstractPoliticsTest {
         Assert.assertEquals(1, eventCounter.getPlotOwnerChanges());
         Assert.assertTrue(plot.isOwner(household));
         Assert.assertTrue(plot.isIndirectOwner(household));
+        Assert.assertEquals(1, household.getNumPlots());
+        Assert.assertEquals(plot, household.streamPlots().findAny().orElse(null));
+
+        // territory testing
+        PoliticsWorld polWorld = plot.getWorld();
+        Assert.assertEquals(1, polWorld.getNumTerritories(household.getUid()));
+        Assert.assertTrue(polWorld.isAdjacentToTerritory(household.getUid(), 1, 2));
+        Assert.assertFalse(polWorld.isAdjacentToTerritory(household.getUid(), 2, 2));
+        Assert.assertFalse(polWorld.wouldDisconnectTerritory(household.getUid(), 1, 1));
+
+        // unclaiming wilderness leaves nothing to write
+        long worldGeneration = polWorld.getGeneration();
+        polWorld.getPlotAtChunkPosition(30, 30).restoreOwner(-1);
+        Assert.assertEquals(worldGeneration, polWorld.getGeneration());
+        Assert.assertEquals(1, polWorld.streamPlots().count());
 
         // plot privilege testing
         Player groupless = server.getPlayer(1);
@@ -87,6 +104,23 @@ public final class PlotsTest extends AbstractPoliticsTest {
         Cuboid subplotRegion = new Cuboid(subplotBase, new Vector3i(5, 50, 5));
         Subplot subplot = plot.createSubplot(subplotRegion, member.getUniqueId());
         Assert.assertNotNull(subplot);
+        Assert.assertEquals(subplot, plot.getSubplotAt(subplotBase).orElse(null));
+        Assert.assertEquals(subplot, plot.getSubplotAt(subplotBase.clone().add(4, 49, 4)).orElse(null));
+        Assert.assertFalse(plot.getSubplotAt(subplotBase.clone().add(5, 0, 0)).isPresent());
+        Assert.assertFalse(plot.getSubplotAt(subplotBase.clone().add(0, -1, 0)).isPresent());
+        Assert.assertTrue(subplot.contains(GeometryUtil.toBlockKey(subplotBase)));
+        Assert.assertFalse(subplot.contains(GeometryUtil.toBlockKey(subplotBase.clone().add(5, 0, 0))));
+        Assert.assertTrue(plot.contains(GeometryUtil.toBlockKey(subplotBase)));
+        Assert.assertFalse(plot.contains(GeometryUtil.toBlockKey(subplotBase.clone().add(-2, 0, 0))));
+
+        // subplot id allocation testing
+        int nextId = plot.generateSubplotId();
+        Assert.assertNotEquals(subplot.getId(), nextId);
+        Subplot other = plot.createSubplot(new Cuboid(subplotBase.clone().add(6, 0, 0), new Vector3i(2, 2, 2)), member.getUniqueId());
+        Assert.assertNotNull(other);
+        Assert.assertEquals(nextId, other.getId());
+        Assert.assertTrue(plot.removeSubplot(other));
+        Assert.assertEquals(nextId, plot.generateSubplotId());
 
         // subplot privilege testing
         subplot.givePrivilege(founder, GroupPlot.BUILD);
@@ -97,6 +131,34 @@ public final class PlotsTest extends AbstractPoliticsTest {
                 Assert.assertFalse(subplot.can(groupless, privilege));
             }
         }
+
+        // subplots spanning several plots
+        Plot plot21 = worldManager.getPlotAtChunk(world.getChunkAt(2, 1));
+        Cuboid spanningRegion = new Cuboid(plot.getBasePoint().add(12, 10, 12), new Vector3i(8, 5, 2));
+        Assert.assertNull(plot.createSubplot(spanningRegion, member.getUniqueId()));
+        Assert.assertTrue(plot21.setOwner(household));
+        Subplot spanning = plot.createSubplot(spanningRegion, member.getUniqueId());
+        Assert.assertNotNull(spanning);
+        Location inNeighbour = plot21.getBasePoint().add(2, 12, 12);
+        Assert.assertEquals(spanning, plot21.getSubplotAt(inNeighbour).orElse(null));
+        Assert.assertTrue(polWorld.hasIntersectingSubplot(new Cuboid(inNeighbour, new Vector3i(1, 1, 1))));
+        Assert.assertTrue(plot21.removeOwner());
+        Assert.assertFalse(plot21.getSubplotAt(inNeighbour).isPresent());
+        Assert.assertFalse(plot.getSubplot(spanning.getId()).isPresent());
+
+        // an owner change of the parent plot also removes its own subplots which cross its edge
+        Assert.assertTrue(plot21.setOwner(household));
+        spanning = plot.createSubplot(spanningRegion, member.getUniqueId());
+        Assert.assertNotNull(spanning);
+        Group neighbours = createTestHousehold("Neighbours");
+        Assert.assertTrue(plot.setOwner(neighbours));
+        Assert.assertFalse(plot.getSubplot(spanning.getId()).isPresent());
+        Assert.assertFalse(plot21.getSubplotAt(inNeighbour).isPresent());
+        Assert.assertFalse(polWorld.hasIntersectingSubplot(new Cuboid(inNeighbour, new Vector3i(1, 1, 1))));
+        Assert.assertEquals(subplot, plot.getSubplotAt(subplotBase).orElse(null));
+
+        // subplots may not be placed in unowned plots
+        Assert.assertFalse(polWorld.canSpanSubplot(-1, new Cuboid(world, 80, 10, 80, 2, 2, 2)));
     }
 
     @Override
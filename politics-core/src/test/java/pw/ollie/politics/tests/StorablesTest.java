@@ -21,11 +21,13 @@ package pw.ollie.politics.tests;
 
 import pw.ollie.politics.AbstractPoliticsTest;
 import pw.ollie.politics.group.Group;
+import pw.ollie.politics.group.privilege.Privileges;
 import pw.ollie.politics.universe.Universe;
 import pw.ollie.politics.util.PoliticsTestReflection;
 import pw.ollie.politics.util.math.Cuboid;
 import pw.ollie.politics.util.math.Vector3i;
 import pw.ollie.politics.world.PoliticsWorld;
+import pw.ollie.politics.world.WorldConfig;
 import pw.ollie.politics.world.plot.Plot;
 import pw.ollie.politics.world.plot.Subplot;
 
@@ -38,11 +40,17 @@ import org.bson.BSONObject;
 import org.bson.BasicBSONObject;
 
 import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.MemoryConfiguration;
 import org.bukkit.entity.Player;
 
+import java.io.File;
+import java.util.Objects;
 import java.util.UUID;
 
 public final class StorablesTest extends AbstractPoliticsTest {
+    private static final String LAZY_WORLD_NAME = "lazy-storage";
+
     @Override
     @Before
     public void setUp() {
@@ -68,6 +76,21 @@ public final class StorablesTest extends AbstractPoliticsTest {
         Assert.assertEquals(group.getName(), restoredGroup.getName());
         Assert.assertEquals(group.getTag(), restoredGroup.getTag());
 
+        // test lazily loaded world storage, which includes plots in regions which are not loaded
+        ConfigurationSection lazyConfig = new MemoryConfiguration();
+        lazyConfig.set("plots.lazy-loading", true);
+        PoliticsTestReflection.putWorldConfig(worldManager, WorldConfig.load(LAZY_WORLD_NAME, lazyConfig));
+        PoliticsWorld lazyWorld = worldManager.getWorld(LAZY_WORLD_NAME);
+        lazyWorld.getPlotAtChunkPosition(40, 40).restoreOwner(group.getUid());
+        worldManager.saveWorlds();
+        plugin.getSavePipeline().flush();
+        Assert.assertEquals(0, lazyWorld.streamPlots().count());
+        BasicBSONObject lazyWorldBson = (BasicBSONObject) lazyWorld.toBSONObject();
+        PoliticsWorld restoredLazyWorld = PoliticsTestReflection.instantiateDefaultWorld(lazyWorldBson);
+        Assert.assertTrue(restoredLazyWorld.getPlotAtChunkPosition(40, 40).isOwner(group));
+        // the region loaded to store the world is evicted again
+        Assert.assertEquals(0, lazyWorld.streamPlots().count());
+
         // test politics world storage
         int testPlotX = 1, testPlotY = 1;
         World world = server.getWorld(TEST_WORLD_NAME);
@@ -80,7 +103,13 @@ public final class StorablesTest extends AbstractPoliticsTest {
         PoliticsWorld politicsWorld = plugin.getWorldManager().getWorld(world);
         Plot plot = politicsWorld.getPlotAtChunkPosition(testPlotX, testPlotY);
         plot.setOwner(ownerHousehold);
-        plot.createSubplot(new Cuboid(plot.getBasePoint(), new Vector3i(1, 1, 1)), memberId);
+        Subplot createdSubplot = plot.createSubplot(new Cuboid(plot.getBasePoint(), new Vector3i(1, 1, 1)), memberId);
+        UUID firstTenantId = server.getPlayer(1).getUniqueId();
+        UUID secondTenantId = server.getPlayer(2).getUniqueId();
+        createdSubplot.givePrivilege(firstTenantId, Privileges.GroupPlot.BUILD);
+        createdSubplot.givePrivilege(secondTenantId, Privileges.GroupPlot.BUILD);
+        createdSubplot.givePrivilege(secondTenantId, Privileges.GroupPlot.INTERACT);
+        createdSubplot.revokePrivilege(secondTenantId, Privileges.GroupPlot.INTERACT);
         BasicBSONObject worldBson = (BasicBSONObject) politicsWorld.toBSONObject();
         PoliticsWorld restoredWorld = PoliticsTestReflection.instantiateDefaultWorld(worldBson);
         Assert.assertEquals(TEST_WORLD_NAME, restoredWorld.getName());
@@ -90,11 +119,32 @@ public final class StorablesTest extends AbstractPoliticsTest {
         Subplot subplot = restoredPlot.getSubplot(0).orElse(null);
         Assert.assertNotNull(subplot);
         Assert.assertEquals(memberId, subplot.getOwnerId());
+        Assert.assertTrue(subplot.can(firstTenantId, Privileges.GroupPlot.BUILD));
+        Assert.assertFalse(subplot.can(secondTenantId, Privileges.GroupPlot.INTERACT));
+        // identical grants share one privilege set
+        Assert.assertSame(subplot.getPrivileges(firstTenantId), subplot.getPrivileges(secondTenantId));
+
+        // test change tracking
+        long universeGeneration = universe.getGeneration();
+        long worldGeneration = politicsWorld.getGeneration();
+        ownerHousehold.setRole(memberId, ownerHousehold.getLevel().getInitial());
+        Assert.assertTrue(universe.getGeneration() > universeGeneration);
+        Assert.assertEquals(worldGeneration, politicsWorld.getGeneration());
+        plot.removeOwner();
+        Assert.assertTrue(politicsWorld.getGeneration() > worldGeneration);
     }
 
     @Override
     @After
     public void tearDown() {
+        // region files would otherwise be loaded as a world with the default config by later tests
+        File lazyWorldDir = plugin.getFileSystem().getWorldDir(LAZY_WORLD_NAME);
+        if (lazyWorldDir.isDirectory()) {
+            for (File file : Objects.requireNonNull(lazyWorldDir.listFiles())) {
+                file.delete();
+            }
+            lazyWorldDir.delete();
+        }
         super.tearDown();
     }
 }
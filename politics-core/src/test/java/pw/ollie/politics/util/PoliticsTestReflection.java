@@ -22,6 +22,7 @@ package pw.ollie.politics.util;
 import pw.ollie.politics.AbstractPoliticsTest;
 import pw.ollie.politics.world.PoliticsWorld;
 import pw.ollie.politics.world.WorldConfig;
+import pw.ollie.politics.world.WorldManager;
 
 import org.bson.BasicBSONObject;
 
@@ -29,6 +30,7 @@ import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodHandles.Lookup;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
 import java.util.List;
 import java.util.Map;
 
@@ -59,6 +61,19 @@ public final class PoliticsTestReflection {
         }
     }
 
+    // registers the given config to be used when the PoliticsWorld for its world is first created
+    @SuppressWarnings("unchecked")
+    public static void putWorldConfig(WorldManager worldManager, WorldConfig config) {
+        try {
+            Field configsField = WorldManager.class.getDeclaredField("configs");
+            configsField.setAccessible(true);
+            MethodHandle configsGetter = lookup.unreflectGetter(configsField);
+            ((Map<String, WorldConfig>) configsGetter.invoke(worldManager)).put(config.getName(), config);
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     private PoliticsTestReflection() {
         throw new UnsupportedOperationException();
     }
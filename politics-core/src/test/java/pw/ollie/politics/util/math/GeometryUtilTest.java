@@ -0,0 +1,59 @@
+/*
+ * This file is part of Politics.
+ *
+ * Copyright (c) 2019 Oliver Stanley
+ * Politics is licensed under the Affero General Public License Version 3.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pw.ollie.politics.util.math;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class GeometryUtilTest {
+    // the extremes of the 26 bits available for x and z, and the world border
+    private static final int[] HORIZONTAL = {-(1 << 25), -30000000, -17, -1, 0, 1, 15, 16, 29999999, (1 << 25) - 1};
+    private static final int[] VERTICAL = {0, 1, 127, 128, 254, 255};
+
+    @Test
+    public void runTest() {
+        // block key round trips
+        for (int x : HORIZONTAL) {
+            for (int y : VERTICAL) {
+                for (int z : HORIZONTAL) {
+                    long key = GeometryUtil.toBlockKey(x, y, z);
+                    Assert.assertEquals(x, GeometryUtil.getBlockKeyX(key));
+                    Assert.assertEquals(y, GeometryUtil.getBlockKeyY(key));
+                    Assert.assertEquals(z, GeometryUtil.getBlockKeyZ(key));
+                }
+            }
+        }
+        Assert.assertNotEquals(GeometryUtil.toBlockKey(-1, 0, 0), GeometryUtil.toBlockKey(0, 0, -1));
+        Assert.assertNotEquals(GeometryUtil.toBlockKey(0, 255, 0), GeometryUtil.toBlockKey(0, 0, 255));
+
+        // positions use the key of the block they are within
+        Position position = new Position("world", -0.5F, 255.9F, -16.25F);
+        Assert.assertEquals(GeometryUtil.toBlockKey(-1, 255, -17), position.toBlockKey());
+
+        // containment by key matches containment by coordinates, excluding the maximum point
+        Cuboid cuboid = new Cuboid(null, -2, 0, -2, 4, 256, 4);
+        Assert.assertTrue(cuboid.contains(GeometryUtil.toBlockKey(-2, 0, -2)));
+        Assert.assertTrue(cuboid.contains(GeometryUtil.toBlockKey(1, 255, 1)));
+        Assert.assertFalse(cuboid.contains(position.toBlockKey()));
+        Assert.assertFalse(cuboid.contains(GeometryUtil.toBlockKey(2, 0, 0)));
+        Assert.assertFalse(cuboid.contains(GeometryUtil.toBlockKey(0, 0, -3)));
+        Assert.assertFalse(cuboid.contains(GeometryUtil.toBlockKey(0, 256, 0)));
+    }
+}
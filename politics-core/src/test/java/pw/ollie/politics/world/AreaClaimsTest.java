@@ -0,0 +1,118 @@
+/*
+ * This file is part of Politics.
+ *
+ * Copyright (c) 2019 Oliver Stanley
+ * Politics is licensed under the Affero General Public License Version 3.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pw.ollie.politics.world;
+
+import pw.ollie.politics.AbstractPoliticsTest;
+import pw.ollie.politics.event.group.GroupAreaClaimEvent;
+import pw.ollie.politics.group.Group;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+
+public final class AreaClaimsTest extends AbstractPoliticsTest {
+    @Override
+    @Before
+    public void setUp() {
+        super.setUp();
+    }
+
+    @Override
+    @Test
+    public void runTest() {
+        createDefaultUniverse();
+        World world = server.getWorld(TEST_WORLD_NAME);
+        PoliticsWorld politicsWorld = worldManager.getWorld(world);
+        Group household = createTestHousehold("Claimers");
+        Group neighbours = createTestHousehold("Neighbours");
+        int householdId = household.getUid();
+        Player claimer = server.getPlayer(0);
+
+        // radius claims update the owner summary and any owner tile already built
+        int[] tile = politicsWorld.getOwnerTile(RegionFile.getRegionKey(5, 5));
+        Assert.assertEquals(AreaClaimResult.SUCCESS, worldManager.claimRadius(household, world, 5, 5, 2, claimer));
+        for (int dx = -2; dx <= 2; dx++) {
+            for (int dz = -2; dz <= 2; dz++) {
+                int expected = dx * dx + dz * dz <= 4 ? householdId : -1;
+                Assert.assertEquals(expected, politicsWorld.getOwnerIdAtChunkPosition(5 + dx, 5 + dz));
+                Assert.assertEquals(expected, tile[RegionFile.getLocalIndex(5 + dx, 5 + dz)]);
+            }
+        }
+        Assert.assertEquals(AreaClaimResult.NO_CHANGE, worldManager.claimRadius(household, world, 5, 5, 2, claimer));
+
+        // claims are all or nothing
+        Assert.assertEquals(AreaClaimResult.ALREADY_OWNED, worldManager.claimArea(neighbours, world, 6, 6, 9, 9, claimer));
+        Assert.assertEquals(-1, politicsWorld.getOwnerIdAtChunkPosition(9, 9));
+        Assert.assertFalse(politicsWorld.getPlotAtChunkPosition(9, 9).hasOwner());
+
+        // areas which are too large, including those whose width overflows an int
+        Assert.assertEquals(AreaClaimResult.TOO_LARGE, worldManager.claimArea(household, world, 0, 0, 256, 256, claimer));
+        Assert.assertEquals(AreaClaimResult.TOO_LARGE, worldManager.claimArea(household, world, Integer.MIN_VALUE, 0, Integer.MAX_VALUE, 0, claimer));
+        Assert.assertEquals(AreaClaimResult.TOO_LARGE, worldManager.claimRadius(household, world, 0, 0, 128, claimer));
+        Assert.assertEquals(AreaClaimResult.SUCCESS, worldManager.claimArea(household, world, Integer.MAX_VALUE - 1, 0, Integer.MAX_VALUE, 0, claimer));
+        Assert.assertEquals(householdId, politicsWorld.getOwnerIdAtChunkPosition(Integer.MAX_VALUE, 0));
+        Assert.assertEquals(AreaClaimResult.SUCCESS, worldManager.unclaimArea(household, world, Integer.MAX_VALUE - 1, 0, Integer.MAX_VALUE, 0, claimer));
+
+        // a listener which changes an owner within the area stops the claim
+        Listener interloper = new Interloper(neighbours);
+        server.getPluginManager().registerEvents(interloper, plugin);
+        Assert.assertEquals(AreaClaimResult.CANCELLED, worldManager.claimArea(household, world, 20, 20, 22, 22, claimer));
+        HandlerList.unregisterAll(interloper);
+        for (int x = 20; x <= 22; x++) {
+            for (int z = 20; z <= 22; z++) {
+                Assert.assertNotEquals(householdId, politicsWorld.getOwnerIdAtChunkPosition(x, z));
+            }
+        }
+        Assert.assertEquals(neighbours.getUid(), politicsWorld.getOwnerIdAtChunkPosition(20, 20));
+
+        // unclaims
+        Assert.assertEquals(AreaClaimResult.SUCCESS, worldManager.unclaimRadius(household, world, 5, 5, 2, claimer));
+        Assert.assertEquals(-1, politicsWorld.getOwnerIdAtChunkPosition(5, 5));
+        Assert.assertEquals(-1, tile[RegionFile.getLocalIndex(5, 5)]);
+        Assert.assertEquals(AreaClaimResult.NO_CHANGE, worldManager.unclaimRadius(household, world, 5, 5, 2, claimer));
+    }
+
+    @Override
+    @After
+    public void tearDown() {
+        super.tearDown();
+    }
+
+    // claims the first plot of every area claim for another group
+    public static final class Interloper implements Listener {
+        private final Group group;
+
+        private Interloper(Group group) {
+            this.group = group;
+        }
+
+        @EventHandler
+        public void onAreaClaim(GroupAreaClaimEvent event) {
+            event.getPlots().get(0).setOwner(group);
+        }
+    }
+}
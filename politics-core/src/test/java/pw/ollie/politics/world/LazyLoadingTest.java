@@ -0,0 +1,93 @@
+/*
+ * This file is part of Politics.
+ *
+ * Copyright (c) 2019 Oliver Stanley
+ * Politics is licensed under the Affero General Public License Version 3.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pw.ollie.politics.world;
+
+import gnu.trove.map.hash.THashMap;
+
+import pw.ollie.politics.AbstractPoliticsTest;
+import pw.ollie.politics.group.Group;
+import pw.ollie.politics.util.PoliticsTestReflection;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Objects;
+
+public final class LazyLoadingTest extends AbstractPoliticsTest {
+    private static final String WORLD_NAME = "lazy";
+
+    @Override
+    @Before
+    public void setUp() {
+        super.setUp();
+    }
+
+    @Override
+    @Test
+    public void runTest() {
+        // there is no Bukkit world, so no chunks are loaded unless the test loads them
+        PoliticsTestReflection.putWorldConfig(worldManager, new WorldConfig(WORLD_NAME, true, true, true, true, true, new THashMap<>(), new THashMap<>()));
+        PoliticsWorld world = worldManager.getWorld(WORLD_NAME);
+        Group household = createTestHousehold();
+        long regionKey = RegionFile.getRegionKey(3, 3);
+        world.getPlotAtChunkPosition(3, 3).restoreOwner(household.getUid());
+        Assert.assertTrue(world.isRegionLoaded(regionKey));
+
+        // regions with changes are held until they are written, then evicted as none of their chunks are loaded
+        save();
+        Assert.assertFalse(world.isRegionLoaded(regionKey));
+        Assert.assertEquals(household.getUid(), world.getOwnerIdAtChunkPosition(3, 3));
+
+        // regions loaded only to look up a plot are released on the next save
+        Assert.assertTrue(world.getPlotAtChunkPosition(3, 3).isOwner(household));
+        Assert.assertTrue(world.isRegionLoaded(regionKey));
+        save();
+        Assert.assertFalse(world.isRegionLoaded(regionKey));
+
+        // regions with loaded chunks are kept until the chunks unload
+        world.onChunkLoad(3, 3);
+        save();
+        Assert.assertTrue(world.isRegionLoaded(regionKey));
+        world.onChunkUnload(3, 3);
+        Assert.assertFalse(world.isRegionLoaded(regionKey));
+    }
+
+    private void save() {
+        worldManager.saveWorlds();
+        plugin.getSavePipeline().flush();
+    }
+
+    @Override
+    @After
+    public void tearDown() {
+        // region files would otherwise be loaded as a world with the default config by later tests
+        File worldDir = plugin.getFileSystem().getWorldDir(WORLD_NAME);
+        if (worldDir.isDirectory()) {
+            for (File file : Objects.requireNonNull(worldDir.listFiles())) {
+                file.delete();
+            }
+            worldDir.delete();
+        }
+        super.tearDown();
+    }
+}
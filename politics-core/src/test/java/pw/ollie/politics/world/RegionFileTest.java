@@ -0,0 +1,104 @@
+/*
+ * This file is part of Politics.
+ *
+ * Copyright (c) 2019 Oliver Stanley
+ * Politics is licensed under the Affero General Public License Version 3.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pw.ollie.politics.world;
+
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+
+import pw.ollie.politics.util.math.GeometryUtil;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.bson.BSONObject;
+import org.bson.BasicBSONObject;
+import org.bson.types.BasicBSONList;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class RegionFileTest {
+    @Test
+    public void runTest() throws IOException {
+        // region -1, 2 covers chunks -32 to -1 on x and 64 to 95 on z
+        long regionKey = GeometryUtil.toChunkKey(-1, 2);
+        TIntObjectMap<BSONObject> plots = new TIntObjectHashMap<>();
+        // local index 0 is the lowest corner of the region, 1023 the highest
+        plots.put(0, newPlot(-32, 64, 7, false));
+        plots.put(1023, newPlot(-1, 95, -1, true));
+        plots.put(RegionFile.getLocalIndex(-20, 70), newPlot(-20, 70, 12, true));
+        Assert.assertEquals(0, RegionFile.getLocalIndex(-32, 64));
+        Assert.assertEquals(1023, RegionFile.getLocalIndex(-1, 95));
+        Assert.assertEquals(regionKey, RegionFile.getRegionKey(-1, 95));
+
+        byte[] encoded = RegionFile.encode(plots);
+
+        // full read
+        List<BasicBSONObject> read = new ArrayList<>();
+        RegionFile.read(new ByteArrayInputStream(encoded), read::add);
+        Assert.assertEquals(3, read.size());
+        for (BasicBSONObject plotObj : read) {
+            int localIndex = RegionFile.getLocalIndex(plotObj.getInt("x"), plotObj.getInt("z"));
+            Assert.assertEquals(plots.get(localIndex), plotObj);
+        }
+
+        // owners only
+        TLongIntMap owners = new TLongIntHashMap();
+        RegionFile.readOwners(new ByteArrayInputStream(encoded), regionKey, (key, owner) -> {
+            owners.put(key, owner);
+            return true;
+        });
+        Assert.assertEquals(3, owners.size());
+        Assert.assertEquals(7, owners.get(GeometryUtil.toChunkKey(-32, 64)));
+        Assert.assertEquals(-1, owners.get(GeometryUtil.toChunkKey(-1, 95)));
+        Assert.assertEquals(12, owners.get(GeometryUtil.toChunkKey(-20, 70)));
+        Assert.assertEquals(RegionFile.getChunkKey(regionKey, 1023), GeometryUtil.toChunkKey(-1, 95));
+
+        // corrupt data is rejected
+        byte[] truncated = new byte[encoded.length - 1];
+        System.arraycopy(encoded, 0, truncated, 0, truncated.length);
+        try {
+            RegionFile.read(new ByteArrayInputStream(truncated), plotObj -> {
+            });
+            Assert.fail("Truncated region file was read");
+        } catch (IOException expected) {
+        }
+    }
+
+    private static BasicBSONObject newPlot(int x, int z, int owner, boolean subplots) {
+        BasicBSONObject plotObj = new BasicBSONObject();
+        plotObj.put("x", x);
+        plotObj.put("z", z);
+        plotObj.put("owner", owner);
+        if (subplots) {
+            BasicBSONList subplotList = new BasicBSONList();
+            BasicBSONObject subplotObj = new BasicBSONObject();
+            subplotObj.put("id", 0);
+            subplotObj.put("x", x << 4);
+            subplotList.add(subplotObj);
+            plotObj.put("subplots", subplotList);
+        }
+        return plotObj;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * This file is part of Politics.
+ *
+ * Copyright (c) 2019 Oliver Stanley
+ * Politics is licensed under the Affero General Public License Version 3.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pw.ollie.politics.world;
+
+import pw.ollie.politics.world.plot.Subplot;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+public final class SubplotTreeTest {
+    private static final int BOXES = 400;
+    private static final int QUERIES = 2000;
+    private static final int EXTENT = 128;
+
+    private final Random random = new Random(1872L);
+
+    @Test
+    public void runTest() {
+        SubplotTree tree = new SubplotTree();
+        List<Subplot> subplots = new ArrayList<>();
+        UUID owner = UUID.randomUUID();
+        for (int i = 0; i < BOXES; i++) {
+            int x = random.nextInt(EXTENT) - EXTENT / 2;
+            int y = random.nextInt(EXTENT);
+            int z = random.nextInt(EXTENT) - EXTENT / 2;
+            Subplot subplot = new Subplot(null, i, x >> 4, z >> 4, x, y, z,
+                    1 + random.nextInt(16), 1 + random.nextInt(16), 1 + random.nextInt(16), owner);
+            subplots.add(subplot);
+            tree.insert(subplot);
+        }
+        Assert.assertEquals(BOXES, tree.size());
+        check(tree, subplots);
+
+        // remove half of the subplots in random order
+        Collections.shuffle(subplots, random);
+        List<Subplot> removed = new ArrayList<>(subplots.subList(0, BOXES / 2));
+        subplots.subList(0, BOXES / 2).clear();
+        for (Subplot subplot : removed) {
+            Assert.assertTrue(tree.remove(subplot));
+        }
+        for (Subplot subplot : removed) {
+            Assert.assertFalse(tree.remove(subplot));
+        }
+        Assert.assertEquals(BOXES - BOXES / 2, tree.size());
+        check(tree, subplots);
+    }
+
+    // compares point and box queries against a scan of every subplot
+    private void check(SubplotTree tree, List<Subplot> subplots) {
+        for (int i = 0; i < QUERIES; i++) {
+            int x = random.nextInt(EXTENT + 32) - EXTENT / 2 - 16;
+            int y = random.nextInt(EXTENT + 32) - 16;
+            int z = random.nextInt(EXTENT + 32) - EXTENT / 2 - 16;
+
+            // overlapping subplots are allowed here, so any subplot containing the point is a correct answer
+            Subplot found = tree.get(x, y, z);
+            boolean expectFound = subplots.stream().anyMatch(subplot -> subplot.contains(x, y, z));
+            Assert.assertEquals(expectFound, found != null);
+            if (found != null) {
+                Assert.assertTrue(found.contains(x, y, z));
+                Assert.assertTrue(subplots.contains(found));
+            }
+
+            int maxX = x + 1 + random.nextInt(24);
+            int maxY = y + 1 + random.nextInt(24);
+            int maxZ = z + 1 + random.nextInt(24);
+            Set<Subplot> expected = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Subplot subplot : subplots) {
+                if (subplot.getBaseX() < maxX && x < subplot.getBaseX() + subplot.getXSize()
+                        && subplot.getBaseY() < maxY && y < subplot.getBaseY() + subplot.getYSize()
+                        && subplot.getBaseZ() < maxZ && z < subplot.getBaseZ() + subplot.getZSize()) {
+                    expected.add(subplot);
+                }
+            }
+            Set<Subplot> actual = Collections.newSetFromMap(new IdentityHashMap<>());
+            Assert.assertTrue(tree.forEachIntersecting(x, y, z, maxX, maxY, maxZ, subplot -> {
+                Assert.assertTrue(actual.add(subplot));
+                return true;
+            }));
+            Assert.assertEquals(expected, actual);
+        }
+    }
+}
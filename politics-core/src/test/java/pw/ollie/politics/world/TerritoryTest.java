@@ -0,0 +1,77 @@
+/*
+ * This file is part of Politics.
+ *
+ * Copyright (c) 2019 Oliver Stanley
+ * Politics is licensed under the Affero General Public License Version 3.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pw.ollie.politics.world;
+
+import pw.ollie.politics.util.math.GeometryUtil;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class TerritoryTest {
+    @Test
+    public void runTest() {
+        // a line of three chunks is split in two by removing its middle
+        Territory line = new Territory();
+        for (int x = 0; x < 3; x++) {
+            line.add(GeometryUtil.toChunkKey(x, 0));
+        }
+        Assert.assertEquals(1, line.getNumComponents());
+        Assert.assertTrue(line.wouldDisconnect(GeometryUtil.toChunkKey(1, 0)));
+        Assert.assertFalse(line.wouldDisconnect(GeometryUtil.toChunkKey(0, 0)));
+        Assert.assertTrue(line.isConnected(GeometryUtil.toChunkKey(0, 0), GeometryUtil.toChunkKey(2, 0)));
+        line.remove(GeometryUtil.toChunkKey(1, 0));
+        Assert.assertEquals(2, line.getNumComponents());
+        Assert.assertFalse(line.isConnected(GeometryUtil.toChunkKey(0, 0), GeometryUtil.toChunkKey(2, 0)));
+        Assert.assertEquals(1, line.getComponentSize(GeometryUtil.toChunkKey(2, 0)));
+        // reconnecting a chunk which was removed
+        line.add(GeometryUtil.toChunkKey(1, 0));
+        Assert.assertEquals(1, line.getNumComponents());
+        Assert.assertEquals(3, line.getComponentSize(GeometryUtil.toChunkKey(0, 0)));
+
+        // a 3x3 ring stays connected around its hole when any one chunk is removed
+        Territory ring = new Territory();
+        for (int x = 0; x < 3; x++) {
+            for (int z = 0; z < 3; z++) {
+                if (x != 1 || z != 1) {
+                    ring.add(GeometryUtil.toChunkKey(x, z));
+                }
+            }
+        }
+        Assert.assertEquals(1, ring.getNumComponents());
+        Assert.assertTrue(ring.isAdjacent(GeometryUtil.toChunkKey(1, 1)));
+        Assert.assertFalse(ring.isAdjacent(GeometryUtil.toChunkKey(3, 3)));
+        for (int x = 0; x < 3; x++) {
+            for (int z = 0; z < 3; z++) {
+                if (x != 1 || z != 1) {
+                    Assert.assertFalse(ring.wouldDisconnect(GeometryUtil.toChunkKey(x, z)));
+                }
+            }
+        }
+        ring.remove(GeometryUtil.toChunkKey(1, 0));
+        Assert.assertEquals(1, ring.getNumComponents());
+        Assert.assertEquals(7, ring.getComponentSize(GeometryUtil.toChunkKey(0, 0)));
+        // the ring is now a line around the hole, so removing its middle splits it
+        Assert.assertTrue(ring.wouldDisconnect(GeometryUtil.toChunkKey(1, 2)));
+        Assert.assertFalse(ring.wouldDisconnect(GeometryUtil.toChunkKey(0, 0)));
+        ring.remove(GeometryUtil.toChunkKey(1, 2));
+        Assert.assertEquals(2, ring.getNumComponents());
+        Assert.assertEquals(3, ring.getComponentSize(GeometryUtil.toChunkKey(2, 2)));
+    }
+}
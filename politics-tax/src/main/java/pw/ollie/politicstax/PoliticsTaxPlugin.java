@@ -20,7 +20,6 @@
 package pw.ollie.politicstax;
 
 import pw.ollie.politics.Politics;
-import pw.ollie.politics.PoliticsPlugin;
 import pw.ollie.politicstax.command.GroupSettaxCommand;
 import pw.ollie.politicstax.tax.TaxationManager;
 
@@ -43,7 +42,8 @@ public final class PoliticsTaxPlugin extends JavaPlugin {
         this.taxationManager.loadTaxData();
 
         this.saveTask = new PoliticsTaxDataSaveTask(this);
-        this.saveTask.runTaskTimer(this, PoliticsPlugin.DATA_SAVE_INTERVAL, PoliticsPlugin.DATA_SAVE_INTERVAL);
+        long saveInterval = Politics.getConfig().getDataSaveInterval();
+        this.saveTask.runTaskTimer(this, saveInterval, saveInterval);
 
         Politics.getGroupManager().streamGroupLevels().forEach(level -> Politics.getCommandManager().getPoliticsCommand(level.getId()).registerSubCommand(new GroupSettaxCommand(level)));
     }
@@ -53,6 +53,7 @@ public final class PoliticsTaxPlugin extends JavaPlugin {
         this.saveTask.cancel();
 
         this.taxationManager.saveTaxData(true);
+        Politics.getSavePipeline().flush();
     }
 
     public PoliticsTaxConfig getTaxConfig() {
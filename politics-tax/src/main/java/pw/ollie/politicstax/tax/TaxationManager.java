@@ -31,9 +31,16 @@ import pw.ollie.politics.group.GroupProperty;
 import pw.ollie.politics.universe.Universe;
 import pw.ollie.politicstax.PoliticsTaxPlugin;
 
+import org.bson.BSONObject;
+import org.bson.BasicBSONDecoder;
+import org.bson.BasicBSONObject;
+
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Map;
 import java.util.UUID;
+import java.util.logging.Level;
 
 public final class TaxationManager {
     // todo docs
@@ -82,7 +89,23 @@ public final class TaxationManager {
     }
 
     public void loadTaxData() {
-        // todo load from file
+        File taxFile = getTaxFile();
+        if (taxFile.exists()) {
+            try {
+                BSONObject object = new BasicBSONDecoder().readObject(Files.readAllBytes(taxFile.toPath()));
+                for (String playerKey : object.keySet()) {
+                    BSONObject collectionsObj = (BSONObject) object.get(playerKey);
+                    TObjectIntMap<Universe> collections = getLastCollections(UUID.fromString(playerKey));
+                    for (String universeName : collectionsObj.keySet()) {
+                        int lastCollection = ((Number) collectionsObj.get(universeName)).intValue();
+                        Politics.getUniverseManager().getUniverse(universeName)
+                                .ifPresent(universe -> collections.put(universe, lastCollection));
+                    }
+                }
+            } catch (IOException ex) {
+                plugin.getLogger().log(Level.SEVERE, "Could not read tax data file!", ex);
+            }
+        }
 
         this.collectionTask = new TaxationCollectionTask(plugin);
         this.collectionTask.runTaskTimer(plugin, TASK_PERIOD, TASK_PERIOD);
@@ -93,8 +116,20 @@ public final class TaxationManager {
             this.collectionTask.cancel();
         }
 
-        File dataDir = Politics.getFileSystem().getDataDir();
-        File taxFile = new File(dataDir, "taxdata.ptx");
-        // todo
+        BasicBSONObject object = new BasicBSONObject();
+        lastCollections.forEach((playerId, collections) -> {
+            BasicBSONObject collectionsObj = new BasicBSONObject();
+            collections.forEachEntry((universe, lastCollection) -> {
+                collectionsObj.put(universe.getName(), lastCollection);
+                return true;
+            });
+            object.put(playerId.toString(), collectionsObj);
+        });
+
+        Politics.getSavePipeline().write(getTaxFile(), object, null);
+    }
+
+    private File getTaxFile() {
+        return new File(Politics.getFileSystem().getDataDir(), "taxdata.ptx");
     }
 }
@@ -19,7 +19,7 @@
  */
 package pw.ollie.politicswar;
 
-import pw.ollie.politics.PoliticsPlugin;
+import pw.ollie.politics.Politics;
 import pw.ollie.politicswar.war.WarManager;
 
 import org.bukkit.plugin.java.JavaPlugin;
@@ -37,7 +37,8 @@ public final class PoliticsWarPlugin extends JavaPlugin {
         this.warManager.loadWars();
 
         this.saveTask = new PoliticsWarDataSaveTask(this);
-        this.saveTask.runTaskTimer(this, PoliticsPlugin.DATA_SAVE_INTERVAL, PoliticsPlugin.DATA_SAVE_INTERVAL);
+        long saveInterval = Politics.getConfig().getDataSaveInterval();
+        this.saveTask.runTaskTimer(this, saveInterval, saveInterval);
     }
 
     @Override
@@ -45,6 +46,7 @@ public final class PoliticsWarPlugin extends JavaPlugin {
         this.saveTask.cancel();
 
         this.warManager.saveWars();
+        Politics.getSavePipeline().flush();
     }
 
     /**
@@ -20,6 +20,7 @@
 package pw.ollie.politicswar.war;
 
 import pw.ollie.politics.Politics;
+import pw.ollie.politics.data.GenerationTracker;
 import pw.ollie.politics.data.Storable;
 import pw.ollie.politics.group.Group;
 import pw.ollie.politics.universe.Universe;
@@ -43,6 +44,7 @@ public final class War implements Storable {
     private int defenderScore = 0;
 
     private boolean active;
+    private long generation;
 
     public War(int aggressor, int defender) {
         if (aggressor == defender) {
@@ -94,6 +96,7 @@ public final class War implements Storable {
 
     public void setAggressorScore(int aggressorScore) {
         this.aggressorScore = aggressorScore;
+        markChanged();
     }
 
     public int getDefenderScore() {
@@ -102,6 +105,7 @@ public final class War implements Storable {
 
     public void setDefenderScore(int defenderScore) {
         this.defenderScore = defenderScore;
+        markChanged();
     }
 
     public Group getWinningGroup() {
@@ -137,6 +141,7 @@ public final class War implements Storable {
             startTime = LocalDateTime.now();
         }
         this.active = active;
+        markChanged();
     }
 
     @Override
@@ -157,4 +162,13 @@ public final class War implements Storable {
     public boolean shouldStore() {
         return true;
     }
+
+    @Override
+    public long getGeneration() {
+        return generation;
+    }
+
+    private void markChanged() {
+        generation = GenerationTracker.nextGeneration();
+    }
 }
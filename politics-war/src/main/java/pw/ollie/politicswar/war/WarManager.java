@@ -22,10 +22,11 @@ package pw.ollie.politicswar.war;
 import gnu.trove.set.hash.THashSet;
 
 import pw.ollie.politics.Politics;
+import pw.ollie.politics.data.GenerationTracker;
+import pw.ollie.politics.data.SavePipeline;
 import pw.ollie.politics.group.Group;
 import pw.ollie.politics.group.GroupProperty;
 import pw.ollie.politics.universe.Universe;
-import pw.ollie.politics.util.FileUtil;
 import pw.ollie.politics.util.stream.CollectorUtil;
 import pw.ollie.politicswar.PoliticsWarPlugin;
 import pw.ollie.politicswar.event.PoliticsWarEventFactory;
@@ -33,10 +34,8 @@ import pw.ollie.politicswar.event.war.WarBeginEvent;
 import pw.ollie.politicswar.event.war.WarFinishEvent;
 
 import org.bson.BSONDecoder;
-import org.bson.BSONEncoder;
 import org.bson.BSONObject;
 import org.bson.BasicBSONDecoder;
-import org.bson.BasicBSONEncoder;
 import org.bson.BasicBSONObject;
 
 import org.bukkit.Bukkit;
@@ -46,6 +45,7 @@ import org.bukkit.plugin.PluginManager;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.Iterator;
 import java.util.Objects;
 import java.util.Set;
 import java.util.logging.Level;
@@ -57,10 +57,15 @@ public final class WarManager {
     // todo docs
     private final PoliticsWarPlugin plugin;
     private final Set<War> activeWars;
+    private final GenerationTracker<String> savedWars;
+    // names of war files which exist on disk
+    private final Set<String> warFiles;
 
     public WarManager(PoliticsWarPlugin plugin) {
         this.plugin = plugin;
         this.activeWars = new THashSet<>();
+        this.savedWars = new GenerationTracker<>();
+        this.warFiles = new THashSet<>();
     }
 
     public Set<War> getActiveWars() {
@@ -181,6 +186,8 @@ public final class WarManager {
 
             War war = new War((BasicBSONObject) bson);
             activeWars.add(war);
+            savedWars.markSaved(fileName, war.getGeneration());
+            warFiles.add(fileName);
         }
 
         PluginManager pluginManager = plugin.getServer().getPluginManager();
@@ -189,40 +196,44 @@ public final class WarManager {
     }
 
     public void saveWars() {
-        File dataDir = Politics.getFileSystem().getDataDir();
-        File warsDataDir = new File(dataDir, "wars");
-        BSONEncoder encoder = new BasicBSONEncoder();
+        File warsDataDir = new File(Politics.getFileSystem().getDataDir(), "wars");
+        SavePipeline pipeline = Politics.getSavePipeline();
 
         Set<String> storedWarFiles = new THashSet<>();
-
         for (War war : activeWars) {
             if (!war.shouldStore()) {
                 continue;
             }
 
-            String fileName = war.getAggressorId() + "_" + war.getDefenderId() + ".pws";
-            File warFile = new File(warsDataDir, fileName);
-            storedWarFiles.add(warFile.getAbsolutePath());
+            String fileName = getFileName(war);
+            storedWarFiles.add(fileName);
+            warFiles.add(fileName);
 
-            try {
-                FileUtil.createBackup(warFile);
-            } catch (IOException ex) {
-                plugin.getLogger().log(Level.SEVERE, "Could not back up world file for war. Data will not be saved...", ex);
+            long generation = war.getGeneration();
+            if (!savedWars.hasChanged(fileName, generation)) {
                 continue;
             }
 
-            byte[] data = encoder.encode(war.toBSONObject());
-            try {
-                Files.write(warFile.toPath(), data);
-            } catch (IOException ex) {
-                plugin.getLogger().log(Level.SEVERE, "Could not save war file due to error! Please restore backup...", ex);
-            }
+            pipeline.write(new File(warsDataDir, fileName), war.toBSONObject(), success -> {
+                if (success) {
+                    savedWars.markSaved(fileName, generation);
+                }
+            });
         }
 
-        for (File file : Objects.requireNonNull(warsDataDir.listFiles())) {
-            if (!storedWarFiles.contains(file.getAbsolutePath())) {
-                file.delete();
+        // delete the files of wars which have finished
+        Iterator<String> it = warFiles.iterator();
+        while (it.hasNext()) {
+            String fileName = it.next();
+            if (!storedWarFiles.contains(fileName)) {
+                it.remove();
+                savedWars.forget(fileName);
+                pipeline.delete(new File(warsDataDir, fileName), null);
             }
         }
     }
+
+    private String getFileName(War war) {
+        return war.getAggressorId() + "_" + war.getDefenderId() + ".pws";
+    }
 }